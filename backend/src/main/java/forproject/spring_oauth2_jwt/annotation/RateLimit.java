@@ -0,0 +1,62 @@
+package forproject.spring_oauth2_jwt.annotation;
+
+import forproject.spring_oauth2_jwt.enums.RateLimitKeyType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 요청 제한(Rate Limit) 어노테이션
+ *
+ * 이 어노테이션이 붙은 메서드는 실행 전에 RateLimitAspect 가 슬라이딩 윈도우 제한을 검사합니다.
+ * 초과 시 RateLimitExceededException → 429 + Retry-After 응답.
+ *
+ * 사용 예시:
+ * <pre>
+ * {@code
+ * @RateLimit(name = "email-send", keyType = RateLimitKeyType.EMAIL, key = "#request.email",
+ *            limit = 5, windowSeconds = 3600)
+ * @RateLimit(name = "email-send-ip", keyType = RateLimitKeyType.IP, limit = 20, windowSeconds = 3600)
+ * public ResponseEntity<?> sendVerificationCode(SendVerificationCodeRequest request) { ... }
+ * }
+ * </pre>
+ *
+ * 설정 파일에서 라우트별로 덮어쓸 수 있습니다:
+ * <pre>
+ * rate-limit.routes.email-send.limit=10
+ * rate-limit.routes.email-send.window-seconds=1800
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(RateLimits.class)
+public @interface RateLimit {
+
+    /**
+     * 라우트 이름 (Redis 키 / 설정 키에 사용)
+     */
+    String name();
+
+    /**
+     * 카운트 기준 (기본값: IP)
+     */
+    RateLimitKeyType keyType() default RateLimitKeyType.IP;
+
+    /**
+     * keyType = EMAIL 일 때 값을 꺼낼 SpEL 식 (예: "#request.email")
+     */
+    String key() default "";
+
+    /**
+     * 윈도우 안에서 허용할 최대 요청 수
+     */
+    int limit();
+
+    /**
+     * 슬라이딩 윈도우 길이 (초)
+     */
+    long windowSeconds();
+}
@@ -0,0 +1,150 @@
+package forproject.spring_oauth2_jwt.aspect;
+
+import forproject.spring_oauth2_jwt.annotation.RateLimit;
+import forproject.spring_oauth2_jwt.dto.UserPrincipal;
+import forproject.spring_oauth2_jwt.enums.RateLimitKeyType;
+import forproject.spring_oauth2_jwt.exception.RateLimitExceededException;
+import forproject.spring_oauth2_jwt.service.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @RateLimit 처리 Aspect
+ *
+ * 메서드별 규칙(설정 덮어쓰기, SpEL 파싱 결과)은 처음 호출될 때 한 번만 계산해 캐싱한다.
+ */
+@Aspect
+@Component
+@Slf4j
+public class RateLimitAspect {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final RateLimiter rateLimiter;
+    private final Environment environment;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<Method, Rule[]> rules = new ConcurrentHashMap<>();
+
+    public RateLimitAspect(RateLimiter rateLimiter, Environment environment) {
+        this.rateLimiter = rateLimiter;
+        this.environment = environment;
+        this.enabled = environment.getProperty("rate-limit.enabled", Boolean.class, true);
+    }
+
+    @Before("@annotation(forproject.spring_oauth2_jwt.annotation.RateLimit) || "
+            + "@annotation(forproject.spring_oauth2_jwt.annotation.RateLimits)")
+    public void checkRateLimit(JoinPoint joinPoint) {
+        if (!enabled) {
+            return;
+        }
+
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Method method = signature.getMethod();
+        Rule[] methodRules = rules.computeIfAbsent(method, this::buildRules);
+
+        for (Rule rule : methodRules) {
+            String key = resolveKey(rule, method, joinPoint.getArgs());
+            if (key == null) {
+                // 키를 만들 수 없는 요청(비로그인, 빈 이메일 등)은 해당 규칙만 건너뜀
+                continue;
+            }
+
+            RateLimiter.Decision decision = rateLimiter.tryAcquire(rule.name, key, rule.limit, rule.windowMs);
+            if (!decision.isAllowed()) {
+                throw new RateLimitExceededException(
+                        "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.",
+                        String.format("Rate limit 초과 - route: %s, key: %s, limit: %d/%dms",
+                                rule.name, key, rule.limit, rule.windowMs),
+                        decision.getRetryAfterSeconds()
+                );
+            }
+        }
+    }
+
+    private Rule[] buildRules(Method method) {
+        Set<RateLimit> annotations = AnnotatedElementUtils.findMergedRepeatableAnnotations(method, RateLimit.class);
+        return annotations.stream().map(annotation -> {
+            String prefix = "rate-limit.routes." + annotation.name() + ".";
+            int limit = environment.getProperty(prefix + "limit", Integer.class, annotation.limit());
+            long windowSeconds = environment.getProperty(prefix + "window-seconds", Long.class, annotation.windowSeconds());
+            Expression expression = annotation.key().isEmpty() ? null : PARSER.parseExpression(annotation.key());
+
+            log.debug("Rate Limit 규칙 등록 - method: {}, route: {}, keyType: {}, limit: {}/{}s",
+                    method.getName(), annotation.name(), annotation.keyType(), limit, windowSeconds);
+            return new Rule(annotation.name(), annotation.keyType(), expression, limit, windowSeconds * 1000L);
+        }).toArray(Rule[]::new);
+    }
+
+    private String resolveKey(Rule rule, Method method, Object[] args) {
+        if (rule.keyType == RateLimitKeyType.IP) {
+            HttpServletRequest request = currentRequest();
+            return request != null ? request.getRemoteAddr() : null;
+        }
+
+        if (rule.keyType == RateLimitKeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return String.valueOf(principal.getId());
+            }
+            return null;
+        }
+
+        if (rule.keyExpression == null) {
+            throw new IllegalArgumentException("EMAIL 기준 Rate Limit 은 key(SpEL) 가 필요합니다: " + rule.name);
+        }
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(null, method, args, PARAMETER_NAMES);
+        Object value = rule.keyExpression.getValue(context);
+        if (value == null || value.toString().isBlank()) {
+            return null;
+        }
+        return value.toString().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest();
+        }
+        return null;
+    }
+
+    private static final class Rule {
+        private final String name;
+        private final RateLimitKeyType keyType;
+        private final Expression keyExpression;
+        private final int limit;
+        private final long windowMs;
+
+        private Rule(String name, RateLimitKeyType keyType, Expression keyExpression, int limit, long windowMs) {
+            this.name = name;
+            this.keyType = keyType;
+            this.keyExpression = keyExpression;
+            this.limit = limit;
+            this.windowMs = windowMs;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package forproject.spring_oauth2_jwt.cli;
+
+import forproject.spring_oauth2_jwt.service.TripBalanceLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 정산 장부(trip_balance) 재계산 / 검증 CLI
+ *
+ * 사용법:
+ *   java -jar app.jar rebuild:balances                  # 모든 여행 장부를 원본에서 재계산
+ *   java -jar app.jar rebuild:balances --trip=12        # 특정 여행만
+ *   java -jar app.jar rebuild:balances --dry-run        # 쓰기 없이 장부와 원본 비교만
+ *
+ * 다른 명령이면 아무것도 하지 않음 (웹 모드 / cleanup:images 는 ImageCleanupCliRunner 가 처리)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceLedgerCliRunner implements CommandLineRunner {
+
+    private static final String COMMAND = "rebuild:balances";
+
+    private final TripBalanceLedger tripBalanceLedger;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (args.length == 0 || !COMMAND.equals(args[0])) {
+            return;
+        }
+
+        try {
+            String[] optionArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, optionArgs, 0, args.length - 1);
+            CommandLine cmd = new DefaultParser().parse(createOptions(), optionArgs);
+
+            boolean dryRun = cmd.hasOption("dry-run");
+            List<Long> tripIds = cmd.hasOption("trip")
+                    ? List.of(Long.parseLong(cmd.getOptionValue("trip")))
+                    : tripBalanceLedger.findAllTripIds();
+
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("🧮 정산 장부 " + (dryRun ? "검증 (DRY RUN)" : "재계산"));
+            System.out.println("=".repeat(60));
+
+            int mismatchedTrips = 0;
+            int mismatchedUsers = 0;
+            for (Long tripId : tripIds) {
+                TripBalanceLedger.RebuildResult result = dryRun
+                        ? tripBalanceLedger.verify(tripId)
+                        : tripBalanceLedger.rebuild(tripId);
+                if (result.mismatches() > 0) {
+                    mismatchedTrips++;
+                    mismatchedUsers += result.mismatches();
+                    System.out.println("  • tripId=" + tripId + " 불일치 " + result.mismatches() + "명");
+                }
+            }
+
+            System.out.println("📊 대상 여행:     " + tripIds.size() + "개");
+            System.out.println("❌ 불일치 여행:   " + mismatchedTrips + "개 (" + mismatchedUsers + "명)");
+            System.out.println(dryRun ? "✨ 검증 완료" : "✨ 재계산 완료 (불일치 항목은 원본 기준으로 교정됨)");
+            System.out.println("=".repeat(60));
+
+            System.exit(dryRun && mismatchedTrips > 0 ? 2 : 0);
+        } catch (Exception e) {
+            log.error("정산 장부 재계산 중 오류 발생", e);
+            System.err.println("❌ 실행 실패: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private Options createOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder()
+                .longOpt("trip")
+                .desc("특정 여행만 처리")
+                .hasArg(true)
+                .argName("TRIP_ID")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("dry-run")
+                .desc("쓰기 없이 장부와 원본 비교만")
+                .hasArg(false)
+                .build());
+        return options;
+    }
+}
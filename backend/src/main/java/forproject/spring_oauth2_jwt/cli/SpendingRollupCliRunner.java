@@ -0,0 +1,95 @@
+package forproject.spring_oauth2_jwt.cli;
+
+import forproject.spring_oauth2_jwt.service.TripSpendingRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 지출 롤업(trip_spending_rollup) 백필 / 검증 CLI
+ *
+ * 사용법:
+ *   java -jar app.jar backfill:rollups                  # 모든 여행 롤업을 원본에서 생성/재계산
+ *   java -jar app.jar backfill:rollups --trip=12        # 특정 여행만
+ *   java -jar app.jar backfill:rollups --dry-run        # 쓰기 없이 롤업과 원본 비교만
+ *
+ * 다른 명령이면 아무것도 하지 않음 (웹 모드 / 다른 CLI 명령은 각 Runner 가 처리)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SpendingRollupCliRunner implements CommandLineRunner {
+
+    private static final String COMMAND = "backfill:rollups";
+
+    private final TripSpendingRollupService tripSpendingRollupService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (args.length == 0 || !COMMAND.equals(args[0])) {
+            return;
+        }
+
+        try {
+            String[] optionArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, optionArgs, 0, args.length - 1);
+            CommandLine cmd = new DefaultParser().parse(createOptions(), optionArgs);
+
+            boolean dryRun = cmd.hasOption("dry-run");
+            List<Long> tripIds = cmd.hasOption("trip")
+                    ? List.of(Long.parseLong(cmd.getOptionValue("trip")))
+                    : tripSpendingRollupService.findAllTripIds();
+
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("📊 지출 롤업 " + (dryRun ? "검증 (DRY RUN)" : "백필"));
+            System.out.println("=".repeat(60));
+
+            int mismatchedTrips = 0;
+            int mismatchedRows = 0;
+            for (Long tripId : tripIds) {
+                TripSpendingRollupService.RebuildResult result = dryRun
+                        ? tripSpendingRollupService.verify(tripId)
+                        : tripSpendingRollupService.rebuild(tripId);
+                if (result.mismatches() > 0) {
+                    mismatchedTrips++;
+                    mismatchedRows += result.mismatches();
+                    System.out.println("  • tripId=" + tripId + " 불일치 " + result.mismatches() + "행");
+                }
+            }
+
+            System.out.println("📊 대상 여행:     " + tripIds.size() + "개");
+            System.out.println("❌ 불일치 여행:   " + mismatchedTrips + "개 (" + mismatchedRows + "행)");
+            System.out.println(dryRun ? "✨ 검증 완료" : "✨ 백필 완료 (불일치 항목은 원본 기준으로 교정됨)");
+            System.out.println("=".repeat(60));
+
+            System.exit(dryRun && mismatchedTrips > 0 ? 2 : 0);
+        } catch (Exception e) {
+            log.error("지출 롤업 백필 중 오류 발생", e);
+            System.err.println("❌ 실행 실패: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private Options createOptions() {
+        Options options = new Options();
+        options.addOption(Option.builder()
+                .longOpt("trip")
+                .desc("특정 여행만 처리")
+                .hasArg(true)
+                .argName("TRIP_ID")
+                .build());
+        options.addOption(Option.builder()
+                .longOpt("dry-run")
+                .desc("쓰기 없이 롤업과 원본 비교만")
+                .hasArg(false)
+                .build());
+        return options;
+    }
+}
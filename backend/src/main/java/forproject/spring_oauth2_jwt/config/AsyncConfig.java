@@ -1,6 +1,7 @@
 package forproject.spring_oauth2_jwt.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -73,4 +74,87 @@ public class AsyncConfig {
         log.info("✅ SSE 비동기 스레드 풀 초기화 완료 - Core: 3, Max: 10, Queue: 200");
         return executor;
     }
+
+    /**
+     * SSE 이벤트 디스패치 전용 스레드 풀 (SseService 연결별 전송 큐를 비우는 용도)
+     *
+     * - corePoolSize = maxPoolSize = sse.dispatch.threads (기본 16), 유휴 60초 후 축소
+     * - queueCapacity: 10000 (연결 수만큼 drain 작업이 쌓일 수 있음)
+     * - 큐가 가득 차면 거절 (AbortPolicy) → 이벤트는 연결 큐에 남고 다음 전송/heartbeat 때 재시도
+     *
+     * 설계 근거:
+     * - 알림을 만드는 요청/트랜잭션 스레드가 느린 클라이언트의 네트워크 쓰기를 기다리지 않도록 분리
+     * - 연결마다 동시에 하나의 drain 작업만 실행되므로 이벤트 순서가 보장됨
+     * - ThreadPoolExecutor 는 큐가 가득 차야 core 를 넘는 스레드를 만들므로 core 를 max 와 같게 둠
+     *   (core 4 / max 8 이면 사실상 4개만 동작 → 느린 클라이언트 4개가 전체 전송을 막음)
+     * - 한 번의 쓰기는 sse.write-timeout-ms 로 제한 (SseService.closeStalledWrites)
+     */
+    @Bean(name = "sseDispatchExecutor")
+    public Executor sseDispatchExecutor(@Value("${sse.dispatch.threads:16}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds(60);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("SSE-Dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        log.info("✅ SSE 디스패치 스레드 풀 초기화 완료 - Core/Max: {}, Queue: 10000", threads);
+        return executor;
+    }
+
+    /**
+     * 알림 실시간 발행 전용 스레드 풀 (트랜잭션 커밋 후 NotificationWriter 가 사용)
+     *
+     * - corePoolSize: 2 / maxPoolSize: 4
+     * - queueCapacity: 1000
+     * - 큐가 가득 차면 거절 → 실시간 전송만 생략 (알림은 이미 저장되어 재연결/조회 시 전달)
+     *
+     * 설계 근거:
+     * - 커밋을 마친 요청 스레드가 Redis 발행 / 직렬화를 기다리지 않도록 분리
+     */
+    @Bean(name = "notificationDispatchExecutor")
+    public Executor notificationDispatchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("Notification-Dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+
+        log.info("✅ 알림 발행 스레드 풀 초기화 완료 - Core: 2, Max: 4, Queue: 1000");
+        return executor;
+    }
+
+    /**
+     * 비밀번호 해시 검증(BCrypt) 전용 스레드 풀
+     *
+     * - corePoolSize / maxPoolSize: CPU 코어 수
+     * - queueCapacity: 100
+     * - 큐가 가득 차면 거절 (AbortPolicy) → 로그인 503 응답
+     *
+     * 설계 근거:
+     * - BCrypt는 순수 CPU 작업이라 코어 수보다 많이 동시에 돌려도 처리량이 늘지 않음
+     * - 로그인 폭주 시에도 나머지 API 요청이 CPU를 확보할 수 있도록 동시 실행 수 제한
+     * - 큐를 넘는 요청은 기다리게 하지 않고 바로 거절하여 요청 스레드 적체 방지
+     */
+    @Bean(name = "passwordHashExecutor")
+    public Executor passwordHashExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("BCrypt-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+
+        log.info("✅ BCrypt 검증 스레드 풀 초기화 완료 - Core: {}, Max: {}, Queue: 100", cores, cores);
+        return executor;
+    }
 }
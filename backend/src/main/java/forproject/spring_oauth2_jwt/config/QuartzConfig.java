@@ -2,9 +2,12 @@ package forproject.spring_oauth2_jwt.config;
 
 
 import forproject.spring_oauth2_jwt.scheduler.ImageCleanupJob;
+import forproject.spring_oauth2_jwt.scheduler.NotificationRetentionJob;
+import forproject.spring_oauth2_jwt.scheduler.UnreadCountReconcileJob;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.validator.constraints.CodePointLength;
 import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -65,4 +68,70 @@ public class QuartzConfig {
                 .startNow()  // 스케줄러 시작시 바로 활성화
                 .build();
     }
+
+    /**
+     * 읽지 않은 알림 카운터 보정 JobDetail
+     */
+    @Bean
+    public JobDetail unreadCountReconcileJobDetail() {
+        return JobBuilder.newJob(UnreadCountReconcileJob.class)
+                .withIdentity("unreadCountReconcileJob", "maintenanceGroup")
+                .withDescription("읽지 않은 알림 카운터(Redis) 보정 작업")
+                .storeDurably(true)
+                .build();
+    }
+
+    /**
+     * 알림 카운터 보정 Trigger - notification.unread-counter.reconcile-interval-seconds 간격 (기본 10분)
+     */
+    @Bean
+    public Trigger unreadCountReconcileTrigger(
+            @Value("${notification.unread-counter.reconcile-interval-seconds:600}") int intervalSeconds) {
+        log.info("알림 카운터 보정 Trigger 생성 - {}초 간격", intervalSeconds);
+
+        return TriggerBuilder.newTrigger()
+                .forJob(unreadCountReconcileJobDetail())
+                .withIdentity("unreadCountReconcileTrigger", "maintenanceGroup")
+                .withDescription("읽지 않은 알림 카운터 주기적 보정")
+                .withSchedule(
+                        SimpleScheduleBuilder.simpleSchedule()
+                                .withIntervalInSeconds(intervalSeconds)
+                                .repeatForever()
+                                .withMisfireHandlingInstructionNextWithRemainingCount()  // 놓친 실행은 건너뜀
+                )
+                .startAt(DateBuilder.futureDate(intervalSeconds, DateBuilder.IntervalUnit.SECOND))
+                .build();
+    }
+
+    /**
+     * 읽은 알림 정리 JobDetail
+     */
+    @Bean
+    public JobDetail notificationRetentionJobDetail() {
+        return JobBuilder.newJob(NotificationRetentionJob.class)
+                .withIdentity("notificationRetentionJob", "maintenanceGroup")
+                .withDescription("보관 기간이 지난 읽은 알림 정리 작업")
+                .storeDurably(true)
+                .requestRecovery(true)
+                .build();
+    }
+
+    /**
+     * 읽은 알림 정리 Trigger - 매일 오전 4시 (이미지 정리와 겹치지 않게)
+     */
+    @Bean
+    public Trigger notificationRetentionTrigger() {
+        log.info("알림 정리 자동 스케줄 Trigger 생성 - 매일 오전 4시");
+
+        return TriggerBuilder.newTrigger()
+                .forJob(notificationRetentionJobDetail())
+                .withIdentity("notificationRetentionTrigger", "maintenanceGroup")
+                .withDescription("매일 오전 4시 읽은 알림 정리 실행")
+                .withSchedule(
+                        CronScheduleBuilder.cronSchedule("0 0 4 * * ?")
+                                .withMisfireHandlingInstructionDoNothing()
+                )
+                .startNow()
+                .build();
+    }
 }
@@ -2,15 +2,21 @@ package forproject.spring_oauth2_jwt.config;
 
 //import forproject.spring_oauth2_jwt.interceptor.NicknameCheckInterceptor;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.jwt.AccessTokenDenylist;
+import forproject.spring_oauth2_jwt.jwt.BoundedBCryptPasswordEncoder;
 import forproject.spring_oauth2_jwt.jwt.JWTFilter;
 import forproject.spring_oauth2_jwt.jwt.JWTUtil;
 import forproject.spring_oauth2_jwt.jwt.LoginFilter;
+import forproject.spring_oauth2_jwt.jwt.VerifiedTokenCache;
 import forproject.spring_oauth2_jwt.oauth2.CustomSuccessHandler;
-import forproject.spring_oauth2_jwt.repository.UserRepository;
 import forproject.spring_oauth2_jwt.service.CustomLogoutFilter;
 import forproject.spring_oauth2_jwt.service.CustomOAuth2UserService;
+import forproject.spring_oauth2_jwt.service.RateLimiter;
 import forproject.spring_oauth2_jwt.service.RefreshTokenService;
+import forproject.spring_oauth2_jwt.service.UserPrincipalCache;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,12 +34,14 @@ import org.springframework.web.cors.CorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-    private final UserRepository userRepository;
+    // 인증 Principal 캐시 (요청마다 users 조회 방지)
+    private final UserPrincipalCache userPrincipalCache;
     // 인증 매니저를 생성할 수 있는 설정 객체
     private final AuthenticationConfiguration authenticationConfiguration;
     // 소셜 로그인 시 사용자의 정보를 처리하는 서비스
@@ -42,8 +50,16 @@ public class SecurityConfig {
     private final CustomSuccessHandler customSuccessHandler;
     // JWT 생성 및 파싱 유틸리티
     private final JWTUtil jwtUtil;
+    // 검증된 Access 토큰 캐시 (요청마다 서명 재검증 방지)
+    private final VerifiedTokenCache verifiedTokenCache;
+    // 폐기된 Access 토큰 목록 (로그아웃 후 토큰 재사용 차단)
+    private final AccessTokenDenylist accessTokenDenylist;
     //Redis 사용
     private final RefreshTokenService refreshTokenService;
+    // 로그인 요청 본문 파싱용 (스레드 안전, 공유)
+    private final ObjectMapper objectMapper;
+    // 로그인 시도 제한 (IP / 이메일 기준)
+    private final RateLimiter rateLimiter;
 
     @Value("${frontend.url}")
     private String frontendUrl;
@@ -55,25 +71,31 @@ public class SecurityConfig {
         return configuration.getAuthenticationManager();
     }
 
-    // 해시 알고리즘(BCrypt)
+    // 해시 알고리즘(BCrypt) - 검증은 전용 CPU 풀에서 동시 실행 수를 제한하여 수행
     @Bean
-    public BCryptPasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder bCryptPasswordEncoder(
+            @Qualifier("passwordHashExecutor") Executor passwordHashExecutor,
+            @Value("${auth.bcrypt.wait-timeout-ms:5000}") long waitTimeoutMs) {
+        return new BoundedBCryptPasswordEncoder(passwordHashExecutor, waitTimeoutMs);
     }
 
     @Bean
     public LoginFilter loginFilter(AuthenticationManager authenticationManager) {
-        return new LoginFilter(authenticationManager, jwtUtil, refreshTokenService);
+        return new LoginFilter(authenticationManager, jwtUtil, refreshTokenService, objectMapper, rateLimiter);
     }
 
 
-    public SecurityConfig(UserRepository userRepository, AuthenticationConfiguration authenticationConfiguration, CustomOAuth2UserService customOAuth2UserService, CustomSuccessHandler customSuccessHandler, JWTUtil jwtUtil, RefreshTokenService refreshTokenService) {
-        this.userRepository = userRepository;
+    public SecurityConfig(UserPrincipalCache userPrincipalCache, AuthenticationConfiguration authenticationConfiguration, CustomOAuth2UserService customOAuth2UserService, CustomSuccessHandler customSuccessHandler, JWTUtil jwtUtil, VerifiedTokenCache verifiedTokenCache, AccessTokenDenylist accessTokenDenylist, RefreshTokenService refreshTokenService, ObjectMapper objectMapper, RateLimiter rateLimiter) {
+        this.userPrincipalCache = userPrincipalCache;
         this.authenticationConfiguration = authenticationConfiguration;
         this.customOAuth2UserService = customOAuth2UserService;
         this.customSuccessHandler = customSuccessHandler;
         this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenylist = accessTokenDenylist;
         this.refreshTokenService = refreshTokenService;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
     }
 
     @Bean
@@ -149,7 +171,7 @@ public class SecurityConfig {
         // LoginFilter 가 실행되기 전에 JWT 필터를 먼저 실행( 헤더나 쿠키에서 토큰을 추출하여 사용자 인증) 하여 현재 요청을 보낸
         // 사용자가 인증된 유저인지, 정식으로 로그인 한 유저인지 확인하는 역할을 수행한다.
         http
-                .addFilterBefore(new JWTFilter(jwtUtil,userRepository), LoginFilter.class);
+                .addFilterBefore(new JWTFilter(verifiedTokenCache, userPrincipalCache, accessTokenDenylist), LoginFilter.class);
 
         // 커스텀 LoginFilter 을 등록해서 로그인 요청을 받아 JWT 를 발급한다.
         http
@@ -162,7 +184,7 @@ public class SecurityConfig {
         // 로그아웃 필터
         http
                 .addFilterBefore(
-                        new CustomLogoutFilter(jwtUtil,refreshTokenService ), LogoutFilter.class);
+                        new CustomLogoutFilter(jwtUtil, refreshTokenService, accessTokenDenylist), LogoutFilter.class);
 
         //oauth2 커스텀 서비스를 등록해서 사용자 정보 처리 및 JWT 발급을 담당하는 핸들러 등록
         http
@@ -1,18 +1,18 @@
 package forproject.spring_oauth2_jwt.controller;
 
 
+import forproject.spring_oauth2_jwt.annotation.RateLimit;
 import forproject.spring_oauth2_jwt.dto.ApiResponse;
 import forproject.spring_oauth2_jwt.dto.request.SendVerificationCodeRequest;
 import forproject.spring_oauth2_jwt.dto.request.VerifyCodeRequest;
 import forproject.spring_oauth2_jwt.dto.response.SendVerificationCodeResponse;
 import forproject.spring_oauth2_jwt.dto.response.VerifyCodeResponse;
-import forproject.spring_oauth2_jwt.service.EmailService;
+import forproject.spring_oauth2_jwt.enums.RateLimitKeyType;
+import forproject.spring_oauth2_jwt.service.EmailOutboxService;
 import forproject.spring_oauth2_jwt.service.EmailVerificationCodeService;
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -26,53 +26,45 @@ import org.springframework.web.bind.annotation.RestController;
 public class EmailVerificationCodeController {
 
     private final EmailVerificationCodeService verificationCodeService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
 
     /**
      * 인증 코드 발송
      * POST /api/auth/send-verification-code
+     * 제한: 이메일당 1시간 5회, IP당 1시간 20회
      */
+    @RateLimit(name = "email-send", keyType = RateLimitKeyType.EMAIL, key = "#request.email", limit = 5, windowSeconds = 3600)
+    @RateLimit(name = "email-send-ip", keyType = RateLimitKeyType.IP, limit = 20, windowSeconds = 3600)
     @PostMapping("/send-verification-code")
     public ResponseEntity<ApiResponse<SendVerificationCodeResponse>> sendVerificationCode(
             @RequestBody @Valid SendVerificationCodeRequest request
     ) {
         log.info("인증 코드 발송 요청: email={}", request.getEmail());
 
-        try {
-            // Rate Limit 체크
-            verificationCodeService.checkRateLimit(request.getEmail());
+        // Rate Limit 은 @RateLimit (RateLimitAspect) 에서 처리
 
-            // 6자리 코드 생성
-            String code = verificationCodeService.generateVerificationCode();
+        // 6자리 코드 생성
+        String code = verificationCodeService.generateVerificationCode();
 
-            // Redis 저장
-            verificationCodeService.saveVerificationCode(request.getEmail(), code);
+        // Redis 저장
+        verificationCodeService.saveVerificationCode(request.getEmail(), code);
 
-            // 이메일 발송
-            emailService.sendVerificationCodeEmail(request.getEmail(), code);
+        // 이메일 발송 대기열 적재 (SMTP 발송은 EmailOutboxDispatcher 가 재시도 포함 처리)
+        emailOutboxService.enqueueVerificationCode(request.getEmail(), code);
 
-            SendVerificationCodeResponse response =
-                SendVerificationCodeResponse.success(request.getEmail());
-            log.info("인증 코드 발송 성공: email={}", request.getEmail());
+        SendVerificationCodeResponse response =
+            SendVerificationCodeResponse.success(request.getEmail());
+        log.info("인증 코드 발송 요청 접수: email={}", request.getEmail());
 
-            return ResponseEntity.ok(ApiResponse.success(response));
-
-        } catch (RuntimeException e) {
-            log.error("인증 코드 발송 실패 (Rate Limit): {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(ApiResponse.error("RATE_LIMIT_EXCEEDED", e.getMessage()));
-
-        } catch (MessagingException e) {
-            log.error("이메일 발송 실패: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("EMAIL_SEND_ERROR", "이메일 발송에 실패했습니다."));
-        }
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 
     /**
      * 인증 코드 검증
      * POST /api/auth/verify-code
+     * 제한: 이메일당 5분 10회 (6자리 코드 대입 방지)
      */
+    @RateLimit(name = "email-verify", keyType = RateLimitKeyType.EMAIL, key = "#request.email", limit = 10, windowSeconds = 300)
     @PostMapping("/verify-code")
     public ResponseEntity<ApiResponse<VerifyCodeResponse>> verifyCode(
             @RequestBody @Valid VerifyCodeRequest request
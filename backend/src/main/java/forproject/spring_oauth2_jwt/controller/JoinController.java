@@ -1,8 +1,10 @@
 package forproject.spring_oauth2_jwt.controller;
 
+import forproject.spring_oauth2_jwt.annotation.RateLimit;
 import forproject.spring_oauth2_jwt.dto.ApiResponse;
 import forproject.spring_oauth2_jwt.dto.AvailabilityResponseDTO;
 import forproject.spring_oauth2_jwt.dto.JoinDTO;
+import forproject.spring_oauth2_jwt.enums.RateLimitKeyType;
 import forproject.spring_oauth2_jwt.service.JoinService;
 import forproject.spring_oauth2_jwt.service.UserService;
 import jakarta.mail.MessagingException;
@@ -27,6 +29,7 @@ public class JoinController {
     private final JoinService joinService;
     private final UserService userService;
 
+    @RateLimit(name = "join", keyType = RateLimitKeyType.IP, limit = 10, windowSeconds = 3600)
     @PostMapping("/api/join")
     public ResponseEntity<ApiResponse<?>> join(@RequestBody @Valid JoinDTO joinDTO, BindingResult bindingResult) {
         log.info("📝 회원가입 요청 받음 - 이메일: {}", joinDTO.getEmail());
@@ -78,6 +81,7 @@ public class JoinController {
 //        boolean isAvailable = userService.isNickNameAvailable(nickname);
 //        return ResponseEntity.ok(new AvailabilityResponseDTO(isAvailable));
 //    }
+    @RateLimit(name = "check-email", keyType = RateLimitKeyType.IP, limit = 60, windowSeconds = 60)
     @GetMapping("/api/auth/check-email")
    public ResponseEntity<AvailabilityResponseDTO> checkEmail(
             @RequestParam("email") String email) {
@@ -1,8 +1,12 @@
 package forproject.spring_oauth2_jwt.controller;
 
+import forproject.spring_oauth2_jwt.annotation.RateLimit;
+import forproject.spring_oauth2_jwt.enums.RateLimitKeyType;
 import forproject.spring_oauth2_jwt.jwt.JWTUtil;
+import forproject.spring_oauth2_jwt.jwt.JwtClaims;
 import forproject.spring_oauth2_jwt.service.RefreshTokenService;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -38,6 +42,7 @@ public class ReissueController {
         this.refreshTokenService = refreshTokenService;
     }
 
+    @RateLimit(name = "reissue", keyType = RateLimitKeyType.IP, limit = 60, windowSeconds = 60)
     @PostMapping("/reissue")
     public ResponseEntity<?> reissue(HttpServletRequest request, HttpServletResponse response) {
         log.info("Attempting to reissue token...");
@@ -59,38 +64,45 @@ public class ReissueController {
 
         log.info("Found refresh token.");
 
+        // 서명 검증 + 파싱은 한 번만
+        JwtClaims claims;
         try {
-            jwtUtil.isExpired(refresh);
+            claims = jwtUtil.parse(refresh);
         } catch (ExpiredJwtException e) {
             log.warn("Refresh token has expired.");
             return new ResponseEntity<>("refresh token expired", HttpStatus.BAD_REQUEST);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Malformed refresh token: {}", e.getMessage());
+            return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
         }
 
-        String category = jwtUtil.getCategory(refresh);
+        String category = claims.getCategory();
         if (!"refresh".equals(category)) {
             log.warn("Invalid token category: {}", category);
             return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
         }
 
-        String email = jwtUtil.getEmail(refresh);
+        String email = claims.getEmail();
+        String role = claims.getRole();
+
+        // 실무 표준: Access 15분, Refresh 7일 (같은 패밀리 유지)
+        String newAccess = jwtUtil.createJwt("access", email, role, accessTokenExpiration);      // 15분
+        String newRefresh = jwtUtil.createJwt("refresh", email, role, claims.getFamilyId(), refreshTokenExpiration); // 7일
 
-        if (!refreshTokenService.isValid(refresh, email)) {
+        // 비교 + 교체를 Redis 스크립트 한 번으로 처리 (동시 요청에도 원자적)
+        RefreshTokenService.RotationResult result = refreshTokenService.rotate(
+                email, claims.getFamilyId(), refresh, newRefresh, refreshTokenExpiration);
+
+        if (result.getStatus() == RefreshTokenService.RotationStatus.REUSED) {
+            return new ResponseEntity<>("refresh token reused", HttpStatus.BAD_REQUEST);
+        }
+        if (!result.isSuccess()) {
             log.warn("Refresh token does not match the one in Redis for user: {}", email);
             return new ResponseEntity<>("invalid refresh token", HttpStatus.BAD_REQUEST);
         }
 
-        log.info("Refresh token is valid for user: {}", email);
-
-        String role = jwtUtil.getRole(refresh);
-        // 실무 표준: Access 15분, Refresh 7일
-        String newAccess = jwtUtil.createJwt("access", email, role, accessTokenExpiration);      // 15분
-        String newRefresh = jwtUtil.createJwt("refresh", email, role, refreshTokenExpiration); // 7일
-
-        refreshTokenService.delete(email);
-        refreshTokenService.save(email, newRefresh, refreshTokenExpiration); // 7일
-
         response.setHeader("access", newAccess);
-        response.addHeader("Set-Cookie", createCookie("refresh", newRefresh));
+        response.addHeader("Set-Cookie", createCookie("refresh", result.getRefreshToken()));
 
         log.info("Successfully reissued tokens for userEmail: {}", email);
         return new ResponseEntity<>(HttpStatus.OK);
@@ -0,0 +1,72 @@
+package forproject.spring_oauth2_jwt.controller;
+
+import forproject.spring_oauth2_jwt.dto.ApiResponse;
+import forproject.spring_oauth2_jwt.dto.UserPrincipal;
+import forproject.spring_oauth2_jwt.dto.response.SessionResponse;
+import forproject.spring_oauth2_jwt.exception.ResourceNotFoundException;
+import forproject.spring_oauth2_jwt.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 로그인 세션(기기) 관리
+ */
+@RestController
+@RequestMapping("/api/sessions")
+@RequiredArgsConstructor
+@Slf4j
+public class SessionController {
+
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * 내 활성 세션 목록
+     * GET /api/sessions
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SessionResponse>>> getSessions(
+            @AuthenticationPrincipal UserPrincipal user
+    ) {
+        List<SessionResponse> sessions = refreshTokenService.getSessions(user.getEmail());
+        return ResponseEntity.ok(ApiResponse.success(sessions));
+    }
+
+    /**
+     * 특정 세션 로그아웃
+     * DELETE /api/sessions/{sessionId}
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<Void>> revokeSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserPrincipal user
+    ) {
+        log.info("세션 종료 요청 - userId: {}, sessionId: {}", user.getId(), sessionId);
+
+        if (!refreshTokenService.revokeSession(user.getEmail(), sessionId)) {
+            throw new ResourceNotFoundException(
+                    "세션을 찾을 수 없습니다.",
+                    String.format("Session not found: userId=%d, sessionId=%s", user.getId(), sessionId)
+            );
+        }
+        return ResponseEntity.ok(ApiResponse.success(null, "세션이 종료되었습니다."));
+    }
+
+    /**
+     * 모든 기기에서 로그아웃
+     * DELETE /api/sessions
+     */
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Void>> revokeAllSessions(
+            @AuthenticationPrincipal UserPrincipal user
+    ) {
+        log.info("전체 세션 종료 요청 - userId: {}", user.getId());
+
+        refreshTokenService.revokeAll(user.getEmail());
+        return ResponseEntity.ok(ApiResponse.success(null, "모든 기기에서 로그아웃되었습니다."));
+    }
+}
@@ -1,9 +1,15 @@
 package forproject.spring_oauth2_jwt.controller;
 
 import forproject.spring_oauth2_jwt.dto.UserPrincipal;
+import forproject.spring_oauth2_jwt.dto.request.NotificationReadRequest;
+import forproject.spring_oauth2_jwt.dto.response.NotificationPageResponse;
 import forproject.spring_oauth2_jwt.dto.response.NotificationResponse;
+import forproject.spring_oauth2_jwt.service.NotificationBus;
 import forproject.spring_oauth2_jwt.service.NotificationService;
+import forproject.spring_oauth2_jwt.service.SseBacklogDispatcher;
+import forproject.spring_oauth2_jwt.service.SseReplayBuffer;
 import forproject.spring_oauth2_jwt.service.SseService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -14,7 +20,6 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -23,6 +28,9 @@ import java.util.concurrent.CompletableFuture;
 public class SseController {
     private final SseService sseService;
     private final NotificationService notificationService;
+    private final NotificationBus notificationBus;
+    private final SseReplayBuffer replayBuffer;
+    private final SseBacklogDispatcher backlogDispatcher;
 
 
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
@@ -35,13 +43,28 @@ public class SseController {
 
         // 1) Emitter 먼저 만들고 반환
         SseEmitter emitter = sseService.createEmitter(userId);
+        boolean wasPresent = notificationBus.markPresent(userId);
 
         // 2) 여기서 DB 조회 금지 ❌
 
-        // 3) unread push는 비동기 처리로 빼기
-        CompletableFuture.runAsync(() -> {
-            notificationService.sendUnreadNotificationsAsync(userId);
-        });
+        long lastId = SseReplayBuffer.parseId(lastEventId);
+        if (lastId < 0) {
+            // 3) 최초 연결: unread push는 노드 단위 속도 제한 대기열로 (재연결 폭주 시 DB 보호)
+            backlogDispatcher.submitUnread(userId, emitter);
+            return emitter;
+        }
+
+        // 4) 재연결: 메모리 버퍼로 Last-Event-ID 이후만 재전송, 공백이 버퍼보다 오래되었을 때만 DB 조회
+        //    (presence 가 끊겼던 동안에는 발행 자체가 생략되었을 수 있으므로 버퍼를 믿지 않음)
+        List<SseReplayBuffer.ReplayEvent> missed = wasPresent ? replayBuffer.eventsAfter(userId, lastId) : null;
+        if (missed != null) {
+            for (SseReplayBuffer.ReplayEvent event : missed) {
+                sseService.sendToEmitter(userId, emitter, event.getEventId(), event.getEventName(), event.getData());
+            }
+            log.info("🔁 SSE 재연결 - 버퍼 재전송: userId={}, lastEventId={}, 개수={}", userId, lastEventId, missed.size());
+        } else {
+            backlogDispatcher.submitReplay(userId, emitter, lastId);
+        }
 
         return emitter;
     }
@@ -65,11 +88,33 @@ public class SseController {
      * PUT /api/notifications/{id}/read
      */
     @PutMapping("/{id}/read")
-    public Map<String, String> markAsRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+    public Map<String, String> markAsRead(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                          @PathVariable Long id) {
+        notificationService.markAsRead(userPrincipal.getId(), id);
         return Map.of("message", "알림을 읽음 처리했습니다.");
     }
 
+    /**
+     * 알림 일괄 읽음 처리
+     * PUT /api/notifications/read
+     */
+    @PutMapping("/read")
+    public Map<String, Integer> markAsRead(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                           @Valid @RequestBody NotificationReadRequest request) {
+        int count = notificationService.markAsRead(userPrincipal.getId(), request.getNotificationIds());
+        return Map.of("count", count);
+    }
+
+    /**
+     * 모든 알림 읽음 처리
+     * PUT /api/notifications/read-all
+     */
+    @PutMapping("/read-all")
+    public Map<String, Integer> markAllAsRead(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        int count = notificationService.markAllAsRead(userPrincipal.getId());
+        return Map.of("count", count);
+    }
+
     /**
      * 읽지 않은 알림 개수
      * GET /api/notifications/count
@@ -87,12 +132,28 @@ public class SseController {
      * OSIV=false 환경에서 안전하게 사용 가능
      */
     @GetMapping("/unread")
-    public ResponseEntity<List<NotificationResponse>> getUnreadNotifications(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+    public ResponseEntity<List<NotificationResponse>> getUnreadNotifications(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "50") int size) {
         Long userId = userPrincipal.getId();
-        List<NotificationResponse> notifications = notificationService.getUnreadNotifications(userId);
+        List<NotificationResponse> notifications = notificationService.getUnreadNotifications(userId, size);
         return ResponseEntity.ok(notifications);
     }
 
+    /**
+     * 알림 목록 조회 (커서 페이지네이션)
+     * GET /api/notifications?cursor=...&size=20&unreadOnly=false
+     */
+    @GetMapping
+    public ResponseEntity<NotificationPageResponse> getNotifications(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        Long userId = userPrincipal.getId();
+        return ResponseEntity.ok(notificationService.getNotifications(userId, cursor, size, unreadOnly));
+    }
+
     /**
      * 읽지 않은 알림 개수 조회
      * GET /api/notifications/unread/count
@@ -1,6 +1,7 @@
 package forproject.spring_oauth2_jwt.controller;
 
 import forproject.spring_oauth2_jwt.jwt.JWTUtil;
+import forproject.spring_oauth2_jwt.jwt.JwtClaims;
 import forproject.spring_oauth2_jwt.service.RefreshTokenService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -65,15 +66,16 @@ public class TokenController {
 
         // 2. refresh 토큰 검증 및 username 추출
         try {
-            String username = jwtUtil.getEmail(refreshToken);
-            String role = jwtUtil.getRole(refreshToken);
-            String category = jwtUtil.getCategory(refreshToken);
+            JwtClaims claims = jwtUtil.parse(refreshToken);
+            String username = claims.getEmail();
+            String role = claims.getRole();
+            String category = claims.getCategory();
             if (!"refresh".equals(category)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Collections.singletonMap("message", "Invalid refresh token"));
             }
 
             // (선택) Redis에서 refresh 토큰 비교 검증
-            if (!refreshTokenService.isValid(refreshToken, username)) {
+            if (!refreshTokenService.isValid(refreshToken, username, claims.getFamilyId())) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Collections.singletonMap("message", "Refresh token mismatch"));
             }
 
@@ -6,15 +6,18 @@ import forproject.spring_oauth2_jwt.dto.response.*;
 import forproject.spring_oauth2_jwt.dto.response.PhotoResponse;
 import forproject.spring_oauth2_jwt.entity.TravelActivity;
 import forproject.spring_oauth2_jwt.service.TravelPlanService;
+import forproject.spring_oauth2_jwt.service.TripEventPublisher;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.User;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,6 +28,7 @@ import java.util.List;
 public class TravelPlanController {
     private final TravelPlanService travelPlanService;
     private final forproject.spring_oauth2_jwt.service.TravelInvitationService travelInvitationService;
+    private final TripEventPublisher tripEventPublisher;
 
     // 일정 생성 (로그인 사용자만)
     @PostMapping
@@ -73,6 +77,16 @@ public class TravelPlanController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * 여행 화면 실시간 변경 구독 (참여자만)
+     * GET /api/trips/{tripId}/events
+     */
+    @GetMapping(value = "/{tripId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeTripEvents(@PathVariable Long tripId, @AuthenticationPrincipal UserPrincipal user) {
+        log.info("GET /api/trips/{}/events - userId: {}", tripId, user.getId());
+        return tripEventPublisher.subscribe(tripId, user.getId());
+    }
+
     @GetMapping("/{tripId}/detail")
     public ResponseEntity<TravelDetailResponse> getPlanDetail(@PathVariable Long tripId, @AuthenticationPrincipal UserPrincipal user) {
         log.info("GET /api/trips/{}/detail - userId: {}", tripId, user.getId());
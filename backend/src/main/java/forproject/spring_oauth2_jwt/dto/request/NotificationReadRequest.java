@@ -0,0 +1,19 @@
+package forproject.spring_oauth2_jwt.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationReadRequest {
+
+    @NotEmpty(message = "읽음 처리할 알림 ID는 필수입니다")
+    @Size(max = 1000, message = "한 번에 최대 1000개까지 읽음 처리할 수 있습니다")
+    private List<Long> notificationIds;
+}
@@ -0,0 +1,21 @@
+package forproject.spring_oauth2_jwt.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * 알림 목록 페이지 응답 (keyset 커서 방식)
+ * nextCursor 를 다음 요청의 cursor 로 그대로 전달
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPageResponse {
+
+    private List<NotificationResponse> notifications;
+    private String nextCursor;
+    private boolean hasNext;
+}
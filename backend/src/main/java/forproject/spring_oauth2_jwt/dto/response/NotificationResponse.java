@@ -23,6 +23,8 @@ public class NotificationResponse {
     private String title;
     private String content;
     private String relatedData;
+    private Long relatedTripId;
+    private Long relatedEntityId;
     private boolean isRead;
     private LocalDateTime createdAt;
     private LocalDateTime readAt;
@@ -41,6 +43,8 @@ public class NotificationResponse {
                 .title(notification.getTitle())
                 .content(notification.getContent())
                 .relatedData(notification.getRelatedData())
+                .relatedTripId(notification.getRelatedTripId())
+                .relatedEntityId(notification.getRelatedEntityId())
                 .isRead(notification.isRead())
                 .createdAt(notification.getCreatedAt())
                 .readAt(notification.getReadAt())
@@ -0,0 +1,83 @@
+package forproject.spring_oauth2_jwt.entity;
+
+import forproject.spring_oauth2_jwt.enums.EmailOutboxStatus;
+import forproject.spring_oauth2_jwt.enums.EmailType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 메일 발송 대기열 (transactional outbox)
+ *
+ * 메일을 보내야 하는 작업은 같은 트랜잭션 안에서 이 테이블에 한 줄만 쓰고,
+ * 실제 SMTP 발송은 EmailOutboxDispatcher 가 커밋 이후 별도 풀에서 처리한다.
+ * - 트랜잭션이 롤백되면 메일도 나가지 않음
+ * - 메일 서버가 느려도 DB 커넥션 / HTTP 스레드를 잡고 있지 않음
+ * - dedupe_key 유니크 제약으로 같은 메일이 두 번 쌓이지 않음
+ */
+@Entity
+@Table(name = "email_outbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_email_outbox_dedupe", columnNames = "dedupe_key"),
+        indexes = {
+                @Index(name = "idx_email_outbox_status_next", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_email_outbox_claim", columnList = "claim_token")
+        })
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class EmailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 30)
+    private EmailType type;
+
+    @Column(name = "recipient", nullable = false, length = 255)
+    private String recipient;
+
+    /**
+     * 템플릿 변수 (JSON)
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * 중복 발송 방지 키 (예: invitation:{token})
+     */
+    @Column(name = "dedupe_key", nullable = false, length = 200)
+    private String dedupeKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EmailOutboxStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * 발송 중 점유 만료 시각 (노드가 죽어도 이 시각 이후 다른 노드가 다시 가져감)
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+}
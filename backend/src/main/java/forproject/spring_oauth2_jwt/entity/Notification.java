@@ -8,7 +8,12 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notification")
+@Table(name = "notification", indexes = {
+        @Index(name = "idx_notification_user_read_created", columnList = "user_id, is_read, created_at"),
+        @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notification_user_related_entity", columnList = "user_id, related_trip_id, related_entity_id"),
+        @Index(name = "idx_notification_read_created", columnList = "is_read, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -51,6 +56,18 @@ public class Notification {
     @Column(length = 200)
     private String relatedData;
 
+    /**
+     * 관련 여행 ID (정산/초대 알림)
+     */
+    @Column(name = "related_trip_id")
+    private Long relatedTripId;
+
+    /**
+     * 관련 엔티티 ID (정산 ID, 초대 ID 등 - type 으로 종류 구분)
+     */
+    @Column(name = "related_entity_id")
+    private Long relatedEntityId;
+
     /**
      * 읽음 여부
      */
@@ -0,0 +1,44 @@
+package forproject.spring_oauth2_jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 여행별 · 사용자별 정산 잔액 장부 (materialized)
+ *
+ * balance = (지출 owedAmount 합) + (보낸 정산 합) - (받은 정산 합), PENDING/APPROVED 정산 기준
+ * 지출 등록 / 정산 생성 · 거절과 같은 트랜잭션에서 TripBalanceLedger 가 증감하고,
+ * 정산 요약은 원본 대신 이 테이블만 읽는다.
+ * 값이 0 이 되어도 행은 남겨 둔다 (행이 있으면 장부가 만들어진 여행으로 판단).
+ */
+@Entity
+@Table(name = "trip_balance",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trip_balance_trip_user", columnNames = {"trip_id", "user_id"}))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class TripBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trip_id", nullable = false)
+    private Long tripId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * 받을 금액(+) 또는 줄 금액(-)
+     */
+    @Column(name = "balance", nullable = false)
+    private Long balance;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
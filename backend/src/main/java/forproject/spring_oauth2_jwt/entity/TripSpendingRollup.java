@@ -0,0 +1,67 @@
+package forproject.spring_oauth2_jwt.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 여행 · 사용자 · 날짜 · 카테고리별 지출 롤업 (materialized)
+ *
+ * user_id > 0: 그 사용자가 개별 지출에서 낸 금액 (paid_amount), 지출에 참여만 하고 0원 낸 경우도 행이 있음
+ * user_id = 0: 여행 전체 합계 행 - 개별 지출 총액(expense_amount) · 공동경비 지출액(shared_amount)
+ * 지출 등록 / 공동경비 지출과 같은 트랜잭션에서 TripSpendingRollupService 가 증감하고,
+ * 통계 · 예산 현황은 원본 대신 이 테이블만 읽는다 (행 수 ≈ 여행 일수 × 카테고리 × 인원).
+ */
+@Entity
+@Table(name = "trip_spending_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_trip_spending_rollup",
+                columnNames = {"trip_id", "user_id", "spend_date", "category"}))
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+@Builder
+public class TripSpendingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trip_id", nullable = false)
+    private Long tripId;
+
+    /**
+     * 0 이면 여행 전체 합계 행
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "spend_date", nullable = false)
+    private LocalDate spendDate;
+
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    /**
+     * 사용자가 개별 지출에서 실제로 낸 금액 합
+     */
+    @Column(name = "paid_amount", nullable = false)
+    private Long paidAmount;
+
+    /**
+     * 개별 지출 총액 합 (전체 합계 행만)
+     */
+    @Column(name = "expense_amount", nullable = false)
+    private Long expenseAmount;
+
+    /**
+     * 공동경비 지출액 합 (전체 합계 행만)
+     */
+    @Column(name = "shared_amount", nullable = false)
+    private Long sharedAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
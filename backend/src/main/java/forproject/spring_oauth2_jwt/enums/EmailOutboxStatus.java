@@ -0,0 +1,12 @@
+package forproject.spring_oauth2_jwt.enums;
+
+/**
+ * 메일 발송 대기열 상태
+ */
+public enum EmailOutboxStatus {
+
+        PENDING,        // 발송 대기 (재시도 대기 포함)
+        SENDING,        // 디스패처가 가져가서 발송 중 (locked_until 이 지나면 다시 가져갈 수 있음)
+        SENT,           // 발송 완료
+        FAILED          // 최대 재시도 초과
+}
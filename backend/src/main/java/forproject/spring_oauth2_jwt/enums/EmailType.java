@@ -0,0 +1,10 @@
+package forproject.spring_oauth2_jwt.enums;
+
+/**
+ * 발송 대기열(email_outbox)에 쌓이는 메일 종류
+ */
+public enum EmailType {
+
+        VERIFICATION_CODE,      // 회원가입 이메일 인증 코드
+        INVITATION              // 여행 초대
+}
@@ -0,0 +1,16 @@
+package forproject.spring_oauth2_jwt.enums;
+
+/**
+ * 요청 제한(Rate Limit) 카운트 기준
+ *
+ * IP 는 request.getRemoteAddr 를 그대로 쓴다. nginx 뒤에서는 프록시 IP 가 되므로
+ * server.forward-headers-strategy=native 와 server.tomcat.remoteip.internal-proxies(신뢰 프록시 대역)를
+ * 설정해 RemoteIpValve 가 X-Forwarded-For 의 실제 클라이언트 IP로 바꿔 두어야 한다
+ * (docker-compose.yml / docker-compose.dev.yml / docker-compose.prod.yml 의 백엔드 environment 참고).
+ * 설정이 없으면 모든 요청이 프록시 IP 하나로 묶여 IP 제한이 전체 공용 버킷이 된다.
+ */
+public enum RateLimitKeyType {
+    IP,     // 클라이언트 IP (request.getRemoteAddr, 프록시 뒤에서는 forward-headers-strategy 필요)
+    EMAIL,  // 요청 파라미터에서 꺼낸 이메일 (RateLimit.key 의 SpEL 식)
+    USER    // 인증된 사용자 id (UserPrincipal)
+}
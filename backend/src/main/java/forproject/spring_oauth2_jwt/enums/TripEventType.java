@@ -0,0 +1,25 @@
+package forproject.spring_oauth2_jwt.enums;
+
+/**
+ * 여행 화면 실시간 변경 이벤트 종류 (클라이언트는 종류에 해당하는 영역만 다시 조회)
+ */
+public enum TripEventType {
+
+        TRIP_UPDATED,               // 여행 기본 정보 수정
+        CURRENCY_UPDATED,           // 외화 설정 변경
+        ITINERARY_CREATED,          // 일정(일차) 추가
+        ITINERARY_DELETED,          // 일정(일차) 삭제
+        ACTIVITY_CREATED,           // 활동 추가
+        ACTIVITY_UPDATED,           // 활동 수정
+        ACTIVITY_DELETED,           // 활동 삭제
+        CHECKLIST_CREATED,          // 체크리스트 추가
+        CHECKLIST_UPDATED,          // 체크리스트 완료 토글
+        CHECKLIST_DELETED,          // 체크리스트 삭제
+        EXPENSE_CREATED,            // 개인/공동 지출 등록
+        SHARED_FUND_DEPOSITED,      // 공동 경비 입금
+        SHARED_FUND_SPENT,          // 공동 경비 지출
+        SETTLEMENT_CREATED,         // 정산 신청/완료
+        SETTLEMENT_APPROVED,        // 정산 승인
+        SETTLEMENT_REJECTED,        // 정산 거절
+        TRIP_DELETED                // 여행 삭제 (전달 후 구독 연결 종료)
+}
@@ -181,6 +181,34 @@ public class GlobalExceptionHandler {
     }
 
 
+    /**
+     * 요청 제한 초과 (429)
+     *
+     * <p><b>처리 방식</b></p>
+     * <pre>
+     * 로그: WARN 레벨 (어떤 라우트/키가 제한에 걸렸는지 기록)
+     * 응답: Retry-After 헤더로 재시도 가능 시각(초) 안내
+     * </pre>
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiResponse<?>> handleRateLimitExceededException(
+            RateLimitExceededException e,
+            HttpServletRequest request) {
+
+        log.warn("❌ [429] 요청 제한 초과: path={}, message={}",
+                request.getRequestURI(),
+                e.getDebugMessage());
+
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error(
+                        "RATE_LIMIT_EXCEEDED",
+                        e.getUserMessage()
+                ));
+    }
+
+
     // ═══════════════════════════════════════════════════════════════
     // 2. Spring Framework 예외 처리
     // ═══════════════════════════════════════════════════════════════
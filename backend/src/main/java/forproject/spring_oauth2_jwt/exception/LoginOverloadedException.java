@@ -0,0 +1,19 @@
+package forproject.spring_oauth2_jwt.exception;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * 비밀번호 해시 검증 풀이 포화되어 로그인 요청을 거절(shedding)한 경우
+ * LoginFilter 에서 503 + Retry-After 로 응답한다.
+ * (Internal 예외라서 ProviderManager 가 다른 Provider 로 재시도하지 않고 바로 전파)
+ */
+public class LoginOverloadedException extends InternalAuthenticationServiceException {
+
+    public LoginOverloadedException(String message) {
+        super(message);
+    }
+
+    public LoginOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,22 @@
+package forproject.spring_oauth2_jwt.exception;
+
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+/**
+ * 로그인 시도 횟수 제한(Rate Limit) 초과
+ * LoginFilter 는 컨트롤러 밖(시큐리티 필터)이라 GlobalExceptionHandler 대신
+ * unsuccessfulAuthentication 에서 429 + Retry-After 로 응답한다.
+ */
+public class LoginRateLimitedException extends InternalAuthenticationServiceException {
+
+    private final long retryAfterSeconds;
+
+    public LoginRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
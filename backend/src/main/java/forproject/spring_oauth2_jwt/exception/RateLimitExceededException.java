@@ -0,0 +1,19 @@
+package forproject.spring_oauth2_jwt.exception;
+
+/**
+ * 요청 제한 초과 예외 (429 Too Many Requests)
+ * retryAfterSeconds 는 Retry-After 헤더로 전달된다.
+ */
+public class RateLimitExceededException extends BaseException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String userMessage, String debugMessage, long retryAfterSeconds) {
+        super(userMessage, debugMessage);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
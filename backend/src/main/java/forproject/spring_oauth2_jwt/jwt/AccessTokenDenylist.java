@@ -0,0 +1,222 @@
+package forproject.spring_oauth2_jwt.jwt;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 폐기된 Access 토큰 목록 (로컬 메모리 + Redis Pub/Sub 복제)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * JWTFilter 는 서명만 검사하므로 로그아웃 후에도 Access 토큰이 만료 전까지 유효했다.
+ * 요청마다 Redis 를 조회하지 않고, 폐기된 토큰 ID(jti)를 모든 노드의 메모리에 복제해
+ * 네트워크 왕복 없이 거절한다.
+ * </pre>
+ *
+ * <p><b>구조</b></p>
+ * <pre>
+ * 폐기:  Lua 스크립트 1회로 ZADD(access:denylist, score=만료시각) + 만료 항목 정리 + PUBLISH
+ * 수신:  모든 노드가 채널을 구독해 로컬 목록에 추가
+ * 조회:  Bloom 필터(대부분의 정상 토큰은 여기서 바로 통과) → 정확한 Set 확인
+ * 정리:  만료 시각이 지난 항목은 1분마다 제거하고 Bloom 필터 재구성
+ * 기동:  ZSET 에서 아직 만료되지 않은 항목을 읽어와 초기화 (늦게 뜬 노드 대비)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class AccessTokenDenylist implements MessageListener {
+
+    private static final String KEY = "access:denylist";
+    private static final String CHANNEL = "access:denylist:events";
+
+    /**
+     * KEYS[1] = access:denylist
+     * ARGV[1] = jti, ARGV[2] = 만료 시각(ms), ARGV[3] = nowMs, ARGV[4] = 채널
+     */
+    private static final RedisScript<Long> REVOKE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[3])
+            redis.call('PUBLISH', ARGV[4], ARGV[1] .. ':' .. ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // jti → 만료 시각(ms)
+    private final ConcurrentHashMap<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter();
+
+    public AccessTokenDenylist(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+
+        try {
+            long now = System.currentTimeMillis();
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    redisTemplate.opsForZSet().rangeByScoreWithScores(KEY, now, Double.POSITIVE_INFINITY);
+            if (entries != null) {
+                for (ZSetOperations.TypedTuple<String> entry : entries) {
+                    if (entry.getValue() != null && entry.getScore() != null) {
+                        addLocal(entry.getValue(), entry.getScore().longValue());
+                    }
+                }
+            }
+            log.info("✅ Access 토큰 폐기 목록 초기화 완료 - {}개", revoked.size());
+        } catch (Exception e) {
+            log.error("❌ Access 토큰 폐기 목록 초기화 실패 (이후 이벤트부터 반영): {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Access 토큰 폐기 (모든 노드에 전파)
+     */
+    public void revoke(String tokenId, long expirationMs) {
+        long now = System.currentTimeMillis();
+        if (tokenId == null || expirationMs <= now) {
+            return;
+        }
+        addLocal(tokenId, expirationMs);
+        redisTemplate.execute(
+                REVOKE_SCRIPT,
+                List.of(KEY),
+                tokenId, String.valueOf(expirationMs), String.valueOf(now), CHANNEL
+        );
+    }
+
+    /**
+     * 폐기된 토큰인지 확인 (네트워크 왕복 없음)
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !bloomFilter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 다른 노드에서 발행한 폐기 이벤트 수신 ("jti:만료시각")
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("잘못된 폐기 이벤트 형식: {}", body);
+            return;
+        }
+        try {
+            addLocal(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 폐기 이벤트 형식: {}", body);
+        }
+    }
+
+    /**
+     * 만료된 항목 정리 + Bloom 필터 재구성 (1분)
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public synchronized void evictExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter();
+        for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+            rebuilt.add(entry.getKey());
+        }
+        bloomFilter = rebuilt;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    // Bloom 필터 재구성과 동시에 추가되는 항목이 누락되지 않도록 동기화 (폐기는 드문 작업)
+    private synchronized void addLocal(String tokenId, long expirationMs) {
+        if (expirationMs <= System.currentTimeMillis()) {
+            return;
+        }
+        revoked.put(tokenId, expirationMs);
+        bloomFilter.add(tokenId);
+    }
+
+    /**
+     * 고정 크기 Bloom 필터 (2^20 비트 = 128KB, 해시 4개)
+     * 폐기 토큰 수가 수만 개 이하일 때 오탐률은 1% 미만이며, 오탐이어도 정확한 Set 에서 한 번 더 확인한다.
+     */
+    private static final class BloomFilter {
+
+        private static final int BITS = 1 << 20;
+        private static final int MASK = BITS - 1;
+        private static final int HASHES = 4;
+
+        private final AtomicLongArray words = new AtomicLongArray(BITS / 64);
+
+        void add(String value) {
+            long h1 = hash1(value);
+            long h2 = hash2(value);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & MASK);
+                int index = bit >>> 6;
+                long mask = 1L << (bit & 63);
+                long current;
+                do {
+                    current = words.get(index);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(index, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash1(value);
+            long h2 = hash2(value);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & MASK);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash1(String value) {
+            long h = value.hashCode() * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+
+        // FNV-1a (64bit), 홀수로 만들어 double hashing 간격이 0이 되지 않도록 함
+        private static long hash2(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return h | 1L;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package forproject.spring_oauth2_jwt.jwt;
+
+import forproject.spring_oauth2_jwt.exception.LoginOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 비밀번호 검증(BCrypt matches)을 전용 CPU 풀에서 실행하는 인코더
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * BCrypt 검증은 요청당 수십 ms 의 CPU 를 사용한다.
+ * 로그인 요청이 몰릴 때 요청 스레드에서 무제한으로 실행하면 CPU 를 독점해
+ * 나머지 API 까지 느려지므로, 동시 실행 수를 풀 크기로 제한한다.
+ * </pre>
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - 풀 큐가 가득 차면 즉시 거절 → LoginOverloadedException (503)
+ * - 큐에서 대기 시간이 waitTimeoutMs 를 넘으면 작업 취소 후 거절
+ * - encode(회원가입)는 빈도가 낮아 기존처럼 호출 스레드에서 실행
+ * </pre>
+ */
+@Slf4j
+public class BoundedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final Executor executor;
+    private final long waitTimeoutMs;
+
+    public BoundedBCryptPasswordEncoder(Executor executor, long waitTimeoutMs) {
+        this.executor = executor;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        FutureTask<Boolean> task = new FutureTask<>(() -> super.matches(rawPassword, encodedPassword));
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ 비밀번호 검증 풀 포화 - 로그인 요청 거절");
+            throw new LoginOverloadedException("login capacity exceeded", e);
+        }
+        return await(task);
+    }
+
+    private boolean await(Future<Boolean> task) {
+        try {
+            return task.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            log.warn("⚠️ 비밀번호 검증 대기 시간 초과 ({}ms) - 로그인 요청 거절", waitTimeoutMs);
+            throw new LoginOverloadedException("login wait timeout", e);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginOverloadedException("login interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
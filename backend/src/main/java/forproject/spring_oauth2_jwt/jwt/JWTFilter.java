@@ -88,8 +88,7 @@ package forproject.spring_oauth2_jwt.jwt;
 
 import forproject.spring_oauth2_jwt.dto.UserDTO;
 import forproject.spring_oauth2_jwt.dto.UserPrincipal;
-import forproject.spring_oauth2_jwt.entity.UserEntity;
-import forproject.spring_oauth2_jwt.repository.UserRepository;
+import forproject.spring_oauth2_jwt.service.UserPrincipalCache;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -109,13 +108,15 @@ import java.util.Arrays;
 
 public class JWTFilter extends OncePerRequestFilter {
 
-    private final UserRepository userRepository;
-    private final JWTUtil jwtUtil;
+    private final UserPrincipalCache userPrincipalCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AccessTokenDenylist accessTokenDenylist;
 
 
-    public JWTFilter(JWTUtil jwtUtil, UserRepository userRepository) {
-        this.userRepository = userRepository;
-        this.jwtUtil = jwtUtil;
+    public JWTFilter(VerifiedTokenCache verifiedTokenCache, UserPrincipalCache userPrincipalCache, AccessTokenDenylist accessTokenDenylist) {
+        this.userPrincipalCache = userPrincipalCache;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.accessTokenDenylist = accessTokenDenylist;
     }
 
     @Override
@@ -136,9 +137,10 @@ public class JWTFilter extends OncePerRequestFilter {
             return;
         }
 
-        // 3. AccessToken 유효성 체크
+        // 3. AccessToken 유효성 체크 (서명 검증 + 파싱은 한 번만, 검증된 토큰은 캐시에서 재사용)
+        JwtClaims claims;
         try {
-            jwtUtil.isExpired(accessToken); // 만료 검증 (예외 던지면 바로 catch로 감)
+            claims = verifiedTokenCache.resolve(accessToken); // 만료 시 예외 던지면 바로 catch로 감
         } catch (ExpiredJwtException e) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=UTF-8");
@@ -156,7 +158,7 @@ public class JWTFilter extends OncePerRequestFilter {
         }
 
         // 4. AccessToken의 "카테고리"가 "access"인지 확인 (발급시 category=access로 지정했다는 전제)
-        String category = jwtUtil.getCategory(accessToken);
+        String category = claims.getCategory();
         if (!"access".equals(category)) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=UTF-8");
@@ -166,16 +168,23 @@ public class JWTFilter extends OncePerRequestFilter {
             return;
         }
 
+        // 4-1. 로그아웃 등으로 폐기된 토큰인지 확인 (로컬 메모리 조회, 네트워크 왕복 없음)
+        if (accessTokenDenylist.isRevoked(claims.getTokenId())) {
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setContentType("application/json;charset=UTF-8");
+            PrintWriter writer = response.getWriter();
+            writer.print("{\"message\": \"access token revoked\"}");
+            writer.flush();
+            return;
+        }
+
         // 5. 토큰에서 사용자 정보 추출
-        String email = jwtUtil.getEmail(accessToken);
-        String role = jwtUtil.getRole(accessToken);
-
-        // 6. DB에 사용자 실존 확인 (보안 향상, 소셜 등 최초 가입 상태 고려)
-        UserEntity userEntity = userRepository.findByEmail(email);
-        UserPrincipal userPrincipal;
-        if (userEntity != null) {
-            userPrincipal = new UserPrincipal(userEntity);
-        } else {
+        String email = claims.getEmail();
+        String role = claims.getRole();
+
+        // 6. 사용자 실존 확인 (Principal 캐시 → 미스일 때만 DB 조회, 소셜 등 최초 가입 상태 고려)
+        UserPrincipal userPrincipal = userPrincipalCache.get(email);
+        if (userPrincipal == null) {
             UserDTO userDTO = new UserDTO();
             userDTO.setEmail(email);
             userDTO.setRole(role);
@@ -1,5 +1,8 @@
 package forproject.spring_oauth2_jwt.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -8,6 +11,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 //application_properties 에 저장한 key 를 토대로 jwt_token 생성하고, 토큰들의 원값을 추출할때 사용된다..
 @Component
@@ -15,29 +19,52 @@ public class JWTUtil {
 
     private SecretKey secretKey;
 
+    // 파서는 thread-safe 하므로 한 번만 만들어서 재사용
+    private final JwtParser jwtParser;
+
     public JWTUtil(@Value("${spring.jwt.secret}")String secret) {
 
 
         secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), Jwts.SIG.HS256.key().build().getAlgorithm());
+        jwtParser = Jwts.parser().verifyWith(secretKey).build();
+    }
+
+    /**
+     * 서명 검증 + 파싱을 한 번만 수행하고 불변 클레임 객체로 반환
+     * 만료된 토큰이면 ExpiredJwtException, 서명/형식 오류면 JwtException 을 그대로 던진다.
+     */
+    public JwtClaims parse(String token) {
+
+        Claims payload = jwtParser.parseSignedClaims(token).getPayload();
+        Date issuedAt = payload.getIssuedAt();
+        return new JwtClaims(
+                payload.get("category", String.class),
+                payload.get("email", String.class),
+                payload.get("role", String.class),
+                payload.get("fid", String.class),
+                payload.getId(),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                payload.getExpiration().getTime()
+        );
     }
 
     public String getEmail(String token) {
 
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("email", String.class);
+        return parse(token).getEmail();
     }
 
     public String getRole(String token) {
 
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("role", String.class);
+        return parse(token).getRole();
     }
     public String getCategory(String token) {
 
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().get("category", String.class);
+        return parse(token).getCategory();
     }
 
     public Boolean isExpired(String token) {
 
-        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getExpiration().before(new Date());
+        return parse(token).isExpired(System.currentTimeMillis());
     }
 
 //    public String createJwt(String username, String role, Long expiredMs) {
@@ -52,13 +79,28 @@ public class JWTUtil {
 //    }
 public String createJwt(String category,String email, String role, Long expiredMs) {
 
-    return Jwts.builder()
-            .claim("category",category)
-            .claim("email",email )
-            .claim("role", role)
-            .issuedAt(new Date(System.currentTimeMillis()))
-            .expiration(new Date(System.currentTimeMillis() + expiredMs))
-            .signWith(secretKey)
-            .compact();
+    return createJwt(category, email, role, null, expiredMs);
 }
+
+    /**
+     * 패밀리 ID(fid)를 포함한 토큰 생성
+     * Refresh 토큰 회전 시 같은 패밀리를 이어가고, 재사용이 감지되면 패밀리 전체를 폐기하는 데 사용
+     */
+    public String createJwt(String category, String email, String role, String familyId, Long expiredMs) {
+
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
+                .claim("category", category)
+                .claim("email", email)
+                .claim("role", role);
+        if (familyId != null) {
+            builder.claim("fid", familyId);
+        }
+        return builder
+                .id(UUID.randomUUID().toString())   // jti: 토큰 단위 폐기(denylist)에 사용
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiredMs))
+                .signWith(secretKey)
+                .compact();
+    }
 }
\ No newline at end of file
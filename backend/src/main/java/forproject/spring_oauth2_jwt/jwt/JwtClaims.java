@@ -0,0 +1,40 @@
+package forproject.spring_oauth2_jwt.jwt;
+
+import lombok.Getter;
+
+/**
+ * 서명 검증이 끝난 JWT 클레임 (불변 객체)
+ *
+ * JWTUtil.parse() 로 한 번만 파싱/검증한 결과를 담아
+ * 필터와 컨트롤러에서 category, email, role 을 다시 파싱하지 않고 재사용한다.
+ */
+@Getter
+public final class JwtClaims {
+
+    private final String category;
+    private final String email;
+    private final String role;
+    // Refresh 토큰 패밀리 ID (로그인 1회 = 패밀리 1개, Access 토큰은 null)
+    private final String familyId;
+    // 토큰 고유 ID (jti) - 로그아웃 시 Access 토큰 폐기용
+    private final String tokenId;
+    private final long issuedAtMs;
+    private final long expirationMs;
+
+    public JwtClaims(String category, String email, String role, String familyId, String tokenId, long issuedAtMs, long expirationMs) {
+        this.category = category;
+        this.email = email;
+        this.role = role;
+        this.familyId = familyId;
+        this.tokenId = tokenId;
+        this.issuedAtMs = issuedAtMs;
+        this.expirationMs = expirationMs;
+    }
+
+    /**
+     * 주어진 시각 기준 만료 여부
+     */
+    public boolean isExpired(long nowMs) {
+        return expirationMs <= nowMs;
+    }
+}
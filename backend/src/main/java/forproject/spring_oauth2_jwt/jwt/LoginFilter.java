@@ -75,28 +75,30 @@ package forproject.spring_oauth2_jwt.jwt;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import forproject.spring_oauth2_jwt.dto.LoginDTO;
-import forproject.spring_oauth2_jwt.dto.UserPrincipal;
+import forproject.spring_oauth2_jwt.exception.LoginOverloadedException;
+import forproject.spring_oauth2_jwt.exception.LoginRateLimitedException;
+import forproject.spring_oauth2_jwt.service.RateLimiter;
 import forproject.spring_oauth2_jwt.service.RefreshTokenService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.util.StreamUtils;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
 
 public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     private final AuthenticationManager authenticationManager;
@@ -117,10 +119,29 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     @Value("${cookie.secure}")
     private boolean cookieSecure;
 
-    LoginDTO loginDTO = new LoginDTO();
-    public LoginFilter(AuthenticationManager authenticationManager, JWTUtil jwtUtil, RefreshTokenService refreshTokenService) {
+    // 로그인 시도 제한 (IP 기준 / 이메일 기준, 설정으로 덮어쓰기 가능)
+    @Value("${rate-limit.routes.login-ip.limit:20}")
+    private int loginIpLimit;
+
+    @Value("${rate-limit.routes.login-ip.window-seconds:60}")
+    private long loginIpWindowSeconds;
+
+    @Value("${rate-limit.routes.login-email.limit:10}")
+    private int loginEmailLimit;
+
+    @Value("${rate-limit.routes.login-email.window-seconds:300}")
+    private long loginEmailWindowSeconds;
+
+    private final RateLimiter rateLimiter;
+
+    // 스레드 안전한 공유 ObjectMapper (요청마다 생성하지 않음)
+    private final ObjectMapper objectMapper;
+
+    public LoginFilter(AuthenticationManager authenticationManager, JWTUtil jwtUtil, RefreshTokenService refreshTokenService, ObjectMapper objectMapper, RateLimiter rateLimiter) {
         this.authenticationManager = authenticationManager;
+        this.rateLimiter = rateLimiter;
         this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
         super.setAuthenticationManager(authenticationManager);
 
         this.setFilterProcessesUrl("/api/login");
@@ -131,21 +152,25 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse response) throws AuthenticationException {
 
-        try {
-            ObjectMapper objectMapper = new ObjectMapper();
-            ServletInputStream inputStream = request.getInputStream();
-            String messageBody = StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8);
-            loginDTO = objectMapper.readValue(messageBody, LoginDTO.class);
+        // 본문 파싱 전에 IP 기준 제한부터 확인 (BCrypt 검증 비용이 들기 전에 차단)
+        // getRemoteAddr 는 forward-headers-strategy=native 로 프록시 뒤 실제 클라이언트 IP (RateLimitKeyType.IP 참고)
+        checkRateLimit("login-ip", request.getRemoteAddr(), loginIpLimit, loginIpWindowSeconds);
 
+        // 요청 본문을 문자열로 복사하지 않고 스트림에서 바로 파싱 (요청마다 지역 변수로만 사용)
+        LoginDTO loginDTO;
+        try {
+            loginDTO = objectMapper.readValue(request.getInputStream(), LoginDTO.class);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new AuthenticationServiceException("invalid login request body", e);
         }
 
-        System.out.println(loginDTO.getEmail());
-
         String email = loginDTO.getEmail();
         String password = loginDTO.getPassword();
 
+        if (email != null && !email.isBlank()) {
+            checkRateLimit("login-email", email.trim().toLowerCase(Locale.ROOT), loginEmailLimit, loginEmailWindowSeconds);
+        }
+
         // Authentication Manager에게 값을 전달해주기 위해 ,스프링 시큐리티에서 username 과 password 를 검증하기 위해서는 token 에 담아야한다.
         UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(email, password, null);
 
@@ -154,6 +179,13 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
         return authenticationManager.authenticate(authToken);
     }
 
+    private void checkRateLimit(String route, String key, int limit, long windowSeconds) {
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(route, key, limit, windowSeconds * 1000L);
+        if (!decision.isAllowed()) {
+            throw new LoginRateLimitedException("too many login attempts: " + route, decision.getRetryAfterSeconds());
+        }
+    }
+
     //로그인 성공시 실행하는 메소드 ( 여기서 jwt를 발행하면 됨)
     @Override
     protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain, Authentication authentication) throws IOException, ServletException {
@@ -168,10 +200,11 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
 
             //토큰 생성 (실무 표준: Access 15분, Refresh 7일)
             String access = jwtUtil.createJwt("access", email, role, accessTokenExpiration);      // 15분
-            String refresh = jwtUtil.createJwt("refresh", email, role, refreshTokenExpiration); // 7일
+            String familyId = UUID.randomUUID().toString();                                     // 로그인 1회 = 새 토큰 패밀리
+            String refresh = jwtUtil.createJwt("refresh", email, role, familyId, refreshTokenExpiration); // 7일
 
-            // Redis에 Refresh 저장 (email을 key로 사용)
-            refreshTokenService.save(email, refresh, 604_800_000L); // 7일
+            // Redis에 Refresh 저장 (email 별 세션 해시에 기기 단위로 등록, TTL 은 토큰 만료와 같은 jwt.refresh-token.expiration)
+            refreshTokenService.save(email, familyId, refresh, refreshTokenExpiration, request.getHeader("User-Agent"));
 
             //응답 설정
             response.setHeader("access", access);
@@ -195,6 +228,18 @@ public class LoginFilter extends UsernamePasswordAuthenticationFilter {
     @Override
     protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response, AuthenticationException failed) throws IOException, ServletException {
 
+        // 비밀번호 검증 풀 포화로 거절된 경우 → 잠시 후 재시도 안내
+        if (failed instanceof LoginRateLimitedException rateLimited) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(rateLimited.getRetryAfterSeconds()));
+            return;
+        }
+        if (failed instanceof LoginOverloadedException) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            return;
+        }
+
         response.setStatus(401);
 
     }
@@ -0,0 +1,103 @@
+package forproject.spring_oauth2_jwt.jwt;
+
+import forproject.spring_oauth2_jwt.util.BoundedTtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 서명 검증이 끝난 토큰 캐시
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 같은 Access 토큰으로 들어오는 반복 요청마다 HS256 서명 검증 + JSON 파싱을 다시 하지 않도록
+ * 한 번 검증된 토큰의 클레임을 만료 시각까지 메모리에 보관한다.
+ * </pre>
+ *
+ * <p><b>설계</b></p>
+ * <pre>
+ * - 키: 토큰 원문의 SHA-256 다이제스트 (토큰 문자열 자체를 보관하지 않음)
+ * - 값: JwtClaims (불변)
+ * - 조회 시 만료된 항목은 버리고 다시 검증 → 만료 예외는 JWTUtil.parse() 가 그대로 던짐
+ * - 최대 크기 제한: 가득 차면 만료 항목을 정리하고, 그래도 가득 차 있으면 캐싱만 생략 (BoundedTtlCache)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 알고리즘을 사용할 수 없습니다.", e);
+        }
+    });
+
+    private final JWTUtil jwtUtil;
+    private final BoundedTtlCache<ByteBuffer, JwtClaims> cache;
+
+    public VerifiedTokenCache(JWTUtil jwtUtil,
+                              @Value("${jwt.verified-cache.max-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.cache = new BoundedTtlCache<>(maxSize, JwtClaims::getExpirationMs);
+    }
+
+    /**
+     * 캐시에 유효한 클레임이 있으면 그대로 반환하고, 없으면 검증 후 캐싱
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException 만료된 토큰
+     * @throws io.jsonwebtoken.JwtException        서명/형식 오류
+     */
+    public JwtClaims resolve(String token) {
+        ByteBuffer key = digest(token);
+        long now = System.currentTimeMillis();
+
+        JwtClaims cached = cache.get(key, now);
+        if (cached != null) {
+            return cached;
+        }
+
+        JwtClaims claims = jwtUtil.parse(token);
+        // 가득 차 있으면 캐싱만 생략 (검증은 이미 끝남)
+        cache.put(key, claims, now);
+        return claims;
+    }
+
+    /**
+     * 특정 토큰을 캐시에서 제거 (로그아웃 등)
+     */
+    public void invalidate(String token) {
+        cache.remove(digest(token));
+    }
+
+    /**
+     * 현재 캐시된 토큰 수
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    /**
+     * 만료된 항목 주기적 정리 (1분)
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictExpired() {
+        int removed = cache.sweep(System.currentTimeMillis());
+        if (removed > 0) {
+            log.debug("검증 토큰 캐시 정리 - 제거: {}개, 남은 항목: {}개", removed, cache.size());
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return ByteBuffer.wrap(md.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.UUID;
 
 @Component
 public class CustomSuccessHandler extends SimpleUrlAuthenticationSuccessHandler {
@@ -59,10 +60,11 @@ public class CustomSuccessHandler extends SimpleUrlAuthenticationSuccessHandler
 
         // email을 사용하여 JWT를 생성합니다.
         String access = jwtUtil.createJwt("access", email, role, accessTokenExpiration);      // 15분
-        String refresh = jwtUtil.createJwt("refresh", email, role, refreshTokenExpiration); // 7일
+        String familyId = UUID.randomUUID().toString();                                     // 로그인 1회 = 새 토큰 패밀리
+        String refresh = jwtUtil.createJwt("refresh", email, role, familyId, refreshTokenExpiration); // 7일
 
-        // Redis에 Refresh 토큰을 email을 key로 하여 저장합니다.
-        refreshTokenService.save(email, refresh, refreshTokenExpiration); // 7일
+        // Redis에 Refresh 토큰을 email 별 세션 해시에 기기 단위로 저장합니다.
+        refreshTokenService.save(email, familyId, refresh, refreshTokenExpiration, request.getHeader("User-Agent")); // 7일
 
         //응답 설정
         response.setHeader("access", access);
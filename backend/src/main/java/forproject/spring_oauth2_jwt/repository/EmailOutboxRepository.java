@@ -0,0 +1,16 @@
+package forproject.spring_oauth2_jwt.repository;
+
+import forproject.spring_oauth2_jwt.entity.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * 디스패처가 이번에 점유한 메일 조회
+     */
+    List<EmailOutbox> findByClaimToken(String claimToken);
+}
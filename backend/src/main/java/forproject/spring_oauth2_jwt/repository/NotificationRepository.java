@@ -1,10 +1,15 @@
 package forproject.spring_oauth2_jwt.repository;
 
 import forproject.spring_oauth2_jwt.entity.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.awt.print.Pageable;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,6 +19,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByUserIdAndIsReadFalse(Long userId);
 
+    /**
+     * 여러 사용자의 읽지 않은 알림 개수 (카운터 보정용, [userId, count])
+     */
+    @Query("SELECT n.userId, COUNT(n) FROM Notification n " +
+            "WHERE n.isRead = false AND n.userId IN :userIds GROUP BY n.userId")
+    List<Object[]> countUnreadGroupByUserId(@Param("userIds") Collection<Long> userIds);
+
     /**
      *  사용자의 모든 알림 조회 (최신순)
      */
@@ -24,13 +36,80 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     List<Notification> findByUserIdAndIsReadFalseOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * 알림 목록 첫 페이지 (최신순, keyset)
+     * 커서 정렬 키 (createdAt, id) 는 (user_id, created_at, id) 인덱스 순서와 같아 정렬 비용이 없음
+     * (is_read 조건이 없으므로 (user_id, is_read, created_at) 인덱스로는 filesort 가 필요함)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 알림 목록 다음 페이지 (커서 이후)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageAfter(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    /**
+     * 읽지 않은 알림 첫 페이지 (최신순, keyset)
+     * (user_id, is_read, created_at) 인덱스 + InnoDB 가 뒤에 붙이는 PK(id) 순서로 정렬 없이 읽음
+     */
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.isRead = false " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadFirstPage(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * 읽지 않은 알림 다음 페이지 (커서 이후)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.isRead = false " +
+            "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findUnreadPageAfter(@Param("userId") Long userId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
     /**
      * Last-Event-ID 이후 조회
      */
-    List<Notification> findByUserIdAndIdGreaterThanOrderByCreatedAtAsc(Long userId, Long lastNotificationId);
+    List<Notification> findByUserIdAndIdGreaterThanOrderByCreatedAtAsc(Long userId, Long lastNotificationId, Pageable pageable);
+
+    /**
+     * 지정한 알림 읽음 처리 (본인 알림 + 아직 읽지 않은 것만, UPDATE 1회)
+     * @return 새로 읽음 처리된 개수
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt " +
+            "WHERE n.userId = :userId AND n.id IN :ids AND n.isRead = false")
+    int markAsReadByIds(@Param("userId") Long userId,
+                        @Param("ids") Collection<Long> ids,
+                        @Param("readAt") LocalDateTime readAt);
+
+    /**
+     * 특정 여행 + 대상 엔티티(초대 id 등)와 연결된 알림 읽음 처리 (UPDATE 1회, idx_notification_user_related_entity)
+     * @return 새로 읽음 처리된 개수
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt " +
+            "WHERE n.userId = :userId AND n.relatedTripId = :relatedTripId " +
+            "AND n.relatedEntityId = :relatedEntityId AND n.isRead = false")
+    int markAsReadByRelatedEntity(@Param("userId") Long userId,
+                                  @Param("relatedTripId") Long relatedTripId,
+                                  @Param("relatedEntityId") Long relatedEntityId,
+                                  @Param("readAt") LocalDateTime readAt);
 
     /**
-     * 특정 초대와 연결된 알림 조회
+     * 사용자의 모든 알림 읽음 처리 (UPDATE 1회)
+     * @return 새로 읽음 처리된 개수
      */
-    List<Notification> findByUserIdAndRelatedData(Long userId, String relatedData);
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true, n.readAt = :readAt " +
+            "WHERE n.userId = :userId AND n.isRead = false")
+    int markAllAsRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
 }
@@ -4,8 +4,11 @@ package forproject.spring_oauth2_jwt.repository;
 import forproject.spring_oauth2_jwt.entity.TravelInvitation;
 import forproject.spring_oauth2_jwt.enums.InvitationStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,15 @@ public interface TravelInvitationRepository extends JpaRepository<TravelInvitati
 
     boolean existsByTripIdAndInvitedEmailAndStatus(Long tripId, String email, InvitationStatus status);
 
+    /**
+     * 주어진 이메일 중 해당 여행에 특정 상태 초대가 이미 있는 이메일 조회 (일괄 초대 중복 확인용)
+     */
+    @Query("SELECT i.invitedEmail FROM TravelInvitation i " +
+            "WHERE i.tripId = :tripId AND i.status = :status AND i.invitedEmail IN :emails")
+    List<String> findInvitedEmailsByTripIdAndStatus(@Param("tripId") Long tripId,
+                                                    @Param("status") InvitationStatus status,
+                                                    @Param("emails") Collection<String> emails);
+
     /**
      * 토큰으로 초대 조회
      * 초대 수락/거절 시 사용
@@ -26,6 +26,13 @@ public interface TravelParticipantRepository extends JpaRepository<TravelPartici
      */
     boolean existsByTripIdAndUserId(Long tripId, Long userId);
 
+    /**
+     * 특정 여행의 참여자 userId 목록 (멤버십 캐시 로딩용, 삭제된 여행이면 빈 목록)
+     */
+    @Query("SELECT tp.userId FROM TravelParticipant tp WHERE tp.tripId = :tripId " +
+            "AND EXISTS (SELECT 1 FROM TravelPlanEntity p WHERE p.id = tp.tripId AND p.isDeleted = false)")
+    List<Long> findUserIdsByTripId(@Param("tripId") Long tripId);
+
     /**
      * 특정 사용자의 역할 조회
      */
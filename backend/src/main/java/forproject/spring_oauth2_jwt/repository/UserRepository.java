@@ -6,6 +6,9 @@ import lombok.Setter;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
@@ -13,6 +16,8 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     UserEntity findByEmail(String email);
 
+    List<UserEntity> findByEmailIn(Collection<String> emails);
+
     boolean existsByEmail(String email);
 
 //    boolean existsByNickname(String nickname);
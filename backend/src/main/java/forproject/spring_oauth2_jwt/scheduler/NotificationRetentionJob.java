@@ -0,0 +1,40 @@
+package forproject.spring_oauth2_jwt.scheduler;
+
+import forproject.spring_oauth2_jwt.service.NotificationRetentionService;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보관 기간이 지난 읽은 알림 정리 Job
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class NotificationRetentionJob implements Job {
+
+    private final NotificationRetentionService retentionService;
+
+    public NotificationRetentionJob(NotificationRetentionService retentionService) {
+        this.retentionService = retentionService;
+    }
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        long startTime = System.currentTimeMillis();
+        try {
+            long deleted = retentionService.purgeReadNotifications();
+            log.info("🗑️ 알림 정리 배치 완료 - 삭제: {}개, 소요 시간: {}ms",
+                    deleted, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("💥 알림 정리 배치 실행 중 오류 발생", e);
+
+            JobExecutionException jobException = new JobExecutionException(e);
+            jobException.setRefireImmediately(false);
+            throw jobException;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package forproject.spring_oauth2_jwt.scheduler;
+
+import forproject.spring_oauth2_jwt.service.UnreadNotificationCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 읽지 않은 알림 카운터(Redis) 보정 Job
+ *
+ * 커밋 후 반영 실패, Redis 장애, 조회-초기화 경합 등으로 생긴 카운터 오차를
+ * notification 테이블 기준으로 주기적으로 교정한다.
+ */
+@Slf4j
+@Component
+@DisallowConcurrentExecution
+public class UnreadCountReconcileJob implements Job {
+
+    private final UnreadNotificationCounter unreadCounter;
+
+    public UnreadCountReconcileJob(UnreadNotificationCounter unreadCounter) {
+        this.unreadCounter = unreadCounter;
+    }
+
+    @Override
+    public void execute(JobExecutionContext context) throws JobExecutionException {
+        long startTime = System.currentTimeMillis();
+        try {
+            int corrected = unreadCounter.reconcile();
+            log.info("🔧 알림 카운터 보정 완료 - 교정: {}개, 소요 시간: {}ms",
+                    corrected, System.currentTimeMillis() - startTime);
+        } catch (Exception e) {
+            log.error("💥 알림 카운터 보정 중 오류 발생", e);
+
+            JobExecutionException jobException = new JobExecutionException(e);
+            jobException.setRefireImmediately(false);
+            throw jobException;
+        }
+    }
+}
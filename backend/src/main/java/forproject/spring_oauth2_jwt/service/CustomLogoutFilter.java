@@ -1,8 +1,11 @@
 package forproject.spring_oauth2_jwt.service;
 
 
+import forproject.spring_oauth2_jwt.jwt.AccessTokenDenylist;
 import forproject.spring_oauth2_jwt.jwt.JWTUtil;
+import forproject.spring_oauth2_jwt.jwt.JwtClaims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -19,10 +22,12 @@ public class CustomLogoutFilter extends GenericFilterBean {
 
     private final JWTUtil jwtUtil;
     private final RefreshTokenService refreshTokenService; // Redis 서비스
+    private final AccessTokenDenylist accessTokenDenylist; // Access 토큰 폐기 (모든 노드 전파)
 
-    public CustomLogoutFilter(JWTUtil jwtUtil, RefreshTokenService refreshTokenService) {
+    public CustomLogoutFilter(JWTUtil jwtUtil, RefreshTokenService refreshTokenService, AccessTokenDenylist accessTokenDenylist) {
         this.jwtUtil = jwtUtil;
         this.refreshTokenService = refreshTokenService;
+        this.accessTokenDenylist = accessTokenDenylist;
     }
 
     @Override
@@ -53,32 +58,36 @@ public class CustomLogoutFilter extends GenericFilterBean {
             return;
         }
 
-        // Expired check
+        // Expired / 서명 검증 + 파싱 (한 번만)
+        JwtClaims claims;
         try {
-            jwtUtil.isExpired(refresh);
+            claims = jwtUtil.parse(refresh);
         } catch (ExpiredJwtException e) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
+        } catch (JwtException | IllegalArgumentException e) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
         }
 
         // Category check
-        String category = jwtUtil.getCategory(refresh);
+        String category = claims.getCategory();
         if (!"refresh".equals(category)) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
 
         // Username 추출 (key: username, value: refreshToken)
-        String email = jwtUtil.getEmail(refresh);
-        // Redis에 저장되어 있는지 확인 (username 기준)
-        boolean isExist = refreshTokenService.isValid(refresh, email); // 직접 비교
-        if (!isExist) {
+        String email = claims.getEmail();
+        // Redis 세션 확인 + 삭제를 한 번의 왕복으로 (토큰이 일치하는 해당 기기 세션만 로그아웃)
+        boolean revoked = refreshTokenService.revokeIfMatches(email, claims.getFamilyId(), refresh);
+        if (!revoked) {
             response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
             return;
         }
 
-        // 로그아웃: Redis에서 Refresh 토큰 삭제
-        refreshTokenService.delete(email);
+        // 함께 전달된 Access 토큰은 만료 전까지 사용하지 못하도록 폐기
+        revokeAccessToken(request.getHeader("access"));
 
         // Refresh 토큰 Cookie 삭제
         ResponseCookie cookie = ResponseCookie.from("refresh", "")
@@ -92,5 +101,16 @@ public class CustomLogoutFilter extends GenericFilterBean {
         response.addHeader("Set-Cookie", cookie.toString());
         response.setStatus(HttpServletResponse.SC_OK);
     }
-}
 
+    private void revokeAccessToken(String accessToken) {
+        if (accessToken == null) {
+            return;
+        }
+        try {
+            JwtClaims claims = jwtUtil.parse(accessToken);
+            accessTokenDenylist.revoke(claims.getTokenId(), claims.getExpirationMs());
+        } catch (JwtException | IllegalArgumentException e) {
+            // 이미 만료되었거나 잘못된 토큰은 폐기할 필요 없음
+        }
+    }
+}
@@ -14,10 +14,12 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public CustomOAuth2UserService(UserRepository userRepository, NotificationService notificationService) {
+    public CustomOAuth2UserService(UserRepository userRepository, NotificationService notificationService, UserPrincipalCache userPrincipalCache) {
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
     @Override
@@ -53,6 +55,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             userEntity.setRole("ROLE_USER");
 
             UserEntity savedUser = userRepository.save(userEntity);
+            userPrincipalCache.evict(savedUser.getEmail());
 
             System.out.println("🔍 [DEBUG] 새 사용자 가입 완료 - userId: " + savedUser.getId() + ", email: " + savedUser.getEmail());
 
@@ -84,6 +87,7 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             existData.setName(oAuth2Response.getName());
 
             userRepository.save(existData);
+            userPrincipalCache.evict(existData.getEmail());
 
             UserDTO userDTO = new UserDTO();
             userDTO.setUsername(existData.getUsername());
@@ -0,0 +1,282 @@
+package forproject.spring_oauth2_jwt.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.entity.EmailOutbox;
+import forproject.spring_oauth2_jwt.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메일 발송 대기열(email_outbox) 디스패처
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * 1. 점유: UPDATE ... SET status='SENDING', claim_token=? ... LIMIT n 로 발송할 행을 원자적으로 가져감
+ *    → 여러 노드가 동시에 폴링해도 같은 메일을 두 번 가져가지 않음
+ *    → 발송 중 노드가 죽으면 locked_until 이 지난 뒤 다른 노드가 다시 가져감
+ * 2. 발송: emailTaskExecutor 에서 SMTP 발송 (동시 발송 수는 concurrency 로 제한)
+ * 3. 결과: 성공 → SENT / 실패 → 지수 백오프(+jitter) 후 PENDING, max-attempts 초과 시 FAILED
+ * </pre>
+ *
+ * <p><b>트리거</b></p>
+ * <pre>
+ * - 적재 트랜잭션 커밋 직후 wakeUp() (EmailOutboxService)
+ * - poll-interval-ms 주기 폴링 (재시도 대상 / 놓친 wakeUp 처리)
+ * </pre>
+ *
+ * <p><b>메트릭</b></p>
+ * <pre>
+ * email.outbox.sent / retried / failed (카운터)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET status = 'SENDING', claim_token = ?, locked_until = ?, attempts = attempts + 1 "
+                    + "WHERE (status = 'PENDING' AND next_attempt_at <= ?) OR (status = 'SENDING' AND locked_until < ?) "
+                    + "ORDER BY next_attempt_at LIMIT ?";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE email_outbox SET status = 'SENT', sent_at = ?, locked_until = NULL, last_error = NULL "
+                    + "WHERE id = ? AND claim_token = ?";
+
+    private static final String MARK_RETRY_SQL =
+            "UPDATE email_outbox SET status = ?, next_attempt_at = ?, locked_until = NULL, last_error = ? "
+                    + "WHERE id = ? AND claim_token = ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE email_outbox SET status = 'PENDING', attempts = attempts - 1, locked_until = NULL "
+                    + "WHERE id = ? AND claim_token = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM email_outbox WHERE status = 'SENT' AND sent_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private final long leaseMs;
+    private final int retentionDays;
+
+    private final Semaphore permits;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public EmailOutboxDispatcher(JdbcTemplate jdbcTemplate,
+                                 EmailOutboxRepository outboxRepository,
+                                 EmailService emailService,
+                                 ObjectMapper objectMapper,
+                                 @Qualifier("emailTaskExecutor") Executor executor,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${email.outbox.concurrency:4}") int concurrency,
+                                 @Value("${email.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-base-ms:30000}") long backoffBaseMs,
+                                 @Value("${email.outbox.backoff-max-ms:3600000}") long backoffMaxMs,
+                                 @Value("${email.outbox.lease-ms:120000}") long leaseMs,
+                                 @Value("${email.outbox.retention-days:7}") int retentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.leaseMs = leaseMs;
+        this.retentionDays = retentionDays;
+        this.permits = new Semaphore(concurrency);
+
+        FunctionCounter.builder("email.outbox.sent", sent, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("email.outbox.retried", retried, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("email.outbox.failed", failed, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * 새 메일이 적재되었을 때 즉시 폴링 (폴링 주기를 기다리지 않음)
+     */
+    public void wakeUp() {
+        try {
+            executor.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // 풀 포화 → 다음 주기 폴링에서 처리
+            log.debug("메일 디스패처 깨우기 생략 - 풀 포화");
+        }
+    }
+
+    /**
+     * 발송 가능한 메일을 점유해서 발송 풀에 넘김 (빈 발송 슬롯 수만큼)
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int available = permits.drainPermits();
+            if (available == 0) {
+                return;
+            }
+            List<EmailOutbox> claimed;
+            try {
+                claimed = claim(available);
+            } catch (Exception e) {
+                permits.release(available);
+                log.warn("⚠️ 메일 대기열 점유 실패 - error: {}", e.getMessage());
+                return;
+            }
+            // 점유하지 못한 슬롯 반환
+            permits.release(available - claimed.size());
+
+            for (EmailOutbox outbox : claimed) {
+                try {
+                    executor.execute(() -> deliver(outbox));
+                } catch (RejectedExecutionException e) {
+                    release(outbox);
+                    permits.release();
+                }
+            }
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    /**
+     * 보관 기간이 지난 발송 완료 메일 정리 (매일 04:30)
+     */
+    @Scheduled(cron = "0 30 4 * * *")
+    public void purgeSent() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff, 500);
+            total += deleted;
+        } while (deleted == 500);
+        if (total > 0) {
+            log.info("🗑️ 발송 완료 메일 정리 - 삭제: {}개", total);
+        }
+    }
+
+    private List<EmailOutbox> claim(int limit) {
+        String claimToken = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update(CLAIM_SQL,
+                claimToken,
+                Timestamp.valueOf(now.plusNanos(leaseMs * 1_000_000L)),
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now),
+                limit);
+        if (updated == 0) {
+            return List.of();
+        }
+        return outboxRepository.findByClaimToken(claimToken);
+    }
+
+    private void deliver(EmailOutbox outbox) {
+        boolean success = false;
+        try {
+            send(outbox);
+            jdbcTemplate.update(MARK_SENT_SQL,
+                    Timestamp.valueOf(LocalDateTime.now()), outbox.getId(), outbox.getClaimToken());
+            sent.increment();
+            success = true;
+            log.info("📧 메일 발송 완료 - id: {}, type: {}, to: {}", outbox.getId(), outbox.getType(), outbox.getRecipient());
+        } catch (Exception e) {
+            scheduleRetry(outbox, e);
+        } finally {
+            permits.release();
+        }
+        // 방금 한 건을 끝냈으니 대기 중인 메일이 더 있으면 바로 이어서 처리
+        if (success) {
+            wakeUp();
+        }
+    }
+
+    private void send(EmailOutbox outbox) throws Exception {
+        Map<String, String> variables = objectMapper.readValue(outbox.getPayload(), new TypeReference<>() {
+        });
+        switch (outbox.getType()) {
+            case VERIFICATION_CODE -> emailService.sendVerificationCodeEmail(
+                    outbox.getRecipient(), variables.get("code"));
+            case INVITATION -> emailService.sendInvitationEmail(
+                    outbox.getRecipient(), variables.get("inviterName"), variables.get("tripTitle"));
+        }
+    }
+
+    private void scheduleRetry(EmailOutbox outbox, Exception cause) {
+        String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        boolean giveUp = outbox.getAttempts() >= maxAttempts;
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plusNanos(backoffMs(outbox.getAttempts()) * 1_000_000L);
+
+        try {
+            jdbcTemplate.update(MARK_RETRY_SQL,
+                    giveUp ? "FAILED" : "PENDING",
+                    Timestamp.valueOf(nextAttemptAt),
+                    error,
+                    outbox.getId(),
+                    outbox.getClaimToken());
+        } catch (Exception e) {
+            // 상태 갱신 실패 → lease 만료 후 다시 점유됨
+            log.warn("⚠️ 메일 재시도 상태 저장 실패 - id: {}, error: {}", outbox.getId(), e.getMessage());
+        }
+
+        if (giveUp) {
+            failed.increment();
+            log.error("❌ 메일 발송 최종 실패 - id: {}, type: {}, to: {}, 시도: {}, error: {}",
+                    outbox.getId(), outbox.getType(), outbox.getRecipient(), outbox.getAttempts(), error);
+        } else {
+            retried.increment();
+            log.warn("⚠️ 메일 발송 실패 - 재시도 예정: id={}, 시도={}, 다음 시도={}, error={}",
+                    outbox.getId(), outbox.getAttempts(), nextAttemptAt, error);
+        }
+    }
+
+    /**
+     * attempts 번째 실패 후 대기 시간: base * 2^(attempts-1), 최대 max, ±20% jitter
+     */
+    private long backoffMs(int attempts) {
+        long delay = backoffBaseMs << Math.min(Math.max(attempts - 1, 0), 20);
+        delay = Math.min(delay, backoffMaxMs);
+        long jitter = delay / 5;
+        return jitter > 0 ? delay - jitter + ThreadLocalRandom.current().nextLong(jitter * 2) : delay;
+    }
+
+    private void release(EmailOutbox outbox) {
+        try {
+            jdbcTemplate.update(RELEASE_SQL, outbox.getId(), outbox.getClaimToken());
+        } catch (Exception e) {
+            log.warn("⚠️ 메일 점유 해제 실패 - id: {}, error: {}", outbox.getId(), e.getMessage());
+        }
+    }
+}
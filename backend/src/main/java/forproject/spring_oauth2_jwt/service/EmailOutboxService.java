@@ -0,0 +1,112 @@
+package forproject.spring_oauth2_jwt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.enums.EmailType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메일 발송 요청을 email_outbox 에 적재 (transactional outbox)
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - 호출한 쪽의 트랜잭션(JPA 트랜잭션의 같은 커넥션)에서 INSERT → 롤백되면 메일도 없음
+ * - INSERT IGNORE + dedupe_key 유니크 제약으로 같은 메일은 한 번만 적재 (예외 없이 무시 → 트랜잭션 유지)
+ * - 커밋 후 디스패처를 깨워 폴링 주기를 기다리지 않고 바로 발송
+ * </pre>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO email_outbox (type, recipient, payload, dedupe_key, status, attempts, next_attempt_at, created_at) "
+                    + "VALUES (?, ?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmailOutboxDispatcher dispatcher;
+
+    /**
+     * 여행 초대 메일 일괄 적재 (배치 INSERT 1회, 초대 토큰 기준 중복 방지)
+     *
+     * 왕복 1회는 드라이버 속성 rewriteBatchedStatements=true 전제 (INSERT IGNORE 도 다중 행으로 재작성됨,
+     * docker-compose*.yml 의 datasource 설정 참고)
+     *
+     * @param tokenByEmail 수신 이메일 → 초대 토큰
+     */
+    public void enqueueInvitations(String inviterName, String tripTitle, Map<String, String> tokenByEmail) {
+        if (tokenByEmail.isEmpty()) {
+            return;
+        }
+        String payload = toJson(EmailType.INVITATION, Map.of("inviterName", inviterName, "tripTitle", tripTitle));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batchArgs = new ArrayList<>(tokenByEmail.size());
+        for (Map.Entry<String, String> entry : tokenByEmail.entrySet()) {
+            batchArgs.add(new Object[]{
+                    EmailType.INVITATION.name(), entry.getKey(), payload, "invitation:" + entry.getValue(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        log.info("📮 초대 메일 발송 대기열 적재 - 수: {}", tokenByEmail.size());
+
+        wakeUpAfterCommit();
+    }
+
+    /**
+     * 이메일 인증 코드 메일 적재 (이메일 + 코드 기준 중복 방지)
+     */
+    public void enqueueVerificationCode(String to, String code) {
+        enqueue(EmailType.VERIFICATION_CODE, to, "verification:" + to + ":" + code,
+                Map.of("code", code));
+    }
+
+    private void enqueue(EmailType type, String to, String dedupeKey, Map<String, String> variables) {
+        String payload = toJson(type, variables);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = jdbcTemplate.update(INSERT_SQL, type.name(), to, payload, dedupeKey, now, now);
+        if (inserted == 0) {
+            log.info("⏭️ 이미 적재된 메일 - type: {}, dedupeKey: {}", type, dedupeKey);
+            return;
+        }
+        log.info("📮 메일 발송 대기열 적재 - type: {}, to: {}", type, to);
+
+        wakeUpAfterCommit();
+    }
+
+    private String toJson(EmailType type, Map<String, String> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("메일 변수 직렬화 실패: type=" + type, e);
+        }
+    }
+
+    /**
+     * 커밋 후 디스패처 깨우기 (트랜잭션 밖이면 즉시)
+     */
+    private void wakeUpAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.wakeUp();
+                }
+            });
+        } else {
+            dispatcher.wakeUp();
+        }
+    }
+}
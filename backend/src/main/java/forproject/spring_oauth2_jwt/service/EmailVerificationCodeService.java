@@ -23,15 +23,10 @@ public class EmailVerificationCodeService {
     // Redis Key 접두사
     private static final String VERIFY_CODE_PREFIX = "email:verify:";
     private static final String VERIFIED_PREFIX = "email:verified:";
-    private static final String RATE_LIMIT_PREFIX = "email:ratelimit:";
 
     // TTL 설정 (분 단위)
     private static final int CODE_EXPIRATION_MINUTES = 5;
     private static final int VERIFIED_EXPIRATION_MINUTES = 10;
-    private static final int RATE_LIMIT_HOURS = 1;
-
-    // Rate Limit 설정
-    private static final int MAX_SEND_COUNT = 5;
 
     /**
      * 6자리 랜덤 인증 코드 생성
@@ -133,28 +128,4 @@ public class EmailVerificationCodeService {
         redisTemplate.delete(key);
         log.info("인증 코드 삭제: email={}", email);
     }
-
-    /**
-     * Rate Limit 체크 (1시간에 5번)
-     */
-    public void checkRateLimit(String email) {
-        String key = RATE_LIMIT_PREFIX + email;
-        String countStr = redisTemplate.opsForValue().get(key);
-
-        int count = (countStr != null) ? Integer.parseInt(countStr) : 0;
-
-        if (count >= MAX_SEND_COUNT) {
-            throw new RuntimeException("너무 많은 요청입니다. 1시간 후 다시 시도해주세요.");
-        }
-
-        // 횟수 증가
-        redisTemplate.opsForValue().increment(key);
-
-        // 첫 요청이면 TTL 설정
-        if (count == 0) {
-            redisTemplate.expire(key, RATE_LIMIT_HOURS, TimeUnit.HOURS);
-        }
-
-        log.info("Rate Limit: email={}, count={}/{}", email, count + 1, MAX_SEND_COUNT);
-    }
 }
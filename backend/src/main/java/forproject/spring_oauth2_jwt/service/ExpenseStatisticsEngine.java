@@ -0,0 +1,210 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.dto.response.ExpenseStatisticsResponse;
+import forproject.spring_oauth2_jwt.entity.UserEntity;
+import forproject.spring_oauth2_jwt.repository.TravelParticipantRepository;
+import forproject.spring_oauth2_jwt.repository.UserRepository;
+import forproject.spring_oauth2_jwt.util.LongSumAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 지출 통계 계산 엔진
+ *
+ * <p><b>쿼리 (지출 건수와 무관하게 고정 3회)</b></p>
+ * <pre>
+ * 1. 지출 롤업 행 (여행 · 사용자 · 날짜 · 카테고리, TripSpendingRollupService)
+ * 2. 여행 참가자 수
+ * 3. 사용자 이름 (IN 1회)
+ * </pre>
+ *
+ * <p><b>계산 (롤업 행을 한 번만 순회)</b></p>
+ * <pre>
+ * 사용자 행   → 고유 참여자 수, 개인별 · (나 기준) 카테고리별 · 일별 합
+ * 전체 합계 행 → 개별 지출 총액, 공동경비 합 (날짜 · 카테고리별 버킷)
+ * 공동경비 버킷은 참여자 수가 정해진 뒤 1인 분담액으로 카테고리별 · 일별에 반영
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class ExpenseStatisticsEngine {
+
+    private static final Map<String, String> CATEGORY_COLORS = Map.of(
+            "식비", "#ef4444",      // red
+            "교통", "#3b82f6",      // blue
+            "숙박", "#8b5cf6",      // purple
+            "관광", "#10b981",      // green
+            "쇼핑", "#f59e0b",      // amber
+            "기타", "#6b7280"       // gray
+    );
+
+    private final TripSpendingRollupService tripSpendingRollupService;
+    private final TravelParticipantRepository travelParticipantRepository;
+    private final UserRepository userRepository;
+
+    public ExpenseStatisticsResponse compute(Long tripId, Long userId) {
+        List<TripSpendingRollupService.Row> rows = tripSpendingRollupService.getRows(tripId);
+        long memberCount = travelParticipantRepository.countByTripId(tripId);
+
+        Pass pass = new Pass(userId);
+        for (TripSpendingRollupService.Row row : rows) {
+            pass.add(row);
+        }
+        pass.distributeShared();
+
+        return pass.toResponse(memberCount, getUserNameMap(pass.userExpenses));
+    }
+
+    private Map<Long, String> getUserNameMap(LongSumAggregator userExpenses) {
+        if (userExpenses.size() == 0) {
+            return Map.of();
+        }
+        Set<Long> userIds = new HashSet<>();
+        for (long key : userExpenses.keys()) {
+            userIds.add(key);
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (UserEntity user : userRepository.findAllById(userIds)) {
+            names.put(user.getId(), user.getName());
+        }
+        return names;
+    }
+
+    /**
+     * 한 번의 순회로 누적하는 통계 상태
+     *
+     * 공동경비 1인 분담액은 지출 참여자 수(사용자 행의 고유 userId)로 나누므로
+     * 공동경비 버킷은 모아 두었다가 순회가 끝난 뒤 나눈다.
+     */
+    static final class Pass {
+
+        private final long userId;
+
+        private final LongSumAggregator userExpenses = new LongSumAggregator();
+        private final LongSumAggregator myDaily = new LongSumAggregator();
+        private final Map<String, Long> myCategories = new HashMap<>();
+        private final List<TripSpendingRollupService.Row> sharedBuckets = new ArrayList<>();
+
+        private long individualTotal;
+        private long myIndividualTotal;
+        private long sharedTotal;
+        private long participantCount;
+
+        Pass(long userId) {
+            this.userId = userId;
+        }
+
+        void add(TripSpendingRollupService.Row row) {
+            if (row.userId() == TripSpendingRollupService.TRIP_TOTAL_USER_ID) {
+                individualTotal += row.expenseAmount();
+                if (row.sharedAmount() != 0) {
+                    sharedTotal += row.sharedAmount();
+                    sharedBuckets.add(row);
+                }
+                return;
+            }
+
+            userExpenses.add(row.userId(), row.paidAmount());
+
+            if (row.userId() == userId) {
+                myIndividualTotal += row.paidAmount();
+                myCategories.merge(row.category(), row.paidAmount(), Long::sum);
+                myDaily.add(row.spendDate().toEpochDay(), row.paidAmount());
+            }
+        }
+
+        void distributeShared() {
+            participantCount = userExpenses.size();
+            if (participantCount == 0) {
+                return;
+            }
+            for (TripSpendingRollupService.Row bucket : sharedBuckets) {
+                long myShare = bucket.sharedAmount() / participantCount;
+                myCategories.merge(bucket.category(), myShare, Long::sum);
+                myDaily.add(bucket.spendDate().toEpochDay(), myShare);
+            }
+        }
+
+        ExpenseStatisticsResponse toResponse(long memberCount, Map<Long, String> userNames) {
+            long sharePerPerson = participantCount > 0 ? sharedTotal / participantCount : 0L;
+            long myTotal = myIndividualTotal + sharePerPerson;
+
+            return ExpenseStatisticsResponse.builder()
+                    .myTotalExpense(myTotal)
+                    .averagePerPerson(memberCount > 0 ? (individualTotal + sharedTotal) / memberCount : 0L)
+                    .categoryBreakdown(categoryBreakdown(myTotal))
+                    .personalBreakdown(personalBreakdown(sharePerPerson, userNames))
+                    .dailyExpenses(dailyExpenses())
+                    .build();
+        }
+
+        private List<ExpenseStatisticsResponse.CategoryBreakdown> categoryBreakdown(long myTotal) {
+            List<ExpenseStatisticsResponse.CategoryBreakdown> result = new ArrayList<>(myCategories.size());
+            for (Map.Entry<String, Long> entry : myCategories.entrySet()) {
+                double percentage = myTotal > 0
+                        ? (entry.getValue().doubleValue() / myTotal) * 100
+                        : 0.0;
+
+                result.add(ExpenseStatisticsResponse.CategoryBreakdown.builder()
+                        .category(entry.getKey())
+                        .amount(entry.getValue())
+                        .percentage(percentage)
+                        .color(CATEGORY_COLORS.getOrDefault(entry.getKey(), "#9ca3af"))
+                        .build());
+            }
+
+            // 금액 내림차순 정렬
+            result.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount()));
+            return result;
+        }
+
+        private List<ExpenseStatisticsResponse.PersonalBreakdown> personalBreakdown(
+                long sharePerPerson, Map<Long, String> userNames) {
+            // 공동경비 분담액은 모든 참여자에게 동일하게 더함
+            long totalExpense = userExpenses.total() + sharePerPerson * userExpenses.size();
+
+            List<ExpenseStatisticsResponse.PersonalBreakdown> result = new ArrayList<>(userExpenses.size());
+            for (int i = 0; i < userExpenses.size(); i++) {
+                long amount = userExpenses.valueAt(i) + sharePerPerson;
+                double percentage = totalExpense > 0
+                        ? ((double) amount / totalExpense) * 100
+                        : 0.0;
+
+                result.add(ExpenseStatisticsResponse.PersonalBreakdown.builder()
+                        .userId(userExpenses.keyAt(i))
+                        .userName(userNames.getOrDefault(userExpenses.keyAt(i), "알 수 없음"))
+                        .amount(amount)
+                        .percentage(percentage)
+                        .build());
+            }
+
+            // 금액 내림차순 정렬
+            result.sort((a, b) -> Long.compare(b.getAmount(), a.getAmount()));
+            return result;
+        }
+
+        private List<ExpenseStatisticsResponse.DailyExpense> dailyExpenses() {
+            List<ExpenseStatisticsResponse.DailyExpense> result = new ArrayList<>(myDaily.size());
+            for (int i = 0; i < myDaily.size(); i++) {
+                result.add(ExpenseStatisticsResponse.DailyExpense.builder()
+                        .date(LocalDate.ofEpochDay(myDaily.keyAt(i)).format(DateTimeFormatter.ISO_LOCAL_DATE))
+                        .amount(myDaily.valueAt(i))
+                        .build());
+            }
+
+            // 날짜 오름차순 정렬
+            result.sort(Comparator.comparing(ExpenseStatisticsResponse.DailyExpense::getDate));
+            return result;
+        }
+    }
+}
@@ -10,11 +10,13 @@ import forproject.spring_oauth2_jwt.entity.IndividualExpense;
 import forproject.spring_oauth2_jwt.entity.UserEntity;
 import forproject.spring_oauth2_jwt.enums.ExpenseType;
 import forproject.spring_oauth2_jwt.enums.SplitMethod;
+import forproject.spring_oauth2_jwt.enums.TripEventType;
 import forproject.spring_oauth2_jwt.repository.IndividualExpenseRepository;
 import forproject.spring_oauth2_jwt.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,7 +31,11 @@ public class IndividualExpenseService {
     private final IndividualExpenseRepository individualExpenseRepository;
     private final ExpenseParticipantRepository expenseParticipantRepository;
     private final UserRepository userRepository;
+    private final TripEventPublisher tripEventPublisher;
+    private final TripBalanceLedger tripBalanceLedger;
+    private final TripSpendingRollupService tripSpendingRollupService;
 
+    @Transactional
     @RequiresTripParticipant
     public IndividualExpenseResponse createPersonalExpense(
             Long tripId,
@@ -66,8 +72,11 @@ public class IndividualExpenseService {
         expense.getParticipants().add(participant);
 
         IndividualExpense saved = individualExpenseRepository.save(expense);
+        tripBalanceLedger.applyExpense(saved);
+        tripSpendingRollupService.applyExpense(saved);
 
         log.info("개인지출 등록 완료 - expenseId: {}", saved.getId());
+        tripEventPublisher.publish(tripId, TripEventType.EXPENSE_CREATED, saved.getId(), userId);
 
         Map<Long, UserEntity> userMap = getUserMap(Collections.singletonList(userId));
         return IndividualExpenseResponse.fromEntity(saved, userMap);
@@ -76,6 +85,7 @@ public class IndividualExpenseService {
     /**
      * 공유지출 등록
      */
+    @Transactional
     @RequiresTripParticipant
     public IndividualExpenseResponse createSharedExpense(
             Long tripId,
@@ -99,6 +109,20 @@ public class IndividualExpenseService {
             );
         }
 
+        // 검증: 총액과 지불액 합계 일치 여부 (어긋나면 정산 잔액 합계가 0 이 되지 않음)
+        Long totalPaidAmount = request.getParticipants().stream()
+                .mapToLong(SharedExpenseCreateRequest.ParticipantInput::getPaidAmount)
+                .sum();
+
+        if (!totalPaidAmount.equals(request.getAmount())) {
+            log.warn("공유지출 등록 실패 - 지불액 불일치: tripId={}, totalAmount={}, paidAmountSum={}",
+                    tripId, request.getAmount(), totalPaidAmount);
+            throw new IllegalArgumentException(
+                    String.format("총액(%d원)과 지불액 합계(%d원)가 일치하지 않습니다",
+                            request.getAmount(), totalPaidAmount)
+            );
+        }
+
         // 2. IndividualExpense 생성
         IndividualExpense expense = IndividualExpense.builder()
                 .tripId(tripId)
@@ -128,8 +152,11 @@ public class IndividualExpenseService {
         }
 
         IndividualExpense saved = individualExpenseRepository.save(expense);
+        tripBalanceLedger.applyExpense(saved);
+        tripSpendingRollupService.applyExpense(saved);
 
         log.info("공유지출 등록 완료 - expenseId: {}", saved.getId());
+        tripEventPublisher.publish(tripId, TripEventType.EXPENSE_CREATED, saved.getId(), userId);
 
         List<Long> userIds = request.getParticipants().stream()
                 .map(SharedExpenseCreateRequest.ParticipantInput::getUserId)
@@ -60,6 +60,7 @@ public class JoinService {
     private final BCryptPasswordEncoder bCryptPasswordEncoder;
     private final EmailVerificationCodeService emailVerificationCodeService;
     private final NotificationService notificationService;
+    private final UserPrincipalCache userPrincipalCache;
 
 
     @Transactional
@@ -94,6 +95,7 @@ public class JoinService {
 
         UserEntity savedUser = userRepository.save(user);
         log.info("✅ 사용자 저장 완료 - ID: {}, 이메일: {}", savedUser.getId(), savedUser.getEmail());
+        userPrincipalCache.evict(savedUser.getEmail());
 
         notificationService.createNotificationsForPendingInvitations(savedUser.getId(), savedUser.getEmail());
         emailVerificationCodeService.deleteVerifiedStatus(joinDTO.getEmail());
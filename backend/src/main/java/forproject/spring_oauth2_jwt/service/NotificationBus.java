@@ -0,0 +1,206 @@
+package forproject.spring_oauth2_jwt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 클러스터 알림 버스 (Redis Pub/Sub)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * SSE 연결은 특정 노드의 메모리에만 존재하므로, 알림을 저장한 노드와 사용자가 연결된 노드가 다르면
+ * 실시간 알림이 유실되었다. 알림을 한 번 Redis 채널에 발행하고, 모든 노드가 자신에게 연결된
+ * 사용자에게만 전달한다. (nginx 뒤에서 API 서버를 수평 확장하기 위한 전제)
+ * </pre>
+ *
+ * <p><b>흐름</b></p>
+ * <pre>
+ * publish:  (presence 확인) → JSON 1회 직렬화 → PUBLISH sse:notifications
+ * 수신:     모든 노드(발행 노드 포함)가 구독 → 재연결용 버퍼(SseReplayBuffer)에 기록
+ *           → 로컬 연결이 있으면 SseService 로 전달
+ * 장애:     Redis 발행 실패 시 이 노드의 로컬 연결로만 전달 (기존 단일 노드 동작)
+ * </pre>
+ *
+ * <p><b>Presence (선택)</b></p>
+ * <pre>
+ * sse:presence:{userId} 키를 연결이 있는 노드가 주기적으로 TTL 갱신
+ * 키가 없으면 어느 노드에도 연결이 없다고 보고 발행을 생략 (sse.presence.enabled=false 로 끌 수 있음)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class NotificationBus implements MessageListener {
+
+    private static final String CHANNEL = "sse:notifications";
+    private static final String PRESENCE_PREFIX = "sse:presence:";
+
+    /**
+     * KEYS[1] = sse:presence:{userId}, ARGV[1] = TTL(ms)
+     * 반환: 등록 직전 키 존재 여부 (1/0)
+     */
+    private static final RedisScript<Long> MARK_PRESENT_SCRIPT = new DefaultRedisScript<>("""
+            local existed = redis.call('EXISTS', KEYS[1])
+            redis.call('SET', KEYS[1], '1', 'PX', ARGV[1])
+            return existed
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SseService sseService;
+    private final SseReplayBuffer replayBuffer;
+    private final ObjectMapper objectMapper;
+    private final boolean presenceEnabled;
+    private final long presenceTtlMs;
+
+    public NotificationBus(StringRedisTemplate redisTemplate,
+                           RedisMessageListenerContainer listenerContainer,
+                           SseService sseService,
+                           SseReplayBuffer replayBuffer,
+                           ObjectMapper objectMapper,
+                           @Value("${sse.presence.enabled:true}") boolean presenceEnabled,
+                           @Value("${sse.presence.ttl-ms:60000}") long presenceTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.sseService = sseService;
+        this.replayBuffer = replayBuffer;
+        this.objectMapper = objectMapper;
+        this.presenceEnabled = presenceEnabled;
+        this.presenceTtlMs = presenceTtlMs;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 알림 이벤트를 클러스터 전체에 발행
+     *
+     * @return 발행(또는 로컬 전달)했으면 true, 오프라인이라 생략했으면 false
+     */
+    public boolean publish(Long userId, String eventId, String eventName, Object data) {
+        String payload;
+        try {
+            payload = data instanceof String json ? json : objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.error("❌ 알림 이벤트 직렬화 실패 - userId: {}, eventId: {}", userId, eventId, e);
+            return false;
+        }
+
+        try {
+            if (presenceEnabled && !sseService.isConnected(userId)
+                    && !Boolean.TRUE.equals(redisTemplate.hasKey(PRESENCE_PREFIX + userId))) {
+                return false;
+            }
+            String message = objectMapper.writeValueAsString(new Envelope(userId, eventId, eventName, payload));
+            redisTemplate.convertAndSend(CHANNEL, message);
+            return true;
+        } catch (Exception e) {
+            // Redis 장애 시 최소한 이 노드에 연결된 사용자에게는 전달
+            log.warn("⚠️ 알림 발행 실패 - 로컬 전달로 대체: userId={}, error={}", userId, e.getMessage());
+            deliverLocally(userId, eventId, eventName, payload);
+            return sseService.isConnected(userId);
+        }
+    }
+
+    /**
+     * SSE 연결 직후 presence 등록 (다음 갱신 주기를 기다리지 않음)
+     *
+     * @return 등록 직전에도 presence 가 살아 있었으면 true
+     *         → 그동안 오프라인이라 발행이 생략된 이벤트가 없으므로 재연결 버퍼를 신뢰할 수 있음
+     */
+    public boolean markPresent(Long userId) {
+        if (!presenceEnabled) {
+            return true;
+        }
+        try {
+            Long existed = redisTemplate.execute(
+                    MARK_PRESENT_SCRIPT,
+                    List.of(PRESENCE_PREFIX + userId),
+                    String.valueOf(presenceTtlMs));
+            return existed != null && existed == 1L;
+        } catch (Exception e) {
+            log.warn("⚠️ presence 등록 실패 - userId: {}, error: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 이 노드에 연결된 사용자의 presence TTL 갱신 (파이프라인 1회)
+     */
+    @Scheduled(fixedDelayString = "${sse.presence.refresh-ms:20000}")
+    public void refreshPresence() {
+        if (!presenceEnabled) {
+            return;
+        }
+        List<Long> userIds = sseService.getConnectedUserIds();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Long userId : userIds) {
+                    stringConnection.pSetEx(PRESENCE_PREFIX + userId, presenceTtlMs, "1");
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("⚠️ presence 갱신 실패 - 사용자 수: {}, error: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드(또는 자기 자신)가 발행한 알림 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            deliverLocally(envelope.getUserId(), envelope.getEventId(), envelope.getEventName(), envelope.getData());
+        } catch (Exception e) {
+            log.warn("잘못된 알림 이벤트 형식: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private void deliverLocally(Long userId, String eventId, String eventName, String json) {
+        // 연결 여부와 관계없이 기록 → 이 노드로 재연결해도 Last-Event-ID 이후를 재생할 수 있음
+        replayBuffer.record(userId, eventId, eventName, json);
+        if (sseService.isConnected(userId)) {
+            sseService.sendWithId(userId, eventId, eventName, json);
+        }
+    }
+
+    /**
+     * 채널 메시지 형식 (data 는 이미 직렬화된 JSON 문자열)
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Envelope {
+        private Long userId;
+        private String eventId;
+        private String eventName;
+        private String data;
+    }
+}
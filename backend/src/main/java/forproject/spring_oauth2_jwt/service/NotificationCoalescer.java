@@ -0,0 +1,244 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.entity.Notification;
+import forproject.spring_oauth2_jwt.enums.NotificationType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 알림 묶음 처리 (coalescing window)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 정산 연속 승인처럼 짧은 시간에 같은 사용자/종류/여행의 알림이 몰리면
+ * 하나씩 저장·전송하지 않고 window 동안 모았다가 "... 외 N건" 알림 1개로 저장·전송한다.
+ * → INSERT 수와 클라이언트 SSE 수신(wake-up) 횟수 감소
+ * </pre>
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - 키: (userId, type, relatedTripId). 여행이 없는 알림과 대상 타입이 아닌 알림은 바로 NotificationWriter 로 전달
+ * - 트랜잭션 안에서 호출되면 커밋 후에만 버킷에 넣음 (롤백된 알림은 모으지 않음)
+ * - 버킷이 처음 열린 뒤 window-ms 가 지나면 플러시 → 1건이면 원본 그대로, 여러 건이면 가장 최근 알림 기준으로 합침
+ * - 플러시된 버킷들은 배치 INSERT 1회로 저장 후 SSE 발행
+ * - 저장 실패 시 저장되지 않은 버킷을 다시 넣어 다음 window 에 재시도 (최대 3회, 이후 ERROR 로그 후 폐기)
+ * - 종료 시 남은 버킷 즉시 플러시 (비정상 종료 시 window 동안 모인 알림은 유실될 수 있음)
+ * </pre>
+ *
+ * <p><b>설정</b></p>
+ * <pre>
+ * notification.coalesce.window-ms  : 묶는 시간 (기본 3000, 0 이면 비활성화)
+ * notification.coalesce.types      : 묶을 알림 타입 (기본 정산 승인/거절/완료)
+ *   합친 알림의 relatedData / relatedEntityId 는 가장 최근 알림 것만 남음
+ *   → 알림마다 처리할 대상이 다른 타입은 묶으면 이전 대상으로 이동할 수 없으므로 기본 대상에서 제외
+ *     (INVITATION: 수락 토큰, SETTLEMENT_REQUEST: 승인할 정산 id)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final NotificationWriter notificationWriter;
+    private final long windowMs;
+    private final Set<NotificationType> coalescedTypes;
+
+    private final ConcurrentHashMap<Key, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder merged = new LongAdder();
+
+    public NotificationCoalescer(NotificationWriter notificationWriter,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${notification.coalesce.window-ms:3000}") long windowMs,
+                                 @Value("${notification.coalesce.types:SETTLEMENT_APPROVED,SETTLEMENT_REJECTED,SETTLEMENT_COMPLETED}")
+                                 Set<NotificationType> coalescedTypes) {
+        this.notificationWriter = notificationWriter;
+        this.windowMs = windowMs;
+        this.coalescedTypes = coalescedTypes.isEmpty()
+                ? EnumSet.noneOf(NotificationType.class)
+                : EnumSet.copyOf(coalescedTypes);
+
+        FunctionCounter.builder("notification.coalesce.merged", merged, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("notification.coalesce.pending", buckets, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * 알림 저장 요청 (묶음 대상이면 window 동안 보류)
+     */
+    public void submit(Notification notification) {
+        if (windowMs <= 0
+                || notification.getRelatedTripId() == null
+                || !coalescedTypes.contains(notification.getType())) {
+            notificationWriter.write(notification);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(notification);
+                }
+            });
+        } else {
+            enqueue(notification);
+        }
+    }
+
+    /**
+     * window 가 지난 버킷 플러시 (window 의 1/4 정도 간격이면 지연 오차가 작음)
+     */
+    @Scheduled(fixedDelayString = "${notification.coalesce.flush-interval-ms:500}")
+    public void flushDue() {
+        flush(System.currentTimeMillis() - windowMs);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(Long.MAX_VALUE);
+    }
+
+    private void enqueue(Notification notification) {
+        Key key = new Key(notification.getUserId(), notification.getType(), notification.getRelatedTripId());
+        long now = System.currentTimeMillis();
+        buckets.compute(key, (k, bucket) -> {
+            if (bucket == null) {
+                return new Bucket(notification, now);
+            }
+            bucket.add(notification);
+            return bucket;
+        });
+    }
+
+    private void flush(long openedBefore) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<Key> keys = new ArrayList<>();
+        List<Bucket> flushed = new ArrayList<>();
+        List<Notification> toWrite = new ArrayList<>();
+        for (Map.Entry<Key, Bucket> entry : buckets.entrySet()) {
+            if (entry.getValue().openedAtMs > openedBefore) {
+                continue;
+            }
+            // remove 이후 들어오는 알림은 새 버킷으로 시작
+            Bucket bucket = buckets.remove(entry.getKey());
+            if (bucket != null) {
+                keys.add(entry.getKey());
+                flushed.add(bucket);
+                toWrite.add(bucket.toNotification());
+            }
+        }
+        if (toWrite.isEmpty()) {
+            return;
+        }
+
+        try {
+            notificationWriter.writeAll(toWrite);
+        } catch (Exception e) {
+            log.error("❌ 묶음 알림 저장 실패 - 개수: {}, error: {}", toWrite.size(), e.getMessage());
+            requeue(keys, flushed, toWrite);
+            return;
+        }
+        for (Bucket bucket : flushed) {
+            if (bucket.count > 1) {
+                merged.add(bucket.count - 1);
+            }
+        }
+    }
+
+    /**
+     * 저장되지 않은 버킷(id 가 채워지지 않은 알림)을 다시 넣음
+     * 그사이 같은 키로 새 버킷이 열렸으면 건수만 합침 (최근 알림은 새 버킷 것 유지)
+     */
+    private void requeue(List<Key> keys, List<Bucket> flushed, List<Notification> written) {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < flushed.size(); i++) {
+            if (written.get(i).getId() != null) {
+                continue;
+            }
+            Bucket failed = flushed.get(i);
+            if (failed.attempts + 1 >= MAX_FLUSH_ATTEMPTS) {
+                log.error("❌ 묶음 알림 재시도 초과 - 폐기: key={}, 건수={}", keys.get(i), failed.count);
+                continue;
+            }
+            buckets.compute(keys.get(i), (k, current) -> {
+                if (current == null) {
+                    return failed.retry(now);
+                }
+                current.absorb(failed);
+                return current;
+            });
+        }
+    }
+
+    private record Key(Long userId, NotificationType type, Long tripId) {
+    }
+
+    /**
+     * 같은 키로 모인 알림 (compute 안에서만 변경)
+     */
+    private static final class Bucket {
+        private final long openedAtMs;
+        private Notification latest;
+        private int count;
+        // 저장 실패로 다시 넣은 횟수
+        private int attempts;
+
+        private Bucket(Notification first, long openedAtMs) {
+            this.openedAtMs = openedAtMs;
+            this.latest = first;
+            this.count = 1;
+        }
+
+        void add(Notification notification) {
+            latest = notification;
+            count++;
+        }
+
+        Bucket retry(long now) {
+            Bucket bucket = new Bucket(latest, now);
+            bucket.count = count;
+            bucket.attempts = attempts + 1;
+            return bucket;
+        }
+
+        void absorb(Bucket failed) {
+            count += failed.count;
+            attempts = Math.max(attempts, failed.attempts + 1);
+        }
+
+        Notification toNotification() {
+            if (count == 1) {
+                return latest;
+            }
+            return Notification.builder()
+                    .userId(latest.getUserId())
+                    .type(latest.getType())
+                    .title(latest.getTitle())
+                    .content(latest.getContent() + " 외 " + (count - 1) + "건")
+                    .relatedData(latest.getRelatedData())
+                    .relatedTripId(latest.getRelatedTripId())
+                    .relatedEntityId(latest.getRelatedEntityId())
+                    .isRead(false)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package forproject.spring_oauth2_jwt.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 읽은 알림 보관 기간 정리
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - 읽은 지 오래된 알림(created_at 기준 notification.retention.read-days, 기본 30일)을 삭제
+ * - 한 번에 batch-size(기본 500)건씩 DELETE ... LIMIT 로 나눠 실행
+ *   → 짧은 트랜잭션(auto-commit)만 사용해서 락/복제 지연을 길게 만들지 않음
+ * - 배치 사이 batch-pause-ms 만큼 쉬고, 1회 실행당 max-batches 까지만 처리 (나머지는 다음 실행)
+ * - 읽지 않은 알림은 삭제하지 않으므로 읽지 않은 알림 카운터에는 영향 없음
+ * </pre>
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    private static final String DELETE_SQL =
+            "DELETE FROM notification WHERE is_read = true AND created_at < ? ORDER BY created_at LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int readDays;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatches;
+
+    public NotificationRetentionService(JdbcTemplate jdbcTemplate,
+                                        @Value("${notification.retention.read-days:30}") int readDays,
+                                        @Value("${notification.retention.batch-size:500}") int batchSize,
+                                        @Value("${notification.retention.batch-pause-ms:100}") long batchPauseMs,
+                                        @Value("${notification.retention.max-batches:1000}") int maxBatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readDays = readDays;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * 보관 기간이 지난 읽은 알림 삭제
+     *
+     * @return 삭제된 알림 수
+     */
+    public long purgeReadNotifications() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(readDays));
+        long total = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = jdbcTemplate.update(DELETE_SQL, cutoff, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+
+        log.info("🗑️ 읽은 알림 정리 완료 - 기준: {}일 이전, 삭제: {}개", readDays, total);
+        return total;
+    }
+
+    private boolean pause() {
+        if (batchPauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
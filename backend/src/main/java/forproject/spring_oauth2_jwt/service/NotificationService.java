@@ -1,5 +1,6 @@
 package forproject.spring_oauth2_jwt.service;
 
+import forproject.spring_oauth2_jwt.dto.response.NotificationPageResponse;
 import forproject.spring_oauth2_jwt.dto.response.NotificationResponse;
 import forproject.spring_oauth2_jwt.entity.Notification;
 import forproject.spring_oauth2_jwt.entity.TravelInvitation;
@@ -14,10 +15,14 @@ import forproject.spring_oauth2_jwt.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,121 +33,185 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final SseService sseService;
+    private final NotificationCoalescer notificationCoalescer;
+    private final UnreadNotificationCounter unreadCounter;
     private final TravelPlanRepository travelPlanRepository;
     private final TravelInvitationRepository travelInvitationRepository;
     private final UserRepository userRepository;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     /**
-     * 알림 생성 및 실시간 전송(sendRealTime 호출)
+     * 알림 생성 및 실시간 전송
+     *
+     * 호출한 쪽의 트랜잭션에 묶여서 커밋 직전에 배치 INSERT 되고, 커밋 후에만 SSE 로 발행된다.
+     * (롤백되면 저장/전송 모두 없음) - NotificationWriter 참고
+     * 같은 사용자/종류/여행의 알림이 몰리면 짧은 window 동안 모아 1건으로 저장한다 - NotificationCoalescer 참고
      */
     @Transactional
     public void createAndSend(Long userId, NotificationType type,
                               String title, String content, String relatedData) {
+        createAndSend(userId, type, title, content, relatedData, null, null);
+    }
+
+    /**
+     * 알림 생성 및 실시간 전송 (관련 여행/엔티티 ID 를 구조화된 컬럼으로 함께 저장)
+     */
+    @Transactional
+    public void createAndSend(Long userId, NotificationType type,
+                              String title, String content, String relatedData,
+                              Long relatedTripId, Long relatedEntityId) {
 
-        // 1. DB에 알림 저장
         Notification notification = Notification.builder()
                 .userId(userId)
                 .type(type)
                 .title(title)
                 .content(content)
                 .relatedData(relatedData)
+                .relatedTripId(relatedTripId)
+                .relatedEntityId(relatedEntityId)
                 .isRead(false)
                 .build();
 
-        Notification saved = notificationRepository.save(notification);
-        log.info("✅ 알림 DB 저장 완료 - userId: {}, notificationId: {}, type: {}",
-                userId, saved.getId(), type);
-
-        // 2. SSE 연결 확인 후 실시간 전송
-        sendRealtime(saved);
-    }
-
-    public void sendRealtime(Notification notification) {
-        if (sseService.isConnected(notification.getUserId())) {
-            String eventId =  "notif-" + notification.getId();
-            // DTO로 변환해서 전송
-            NotificationResponse dto = NotificationResponse.fromEntity(notification);
-            sseService.sendWithId(
-                    notification.getUserId(),
-                    eventId,
-                    notification.getType().name().toLowerCase(),
-                    dto
-            );
-            log.info("실시간 SSE 전송 완료 - userId: {}, notificationId: {}", notification.getUserId(), notification.getId());
-        }else {
-            log.info("⏳ 사용자 오프라인 - 로그인 시 전송 예정 - userId: {}",
-                    notification.getUserId());
-        }
+        notificationCoalescer.submit(notification);
+        log.info("📝 알림 저장 예약 - userId: {}, type: {}", userId, type);
     }
 
     /**
-     * 읽지 않은 알림 목록 조회 (DTO 반환)
+     * 읽지 않은 알림 목록 조회 (DTO 반환, 최신 size 개)
      * OSIV=false 환경에서 안전하게 사용 가능
      */
     @Transactional
-    public List<NotificationResponse> getUnreadNotifications(Long userId) {
-        List<Notification> notifications = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
-        return notifications.stream()
-                .map(NotificationResponse::fromEntity)
-                .collect(Collectors.toList());
+    public List<NotificationResponse> getUnreadNotifications(Long userId, int size) {
+        return getNotifications(userId, null, size, true).getNotifications();
     }
 
     /**
-     * 알림 읽음 처리
-     * @param id
+     * 알림 목록 조회 (keyset 커서 페이지네이션)
+     *
+     * OFFSET 없이 마지막 항목의 (createdAt, id) 이후만 조회하므로 페이지가 깊어져도 비용이 일정하다.
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param unreadOnly true 면 읽지 않은 알림만
      */
     @Transactional
-    public void markAsRead(Long id){
-        Notification byId = notificationRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("not found"));
-        byId.setRead(true);
-        byId.setReadAt(LocalDateTime.now());
+    public NotificationPageResponse getNotifications(Long userId, String cursor, int size, boolean unreadOnly) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // 다음 페이지 존재 여부 확인용으로 1개 더 조회
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Notification> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadFirstPage(userId, limit)
+                    : notificationRepository.findFirstPage(userId, limit);
+        } else {
+            Cursor decoded = Cursor.decode(cursor);
+            rows = unreadOnly
+                    ? notificationRepository.findUnreadPageAfter(userId, decoded.createdAt(), decoded.id(), limit)
+                    : notificationRepository.findPageAfter(userId, decoded.createdAt(), decoded.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Notification> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
+        return NotificationPageResponse.builder()
+                .notifications(page.stream()
+                        .map(NotificationResponse::fromEntity)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * 알림 1건 읽음 처리 (본인 알림만)
+     * 조건부 UPDATE 1회 → 동시 요청이 겹쳐도 카운터는 실제로 바뀐 행 수만큼만 차감
+     * @return 새로 읽음 처리됐으면 true (이미 읽음 / 다른 사용자 알림 / 없음이면 false)
+     */
+    @Transactional
+    public boolean markAsRead(Long userId, Long id) {
+        return markAsRead(userId, List.of(id)) > 0;
     }
 
     /**
-     * 읽지 않은 알림 개수
+     * 읽지 않은 알림 개수 (Redis 카운터, 최초 1회만 DB 조회)
      * @param userId
      * @return
      */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
 
     /**
-     * 특정 relatedData의 알림을 읽음 처리
+     * 특정 여행 + 대상 엔티티(초대 id 등)와 연결된 알림을 읽음 처리 (UPDATE 1회)
+     * @return 새로 읽음 처리된 개수
      */
     @Transactional
-    public void markAsReadByRelatedData(Long userId, String relatedData) {
-        List<Notification> notifications = notificationRepository
-                .findByUserIdAndRelatedData(userId, relatedData);
+    public int markAsReadByRelatedEntity(Long userId, Long relatedTripId, Long relatedEntityId) {
+        int updated = notificationRepository.markAsReadByRelatedEntity(
+                userId, relatedTripId, relatedEntityId, LocalDateTime.now());
+        unreadCounter.adjustAfterCommit(userId, -updated);
 
-        for (Notification notification : notifications) {
-            notification.setRead(true);
-            notification.setReadAt(LocalDateTime.now());
+        if (updated > 0) {
+            log.info("✅ 관련 알림 읽음 처리 완료 - userId: {}, tripId: {}, entityId: {}, 개수: {}",
+                    userId, relatedTripId, relatedEntityId, updated);
         }
+        return updated;
+    }
 
-        if (!notifications.isEmpty()) {
-            log.info("✅ 관련 알림 읽음 처리 완료 - userId: {}, relatedData: {}, 개수: {}",
-                    userId, relatedData, notifications.size());
+    /**
+     * 지정한 알림 일괄 읽음 처리 (본인 알림만, UPDATE 1회)
+     * @return 새로 읽음 처리된 개수
+     */
+    @Transactional
+    public int markAsRead(Long userId, List<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
         }
+        int updated = notificationRepository.markAsReadByIds(userId, notificationIds, LocalDateTime.now());
+        unreadCounter.adjustAfterCommit(userId, -updated);
+
+        log.info("✅ 알림 일괄 읽음 처리 - userId: {}, 요청: {}, 처리: {}", userId, notificationIds.size(), updated);
+        return updated;
     }
 
     /**
-     * 읽지 않은 알림을 비동기로 SSE 전송
+     * 사용자의 모든 알림 읽음 처리 (UPDATE 1회)
+     * @return 새로 읽음 처리된 개수
+     */
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int updated = notificationRepository.markAllAsRead(userId, LocalDateTime.now());
+        // 카운터를 0 으로 덮어쓰지 않고 차감 → UPDATE 이후 커밋된 새 알림은 그대로 남음
+        unreadCounter.adjustAfterCommit(userId, -updated);
+
+        log.info("✅ 모든 알림 읽음 처리 - userId: {}, 개수: {}", userId, updated);
+        return updated;
+    }
+
+
+    /**
+     * 읽지 않은 알림을 해당 연결에만 SSE 전송 (최신 limit 건)
+     * SseBacklogDispatcher 가 노드 단위 속도 제한을 걸어 호출한다.
      * OSIV=false 환경에서 안전하게 사용 가능 (DTO 변환)
      */
     @Transactional
-    @Async("sseTaskExecutor")
-    public void sendUnreadNotificationsAsync(Long userId) {
-        List<Notification> list = notificationRepository.findByUserIdAndIsReadFalseOrderByCreatedAtDesc(userId);
+    public void sendUnreadNotifications(Long userId, SseEmitter emitter, int limit) {
+        List<Notification> list = notificationRepository.findUnreadFirstPage(userId, PageRequest.of(0, limit));
 
         for (Notification n : list) {
             // DTO로 변환해서 전송 (Lazy Loading 방지)
             NotificationResponse dto = NotificationResponse.fromEntity(n);
-            sseService.sendWithId(
+            sseService.sendToEmitter(
                     userId,
+                    emitter,
                     "notif-" + n.getId(),
                     n.getType().name().toLowerCase(),
                     dto
@@ -150,6 +219,26 @@ public class NotificationService {
         }
     }
 
+    /**
+     * 재연결 시 Last-Event-ID 이후 놓친 알림을 해당 연결에만 재전송 (메모리 버퍼로 메울 수 없을 때의 DB 대체 경로, 최대 limit 건)
+     */
+    @Transactional
+    public void replayMissedNotifications(Long userId, SseEmitter emitter, Long lastNotificationId, int limit) {
+        List<Notification> missed = notificationRepository
+                .findByUserIdAndIdGreaterThanOrderByCreatedAtAsc(userId, lastNotificationId, PageRequest.of(0, limit));
+
+        for (Notification n : missed) {
+            sseService.sendToEmitter(
+                    userId,
+                    emitter,
+                    "notif-" + n.getId(),
+                    n.getType().name().toLowerCase(),
+                    NotificationResponse.fromEntity(n)
+            );
+        }
+        log.info("🔁 놓친 알림 DB 재전송 - userId: {}, lastId: {}, 개수: {}", userId, lastNotificationId, missed.size());
+    }
+
     /**
      * 비회원이 가입한 후 pending 초대에 대한 알림 일괄 생성
      * @param userId 가입한 사용자 ID
@@ -192,7 +281,9 @@ public class NotificationService {
                             "여행 초대",
                             String.format("%s님이 '%s' 여행에 초대했습니다.",
                                     inviter.getName(), trip.getTitle()),
-                            invitation.getToken()
+                            invitation.getToken(),
+                            invitation.getTripId(),
+                            invitation.getId()
                     );
 
                     log.info("✅ 가입 후 알림 생성 완료 - invitationId: {}, tripId: {}",
@@ -209,4 +300,26 @@ public class NotificationService {
         log.info("🎉 가입 후 초대 알림 생성 완료 - 생성된 알림 수: {}", pendingInvitations.size());
     }
 
+    /**
+     * keyset 커서 ("createdAt|id" 를 URL-safe Base64 로 인코딩)
+     */
+    private record Cursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new Cursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+    }
 }
@@ -0,0 +1,218 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.dto.response.NotificationResponse;
+import forproject.spring_oauth2_jwt.entity.Notification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 알림 저장 파이프라인 (트랜잭션 단위 배치 INSERT + 커밋 후 SSE 전송)
+ *
+ * <p><b>흐름</b></p>
+ * <pre>
+ * 트랜잭션 안:
+ *   write()       → 트랜잭션에 묶인 버퍼에 추가만 함 (DB/네트워크 I/O 없음)
+ *   beforeCommit  → 버퍼 전체를 JDBC 배치 INSERT 1회로 저장 (같은 트랜잭션/커넥션)
+ *   afterCommit   → 읽지 않은 알림 카운터 증가 후 전용 풀(notificationDispatchExecutor)에서 SSE 발행
+ *   롤백          → 버퍼 폐기 (INSERT 도 함께 롤백되므로 알림이 새지 않음)
+ *
+ * 트랜잭션 밖:
+ *   write()       → 즉시 INSERT, 카운터 증가 후 전용 풀에서 SSE 발행
+ * </pre>
+ *
+ * 배치 INSERT 가 실제로 왕복 1회가 되려면 드라이버 속성 rewriteBatchedStatements=true 가 필요
+ * (없으면 MySQL 드라이버가 행마다 INSERT 를 따로 보냄)
+ * docker-compose.yml / docker-compose.dev.yml 은 JDBC URL, docker-compose.prod.yml 은 Hikari 데이터소스 속성으로 지정
+ */
+@Slf4j
+@Component
+public class NotificationWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification (user_id, type, title, content, related_data, "
+                    + "related_trip_id, related_entity_id, is_read, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationBus notificationBus;
+    private final UnreadNotificationCounter unreadCounter;
+    private final Executor dispatchExecutor;
+
+    public NotificationWriter(JdbcTemplate jdbcTemplate,
+                              NotificationBus notificationBus,
+                              UnreadNotificationCounter unreadCounter,
+                              @Qualifier("notificationDispatchExecutor") Executor dispatchExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationBus = notificationBus;
+        this.unreadCounter = unreadCounter;
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    /**
+     * 알림 저장 요청 (트랜잭션 중이면 커밋 직전에 한꺼번에 저장)
+     */
+    public void write(Notification notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Notification> single = List.of(notification);
+            insertBatch(single);
+            countUnread(single);
+            dispatch(single);
+            return;
+        }
+
+        PendingNotifications pending =
+                (PendingNotifications) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingNotifications();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.notifications.add(notification);
+    }
+
+    /**
+     * 트랜잭션 밖에서 여러 알림을 배치 INSERT 1회로 저장하고 발행 (NotificationCoalescer 플러시용)
+     */
+    public void writeAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        insertBatch(notifications);
+        countUnread(notifications);
+        dispatch(notifications);
+    }
+
+    private void insertBatch(List<Notification> notifications) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Notification n = notifications.get(i);
+                        ps.setLong(1, n.getUserId());
+                        ps.setString(2, n.getType().name());
+                        ps.setString(3, n.getTitle());
+                        ps.setString(4, n.getContent());
+                        ps.setString(5, n.getRelatedData());
+                        ps.setObject(6, n.getRelatedTripId(), Types.BIGINT);
+                        ps.setObject(7, n.getRelatedEntityId(), Types.BIGINT);
+                        ps.setBoolean(8, n.isRead());
+                        ps.setTimestamp(9, createdAt);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return notifications.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification n = notifications.get(i);
+            n.setCreatedAt(now);
+            if (i < keys.size()) {
+                Object id = keys.get(i).values().stream().findFirst().orElse(null);
+                if (id instanceof Number number) {
+                    n.setId(number.longValue());
+                }
+            }
+        }
+        log.info("✅ 알림 배치 저장 완료 - 개수: {}", notifications.size());
+    }
+
+    /**
+     * 저장된 읽지 않은 알림 수만큼 사용자별 카운터 증가 (SSE 수신 후 개수 조회가 바로 맞도록 발행 전에 반영)
+     */
+    private void countUnread(List<Notification> notifications) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (notification.getId() != null && !notification.isRead()) {
+                deltas.merge(notification.getUserId(), 1L, Long::sum);
+            }
+        }
+        unreadCounter.adjust(deltas);
+    }
+
+    private void dispatch(List<Notification> notifications) {
+        try {
+            dispatchExecutor.execute(() -> {
+                for (Notification notification : notifications) {
+                    if (notification.getId() == null) {
+                        continue;
+                    }
+                    try {
+                        notificationBus.publish(
+                                notification.getUserId(),
+                                "notif-" + notification.getId(),
+                                notification.getType().name().toLowerCase(),
+                                NotificationResponse.fromEntity(notification)
+                        );
+                    } catch (Exception e) {
+                        log.error("❌ 알림 실시간 발행 실패 - notificationId: {}, error: {}",
+                                notification.getId(), e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 실시간 전송만 생략 (알림은 이미 저장됨 → 재연결/조회 시 전달)
+            log.warn("⚠️ 알림 발행 풀 포화 - 실시간 전송 생략: 개수={}", notifications.size());
+        }
+    }
+
+    /**
+     * 트랜잭션에 묶인 알림 버퍼
+     */
+    private final class PendingNotifications implements TransactionSynchronization {
+        private final List<Notification> notifications = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!notifications.isEmpty()) {
+                insertBatch(notifications);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!notifications.isEmpty()) {
+                List<Notification> saved = List.copyOf(notifications);
+                countUnread(saved);
+                dispatch(saved);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(NotificationWriter.this);
+            if (status != STATUS_COMMITTED && !notifications.isEmpty()) {
+                log.info("↩️ 트랜잭션 롤백 - 알림 폐기: 개수={}", notifications.size());
+            }
+        }
+    }
+}
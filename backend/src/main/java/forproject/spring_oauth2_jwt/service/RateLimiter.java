@@ -0,0 +1,214 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Redis 슬라이딩 윈도우 요청 제한기 (+ 노드 로컬 허용량 캐시)
+ *
+ * <p><b>Redis 구조</b></p>
+ * <pre>
+ * 키: ratelimit:{route}:{key} (ZSET, score = 요청 시각 ms)
+ * Lua 스크립트 1회로 [윈도우 밖 항목 제거 → 개수 확인 → 허용량 기록 → TTL 갱신] 을 원자적으로 처리
+ * 시각은 Redis TIME 을 사용하므로 노드 간 시계 차이와 무관
+ * </pre>
+ *
+ * <p><b>로컬 허용량 캐시 (near-cache)</b></p>
+ * <pre>
+ * 한 번의 스크립트 호출로 최대 batch 개의 허용량을 미리 받아 두고, 이후 요청은 메모리에서 차감한다.
+ * - batch = limit / 20 (최대 50). 한도가 작은 라우트(예: 5회/시간)는 batch = 1 → 항상 Redis 에서 정확히 판정
+ * - 미리 받은 허용량은 최대 1초만 유효 (사용하지 못하고 버린 양은 보수적으로 소진된 것으로 남음)
+ * - 거절된 키는 Retry-After 시각까지 Redis 를 다시 호출하지 않고 로컬에서 바로 거절
+ * </pre>
+ *
+ * <p><b>장애 시</b></p>
+ * <pre>
+ * Redis 호출 실패 시 요청을 막지 않는다 (fail-open, WARN 로그)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private static final String KEY_PREFIX = "ratelimit:";
+    private static final long LEASE_MS = 1_000L;
+    private static final int MAX_BATCH = 50;
+
+    /**
+     * KEYS[1] = ratelimit:{route}:{key}
+     * ARGV[1] = windowMs, ARGV[2] = limit, ARGV[3] = 요청 허용량, ARGV[4] = 멤버 접두사(호출마다 고유)
+     * 반환: {허용된 개수, 거절 시 재시도까지 남은 ms}
+     */
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+            local window = tonumber(ARGV[1])
+            local limit = tonumber(ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+            local count = redis.call('ZCARD', KEYS[1])
+            local granted = math.min(tonumber(ARGV[3]), limit - count)
+            if granted > 0 then
+                for i = 1, granted do
+                    redis.call('ZADD', KEYS[1], now, ARGV[4] .. ':' .. i)
+                end
+                redis.call('PEXPIRE', KEYS[1], window)
+                return {granted, 0}
+            end
+            local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+            local retry = window
+            if oldest[2] then
+                retry = tonumber(oldest[2]) + window - now
+            end
+            return {0, retry}
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // route:key → 로컬 허용량 (또는 거절 상태), 가득 차면 로컬 캐싱만 생략 (다음 요청은 Redis 에서 판정)
+    private final BoundedTtlCache<String, Lease> leases;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder redisCalls = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public RateLimiter(StringRedisTemplate redisTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${rate-limit.local.max-entries:50000}") int maxLocalEntries) {
+        this.redisTemplate = redisTemplate;
+        this.leases = new BoundedTtlCache<>(maxLocalEntries, lease -> lease.expiresAtMs);
+
+        FunctionCounter.builder("rate.limit.local.hits", localHits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("rate.limit.redis.calls", redisCalls, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("rate.limit.rejections", rejections, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("rate.limit.local.size", leases, BoundedTtlCache::size).register(meterRegistry);
+    }
+
+    /**
+     * 요청 1건에 대한 허용 여부 판정
+     *
+     * @param route    라우트 이름
+     * @param key      카운트 기준 값 (IP, 이메일, userId)
+     * @param limit    윈도우 내 최대 요청 수
+     * @param windowMs 윈도우 길이 (ms)
+     */
+    public Decision tryAcquire(String route, String key, int limit, long windowMs) {
+        String leaseKey = route + ":" + key;
+        long now = System.currentTimeMillis();
+
+        Lease lease = leases.get(leaseKey, now);
+        if (lease != null) {
+            if (lease.denied) {
+                localHits.increment();
+                rejections.increment();
+                return Decision.rejected(lease.expiresAtMs - now);
+            }
+            if (lease.permits.getAndDecrement() > 0) {
+                localHits.increment();
+                return Decision.ALLOWED;
+            }
+        }
+
+        int batch = Math.max(1, Math.min(limit / 20, MAX_BATCH));
+        List<?> reply;
+        try {
+            redisCalls.increment();
+            reply = redisTemplate.execute(
+                    ACQUIRE_SCRIPT,
+                    List.of(KEY_PREFIX + leaseKey),
+                    String.valueOf(windowMs),
+                    String.valueOf(limit),
+                    String.valueOf(batch),
+                    UUID.randomUUID().toString());
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Rate Limit Redis 호출 실패 - 요청 허용: route={}, error={}", route, e.getMessage());
+            return Decision.ALLOWED;
+        }
+
+        long granted = ((Number) reply.get(0)).longValue();
+        if (granted > 0) {
+            if (granted > 1) {
+                leases.put(leaseKey, Lease.permits((int) granted - 1, now + Math.min(LEASE_MS, windowMs)), now);
+            } else {
+                leases.remove(leaseKey);
+            }
+            return Decision.ALLOWED;
+        }
+
+        long retryAfterMs = Math.max(1L, ((Number) reply.get(1)).longValue());
+        leases.put(leaseKey, Lease.denied(now + retryAfterMs), now);
+        rejections.increment();
+        log.info("🚫 Rate Limit 초과: route={}, key={}, limit={}/{}ms, retryAfter={}ms",
+                route, key, limit, windowMs, retryAfterMs);
+        return Decision.rejected(retryAfterMs);
+    }
+
+    /**
+     * 만료된 로컬 항목 주기적 정리 (10초)
+     */
+    @Scheduled(fixedDelay = 10_000L)
+    public void evictExpired() {
+        leases.sweep(System.currentTimeMillis());
+    }
+
+    private static final class Lease {
+        private final AtomicInteger permits;
+        private final boolean denied;
+        private final long expiresAtMs;
+
+        private Lease(int permits, boolean denied, long expiresAtMs) {
+            this.permits = new AtomicInteger(permits);
+            this.denied = denied;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        static Lease permits(int permits, long expiresAtMs) {
+            return new Lease(permits, false, expiresAtMs);
+        }
+
+        static Lease denied(long expiresAtMs) {
+            return new Lease(0, true, expiresAtMs);
+        }
+    }
+
+    /**
+     * 판정 결과
+     */
+    @Getter
+    public static final class Decision {
+        private static final Decision ALLOWED = new Decision(true, 0L);
+
+        private final boolean allowed;
+        private final long retryAfterMs;
+
+        private Decision(boolean allowed, long retryAfterMs) {
+            this.allowed = allowed;
+            this.retryAfterMs = retryAfterMs;
+        }
+
+        static Decision rejected(long retryAfterMs) {
+            return new Decision(false, retryAfterMs);
+        }
+
+        /**
+         * Retry-After 헤더 값 (초, 올림)
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1L, (retryAfterMs + 999) / 1000);
+        }
+    }
+}
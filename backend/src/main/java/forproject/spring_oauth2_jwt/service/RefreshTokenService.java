@@ -1,49 +1,316 @@
 package forproject.spring_oauth2_jwt.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.dto.response.SessionResponse;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Refresh 토큰 세션 저장소 (Redis)
+ *
+ * <p><b>저장 구조</b></p>
+ * <pre>
+ * refresh:sessions:{email}  (Hash, 기기/세션 단위)
+ *   field = sessionId (= 토큰 패밀리 ID, 로그인 1회마다 새로 발급)
+ *   value = JSON { t: 현재 토큰, p: 직전 토큰, r: 회전 시각, u: 마지막 사용 시각,
+ *                  e: 만료 시각, c: 로그인 시각, d: 기기 정보(User-Agent) }
+ * </pre>
+ *
+ * <p><b>세션 수 제한</b></p>
+ * <pre>
+ * 사용자당 최대 세션 수를 넘으면 마지막 사용 시각이 가장 오래된 세션을 제거 (LRU)
+ * → 두 번째 기기 로그인이 첫 번째 기기를 로그아웃시키지 않음
+ * </pre>
+ *
+ * <p><b>회전 규칙 (Lua 스크립트 1회 = Redis 왕복 1회)</b></p>
+ * <pre>
+ * - 제출된 토큰 == 현재 토큰 → 새 토큰으로 교체 (ROTATED)
+ * - 제출된 토큰 == 직전 토큰, 유예 시간 이내 → 이미 회전된 현재 토큰을 돌려줌 (GRACE, 여러 탭 동시 요청)
+ * - 같은 세션의 그 외 토큰 → 재사용(탈취) 의심, 해당 세션(패밀리) 폐기 (REUSED)
+ * - 세션 없음 / 만료 → INVALID
+ * </pre>
+ */
 @Slf4j
 @Component
 public class RefreshTokenService {
 
+    private static final String KEY_PREFIX = "refresh:sessions:";
+
+    /**
+     * KEYS[1] = refresh:sessions:{email}
+     * ARGV[1] = sessionId, ARGV[2] = token, ARGV[3] = ttlMs, ARGV[4] = nowMs,
+     * ARGV[5] = 최대 세션 수, ARGV[6] = 기기 정보
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[4])
+            local ttl = tonumber(ARGV[3])
+            local all = redis.call('HGETALL', KEYS[1])
+            local count = 0
+            local oldestSid = nil
+            local oldestUsed = nil
+            for i = 1, #all, 2 do
+                local s = cjson.decode(all[i + 1])
+                if s.e <= now then
+                    redis.call('HDEL', KEYS[1], all[i])
+                else
+                    count = count + 1
+                    if oldestUsed == nil or s.u < oldestUsed then
+                        oldestUsed = s.u
+                        oldestSid = all[i]
+                    end
+                end
+            end
+            local evicted = 0
+            if count >= tonumber(ARGV[5]) and oldestSid ~= nil then
+                redis.call('HDEL', KEYS[1], oldestSid)
+                evicted = 1
+            end
+            redis.call('HSET', KEYS[1], ARGV[1],
+                cjson.encode({ t = ARGV[2], r = now, u = now, e = now + ttl, c = now, d = ARGV[6] }))
+            redis.call('PEXPIRE', KEYS[1], ttl)
+            return evicted
+            """, Long.class);
+
+    /**
+     * KEYS[1] = refresh:sessions:{email}
+     * ARGV[1] = sessionId, ARGV[2] = 제출된 토큰, ARGV[3] = 새 토큰,
+     * ARGV[4] = ttlMs, ARGV[5] = nowMs, ARGV[6] = 유예 시간(ms)
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local raw = redis.call('HGET', KEYS[1], ARGV[1])
+            if not raw then
+                return {'INVALID'}
+            end
+            local s = cjson.decode(raw)
+            local now = tonumber(ARGV[5])
+            if s.e <= now then
+                redis.call('HDEL', KEYS[1], ARGV[1])
+                return {'INVALID'}
+            end
+            if s.t == ARGV[2] then
+                s.p = s.t
+                s.t = ARGV[3]
+                s.r = now
+                s.u = now
+                s.e = now + tonumber(ARGV[4])
+                redis.call('HSET', KEYS[1], ARGV[1], cjson.encode(s))
+                redis.call('PEXPIRE', KEYS[1], ARGV[4])
+                return {'ROTATED', ARGV[3]}
+            end
+            if s.p == ARGV[2] and now - s.r <= tonumber(ARGV[6]) then
+                return {'GRACE', s.t}
+            end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            return {'REUSED'}
+            """, List.class);
+
+    /**
+     * 제출된 토큰이 세션의 현재 토큰과 일치하는지 확인하고, remove=1 이면 일치 시 세션 삭제
+     * KEYS[1] = refresh:sessions:{email}
+     * ARGV[1] = sessionId, ARGV[2] = 제출된 토큰, ARGV[3] = remove(0/1), ARGV[4] = nowMs
+     */
+    private static final RedisScript<Long> MATCH_SCRIPT = new DefaultRedisScript<>("""
+            local raw = redis.call('HGET', KEYS[1], ARGV[1])
+            if not raw then
+                return 0
+            end
+            local s = cjson.decode(raw)
+            if s.t ~= ARGV[2] or s.e <= tonumber(ARGV[4]) then
+                return 0
+            end
+            if ARGV[3] == '1' then
+                redis.call('HDEL', KEYS[1], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    private static final int MAX_DEVICE_LENGTH = 120;
+
     @Autowired
     private StringRedisTemplate redisTemplate;
 
-    // Refresh 토큰 저장
-    public void save(String username, String refreshToken, long expireMs) {
-        redisTemplate.opsForValue().set(
-                "refresh:" + username,
-                refreshToken,
-                expireMs,
-                TimeUnit.MILLISECONDS
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // 여러 탭이 같은 Refresh 토큰으로 동시에 재발급을 요청할 때 허용하는 시간
+    @Value("${jwt.refresh-token.reuse-grace-ms:10000}")
+    private long reuseGraceMs;
+
+    // 사용자당 동시에 유지할 수 있는 세션(기기) 수
+    @Value("${jwt.refresh-token.max-sessions:5}")
+    private int maxSessions;
+
+    /**
+     * 새 세션 등록 (로그인 시)
+     * 세션 수가 가득 차 있으면 가장 오래 사용되지 않은 세션을 제거
+     */
+    public void save(String username, String sessionId, String refreshToken, long expireMs, String device) {
+        Long evicted = redisTemplate.execute(
+                SAVE_SCRIPT,
+                List.of(KEY_PREFIX + username),
+                sessionId, refreshToken, String.valueOf(expireMs),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(maxSessions),
+                truncateDevice(device)
+        );
+        if (evicted != null && evicted > 0) {
+            log.info("세션 수 초과 - 가장 오래된 세션 제거: user={}", username);
+        }
+    }
+
+    /**
+     * 제출된 Refresh 토큰을 새 토큰으로 원자적으로 교체 (compare-and-rotate)
+     */
+    @SuppressWarnings("unchecked")
+    public RotationResult rotate(String username, String sessionId, String presentedToken, String newToken, long expireMs) {
+        if (sessionId == null) {
+            // 세션(패밀리) 도입 이전에 발급된 토큰 → 재로그인 필요
+            return RotationResult.of(RotationStatus.INVALID, null);
+        }
+
+        List<String> reply = redisTemplate.execute(
+                ROTATE_SCRIPT,
+                List.of(KEY_PREFIX + username),
+                sessionId, presentedToken, newToken,
+                String.valueOf(expireMs),
+                String.valueOf(System.currentTimeMillis()),
+                String.valueOf(reuseGraceMs)
         );
+
+        RotationStatus status = RotationStatus.valueOf(reply.get(0));
+        if (status == RotationStatus.REUSED) {
+            log.warn("🚨 Refresh 토큰 재사용 감지 - 세션 폐기: user={}, sessionId={}", username, sessionId);
+        }
+        return RotationResult.of(status, reply.size() > 1 ? reply.get(1) : null);
     }
 
     // 저장된 토큰과 비교 (검증)
-    public boolean isValid(String refreshToken, String username) {
-        String key = "refresh:" + username;
-        String savedToken = redisTemplate.opsForValue().get(key);
+    public boolean isValid(String refreshToken, String username, String sessionId) {
+        return match(username, sessionId, refreshToken, false);
+    }
+
+    /**
+     * 로그아웃: 토큰이 일치할 때만 해당 세션 삭제 (검증 + 삭제를 한 번의 왕복으로)
+     *
+     * @return 일치해서 삭제했으면 true
+     */
+    public boolean revokeIfMatches(String username, String sessionId, String refreshToken) {
+        return match(username, sessionId, refreshToken, true);
+    }
+
+    /**
+     * 특정 세션 강제 종료
+     *
+     * @return 세션이 존재해서 삭제했으면 true
+     */
+    public boolean revokeSession(String username, String sessionId) {
+        Long removed = redisTemplate.opsForHash().delete(KEY_PREFIX + username, sessionId);
+        return removed != null && removed > 0;
+    }
+
+    /**
+     * 모든 기기에서 로그아웃
+     */
+    public void revokeAll(String username) {
+        redisTemplate.delete(KEY_PREFIX + username);
+    }
+
+    /**
+     * 활성 세션 목록 (최근 사용 순)
+     */
+    public List<SessionResponse> getSessions(String username) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY_PREFIX + username);
+        long now = System.currentTimeMillis();
+
+        List<SessionResponse> sessions = new ArrayList<>(entries.size());
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            try {
+                JsonNode node = objectMapper.readTree((String) entry.getValue());
+                if (node.path("e").asLong() <= now) {
+                    continue;
+                }
+                sessions.add(SessionResponse.builder()
+                        .sessionId((String) entry.getKey())
+                        .device(node.path("d").asText(null))
+                        .createdAt(toDateTime(node.path("c").asLong()))
+                        .lastUsedAt(toDateTime(node.path("u").asLong()))
+                        .expiresAt(toDateTime(node.path("e").asLong()))
+                        .build());
+            } catch (JsonProcessingException e) {
+                log.warn("세션 데이터 파싱 실패 - user={}, sessionId={}", username, entry.getKey());
+            }
+        }
+        sessions.sort(Comparator.comparing(SessionResponse::getLastUsedAt).reversed());
+        return sessions;
+    }
 
-        // 디버깅을 위한 로그 추가
-        log.info("--- Refresh Token Validation ---");
-        log.info("Key for Redis: {}", key);
-        log.info("Token from Cookie: {}", refreshToken);
-        log.info("Token from Redis:  {}", savedToken);
+    private boolean match(String username, String sessionId, String refreshToken, boolean remove) {
+        if (sessionId == null) {
+            return false;
+        }
+        Long result = redisTemplate.execute(
+                MATCH_SCRIPT,
+                List.of(KEY_PREFIX + username),
+                sessionId, refreshToken, remove ? "1" : "0",
+                String.valueOf(System.currentTimeMillis())
+        );
+        boolean matched = result != null && result == 1L;
+        log.debug("Refresh 토큰 검증 - user={}, sessionId={}, 일치 여부={}", username, sessionId, matched);
+        return matched;
+    }
+
+    private static String truncateDevice(String device) {
+        if (device == null) {
+            return "";
+        }
+        return device.length() > MAX_DEVICE_LENGTH ? device.substring(0, MAX_DEVICE_LENGTH) : device;
+    }
 
-        boolean result = refreshToken.equals(savedToken);
-        log.info("Validation Result (Tokens Match): {}", result);
-        log.info("--------------------------------");
+    private static LocalDateTime toDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
 
-        return result;
+    public enum RotationStatus {
+        ROTATED,    // 정상 회전
+        GRACE,      // 직전 토큰의 동시 요청 → 현재 토큰 재사용
+        REUSED,     // 재사용 감지 → 세션 폐기
+        INVALID     // 세션 없음 / 만료
     }
 
-    // 삭제
-    public void delete(String username) {
-        redisTemplate.delete("refresh:" + username);
+    @Getter
+    public static class RotationResult {
+        private final RotationStatus status;
+        // ROTATED, GRACE 인 경우 클라이언트에 내려줄 Refresh 토큰
+        private final String refreshToken;
+
+        private RotationResult(RotationStatus status, String refreshToken) {
+            this.status = status;
+            this.refreshToken = refreshToken;
+        }
+
+        static RotationResult of(RotationStatus status, String refreshToken) {
+            return new RotationResult(status, refreshToken);
+        }
+
+        public boolean isSuccess() {
+            return status == RotationStatus.ROTATED || status == RotationStatus.GRACE;
+        }
     }
 }
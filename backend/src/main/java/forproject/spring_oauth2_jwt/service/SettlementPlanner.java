@@ -0,0 +1,291 @@
+package forproject.spring_oauth2_jwt.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 정산 송금 계획 엔진 (송금 횟수 최소화)
+ *
+ * <p><b>입력 / 출력</b></p>
+ * <pre>
+ * 입력: 사용자별 잔액 long[] (받을 돈 +, 줄 돈 -, 합계 0)
+ * 출력: 송금 목록 (from 인덱스 → to 인덱스, 금액)
+ * 어떤 계획이든 실행하면 모든 잔액이 0 이 된다.
+ * </pre>
+ *
+ * <p><b>EXACT 모드 (소규모)</b></p>
+ * <pre>
+ * 잔액이 0 이 아닌 n 명을 합이 0 인 부분집합 k 개로 나누면 송금은 n - k 회면 충분하고,
+ * 이보다 적게는 불가능하다. → 합 0 부분집합 개수를 최대로 만드는 분할을 비트마스크 DP 로 찾는다.
+ *   sum[mask]  = mask 에 속한 잔액 합
+ *   best[mask] = max(best[mask - i]) + (sum[mask] == 0 ? 1 : 0)
+ * 시간 O(2^n · n), n 이 exact-max-members 이하이고 time-budget 안에 끝날 때만 사용
+ * </pre>
+ *
+ * <p><b>HEURISTIC 모드 (대규모 / 시간 초과)</b></p>
+ * <pre>
+ * 1. 금액이 정확히 같은 채권자 · 채무자 쌍을 먼저 1회 송금으로 정리
+ * 2. 남은 인원은 가장 큰 채권자 ↔ 가장 큰 채무자 매칭 (기존 그리디)
+ * O(n log n), 송금 횟수 n - 1 이하 보장
+ * </pre>
+ *
+ * <p><b>잔액 합계가 0 이 아닐 때</b></p>
+ * <pre>
+ * 원본 데이터 불일치(예: 배포 전 지출의 paidAmount 합 ≠ 총액)로 합계가 어긋나면
+ * 잔차를 로그로 남기고 HEURISTIC 으로 계획한다 (기존 그리디처럼 한쪽이 먼저 소진되면 나머지는 남김).
+ * 조회가 예외로 막히지 않도록 plan(long[]) 은 던지지 않고, 강제 EXACT 만 거부한다.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class SettlementPlanner {
+
+    /**
+     * EXACT 모드 상한 (2^20 크기 배열 ≈ 9MB)
+     */
+    private static final int MAX_EXACT_MEMBERS = 20;
+
+    public enum Mode {
+        EXACT, HEURISTIC
+    }
+
+    private final int exactMaxMembers;
+    private final long timeBudgetNanos;
+
+    public SettlementPlanner(@Value("${settlement.planner.exact-max-members:16}") int exactMaxMembers,
+                             @Value("${settlement.planner.time-budget-ms:50}") long timeBudgetMs) {
+        this.exactMaxMembers = Math.min(exactMaxMembers, MAX_EXACT_MEMBERS);
+        this.timeBudgetNanos = timeBudgetMs * 1_000_000L;
+    }
+
+    /**
+     * 인원 수에 따라 모드를 골라 계획 (EXACT 가 시간 예산을 넘기면 HEURISTIC 으로 대체)
+     */
+    public Plan plan(long[] balances) {
+        int[] members = nonZeroMembers(balances);
+        long residual = residual(balances);
+        if (residual != 0) {
+            log.warn("⚠️ 정산 잔액 합계 불일치 - 휴리스틱으로 계획: 잔차={}, 인원={}", residual, members.length);
+            return new Plan(Mode.HEURISTIC, planHeuristic(balances, members));
+        }
+        if (members.length <= exactMaxMembers) {
+            long deadline = System.nanoTime() + timeBudgetNanos;
+            List<Transfer> transfers = planExact(balances, members, deadline);
+            if (transfers != null) {
+                return new Plan(Mode.EXACT, transfers);
+            }
+            log.info("⏱️ 정산 계획 시간 초과 - 휴리스틱으로 대체: 인원={}", members.length);
+        }
+        return new Plan(Mode.HEURISTIC, planHeuristic(balances, members));
+    }
+
+    /**
+     * 지정한 모드로 계획 (EXACT 는 시간 예산 없이 끝까지 계산)
+     */
+    public Plan plan(long[] balances, Mode mode) {
+        int[] members = nonZeroMembers(balances);
+        if (mode == Mode.EXACT) {
+            long residual = residual(balances);
+            if (residual != 0) {
+                throw new IllegalArgumentException("잔액 합계가 0 이 아닙니다: " + residual);
+            }
+            if (members.length > MAX_EXACT_MEMBERS) {
+                throw new IllegalArgumentException(
+                        "EXACT 모드는 " + MAX_EXACT_MEMBERS + "명 이하만 지원합니다: " + members.length);
+            }
+            return new Plan(Mode.EXACT, planExact(balances, members, Long.MAX_VALUE));
+        }
+        return new Plan(Mode.HEURISTIC, planHeuristic(balances, members));
+    }
+
+    /**
+     * 합 0 부분집합 최대 분할 → 각 부분집합 안에서 그리디 정산
+     *
+     * @return 시간 예산 초과 시 null
+     */
+    private List<Transfer> planExact(long[] balances, int[] members, long deadline) {
+        int n = members.length;
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        byte[] best = new byte[full + 1];
+
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & 0xFFF) == 0 && System.nanoTime() > deadline) {
+                return null;
+            }
+            int low = Integer.numberOfTrailingZeros(mask);
+            sum[mask] = sum[mask & (mask - 1)] + balances[members[low]];
+
+            int max = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int without = mask & ~(rest & -rest);
+                if (best[without] > max) {
+                    max = best[without];
+                }
+            }
+            best[mask] = (byte) (max + (sum[mask] == 0 ? 1 : 0));
+        }
+
+        // 역추적: 원소를 뒤에서부터 꺼내면 합 0 이 되는 지점마다 그룹 경계
+        int[] order = new int[n];
+        int mask = full;
+        for (int pos = n - 1; pos >= 0; pos--) {
+            int target = best[mask] - (sum[mask] == 0 ? 1 : 0);
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (best[mask & ~bit] == target) {
+                    order[pos] = Integer.numberOfTrailingZeros(bit);
+                    mask &= ~bit;
+                    break;
+                }
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>(n);
+        long prefix = 0;
+        int groupStart = 0;
+        for (int pos = 0; pos < n; pos++) {
+            prefix += balances[members[order[pos]]];
+            if (prefix == 0) {
+                int[] group = new int[pos - groupStart + 1];
+                for (int k = 0; k < group.length; k++) {
+                    group[k] = members[order[groupStart + k]];
+                }
+                settleGreedy(balances, group, transfers);
+                groupStart = pos + 1;
+            }
+        }
+        return transfers;
+    }
+
+    /**
+     * 같은 금액 쌍 우선 정리 후 그리디
+     */
+    private List<Transfer> planHeuristic(long[] balances, int[] members) {
+        List<Transfer> transfers = new ArrayList<>();
+        boolean[] settled = new boolean[balances.length];
+
+        // 1. 금액이 같은 채권자 ↔ 채무자 쌍
+        Map<Long, List<Integer>> debtorsByAmount = new HashMap<>();
+        for (int index : members) {
+            if (balances[index] < 0) {
+                debtorsByAmount.computeIfAbsent(-balances[index], key -> new ArrayList<>()).add(index);
+            }
+        }
+        for (int index : members) {
+            if (balances[index] > 0) {
+                List<Integer> debtors = debtorsByAmount.get(balances[index]);
+                if (debtors != null && !debtors.isEmpty()) {
+                    int debtor = debtors.remove(debtors.size() - 1);
+                    transfers.add(new Transfer(debtor, index, balances[index]));
+                    settled[debtor] = true;
+                    settled[index] = true;
+                }
+            }
+        }
+
+        // 2. 나머지는 그리디
+        int remaining = 0;
+        for (int index : members) {
+            if (!settled[index]) {
+                remaining++;
+            }
+        }
+        int[] rest = new int[remaining];
+        int r = 0;
+        for (int index : members) {
+            if (!settled[index]) {
+                rest[r++] = index;
+            }
+        }
+        settleGreedy(balances, rest, transfers);
+        return transfers;
+    }
+
+    /**
+     * 가장 큰 채권자 ↔ 가장 큰 채무자 매칭 (합이 0 이 아니면 남는 쪽은 정산하지 않음)
+     */
+    private static void settleGreedy(long[] balances, int[] group, List<Transfer> out) {
+        List<Integer> creditors = new ArrayList<>();
+        List<Integer> debtors = new ArrayList<>();
+        for (int index : group) {
+            if (balances[index] > 0) {
+                creditors.add(index);
+            } else if (balances[index] < 0) {
+                debtors.add(index);
+            }
+        }
+        creditors.sort((a, b) -> Long.compare(balances[b], balances[a]));
+        debtors.sort((a, b) -> Long.compare(balances[a], balances[b]));
+
+        long[] creditorLeft = new long[creditors.size()];
+        long[] debtorLeft = new long[debtors.size()];
+        for (int i = 0; i < creditorLeft.length; i++) {
+            creditorLeft[i] = balances[creditors.get(i)];
+        }
+        for (int j = 0; j < debtorLeft.length; j++) {
+            debtorLeft[j] = -balances[debtors.get(j)];
+        }
+
+        int i = 0;
+        int j = 0;
+        while (i < creditorLeft.length && j < debtorLeft.length) {
+            long amount = Math.min(creditorLeft[i], debtorLeft[j]);
+            out.add(new Transfer(debtors.get(j), creditors.get(i), amount));
+            creditorLeft[i] -= amount;
+            debtorLeft[j] -= amount;
+            if (creditorLeft[i] == 0) {
+                i++;
+            }
+            if (debtorLeft[j] == 0) {
+                j++;
+            }
+        }
+    }
+
+    private static int[] nonZeroMembers(long[] balances) {
+        int count = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                count++;
+            }
+        }
+        int[] members = new int[count];
+        int m = 0;
+        for (int i = 0; i < balances.length; i++) {
+            if (balances[i] != 0) {
+                members[m++] = i;
+            }
+        }
+        return members;
+    }
+
+    private static long residual(long[] balances) {
+        long total = 0;
+        for (long balance : balances) {
+            total += balance;
+        }
+        return total;
+    }
+
+    /**
+     * 송금 1건 (balances 배열 인덱스 기준)
+     */
+    public record Transfer(int from, int to, long amount) {
+    }
+
+    /**
+     * 송금 계획 (사용된 모드 포함)
+     */
+    public record Plan(Mode mode, List<Transfer> transfers) {
+    }
+}
@@ -6,16 +6,16 @@ import forproject.spring_oauth2_jwt.dto.response.BalanceSummaryResponse;
 import forproject.spring_oauth2_jwt.dto.response.SettlementListResponse;
 import forproject.spring_oauth2_jwt.dto.response.SettlementPlanResponse;
 import forproject.spring_oauth2_jwt.dto.response.SettlementResponse;
-import forproject.spring_oauth2_jwt.entity.ExpenseParticipant;
 import forproject.spring_oauth2_jwt.entity.Settlement;
 import forproject.spring_oauth2_jwt.entity.UserEntity;
 import forproject.spring_oauth2_jwt.enums.NotificationType;
 import forproject.spring_oauth2_jwt.enums.SettlementStatus;
+import forproject.spring_oauth2_jwt.enums.TripEventType;
 import forproject.spring_oauth2_jwt.exception.ForbiddenException;
 import forproject.spring_oauth2_jwt.exception.ResourceNotFoundException;
-import forproject.spring_oauth2_jwt.repository.ExpenseParticipantRepository;
 import forproject.spring_oauth2_jwt.repository.SettlementRepository;
 import forproject.spring_oauth2_jwt.repository.UserRepository;
+import forproject.spring_oauth2_jwt.util.LongSumAggregator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -31,37 +31,41 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class SettlementService {
 
-    private final ExpenseParticipantRepository expenseParticipantRepository;
     private final SettlementRepository settlementRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final TripEventPublisher tripEventPublisher;
+    private final TripBalanceLedger tripBalanceLedger;
+    private final SettlementPlanner settlementPlanner;
 
     /**
-     * 정산 요약 조회 (개별정산 집계 + 그리디 알고리즘)
+     * 정산 요약 조회 (개별정산 집계 + 송금 횟수 최소화 플랜)
      *
      * 로직:
-     * 1. ExpenseParticipant의 owedAmount 합산 (지출 장부상 순액)
-     * 2. Settlement(APPROVED)에서 정산 완료된 금액 차감
-     * 3. 그리디 알고리즘으로 최적 정산 플랜 생성
+     * 1. 정산 장부(trip_balance)에서 현재 잔액 조회 (지출 · 정산 쓰기 시점에 증감된 값)
+     * 2. SettlementPlanner 로 송금 횟수가 가장 적은 정산 플랜 생성
      */
     @RequiresTripParticipant
     public BalanceSummaryResponse getBalanceSummary(Long tripId, Long userId) {
         log.info("정산 요약 조회 - tripId: {}, userId: {}", tripId, userId);
 
-        // === STEP 1: 현재 잔액 계산 (공식 적용) ===
-        Map<Long, Long> currentBalances = calculateCurrentBalances(tripId);
+        // === STEP 1: 현재 잔액 조회 (장부 1회 조회) ===
+        LongSumAggregator currentBalances = tripBalanceLedger.getBalances(tripId);
 
         // === STEP 2: 사용자 이름 조회 (N+1 방지) ===
-        Set<Long> allUserIds = currentBalances.keySet();
+        Set<Long> allUserIds = new HashSet<>();
+        for (long key : currentBalances.keys()) {
+            allUserIds.add(key);
+        }
         Map<Long, UserEntity> userMap = getUserMap(allUserIds);
 
         // === STEP 3: 채권자/채무자 분리 ===
         List<BalanceSummaryResponse.PersonBalance> creditors = new ArrayList<>();
         List<BalanceSummaryResponse.PersonBalance> debtors = new ArrayList<>();
 
-        for (Map.Entry<Long, Long> entry : currentBalances.entrySet()) {
-            Long userIdEntry = entry.getKey();
-            Long balance = entry.getValue();
+        for (int i = 0; i < currentBalances.size(); i++) {
+            long userIdEntry = currentBalances.keyAt(i);
+            long balance = currentBalances.valueAt(i);
             String userName = userMap.get(userIdEntry).getName();
 
             if (balance > 0) {
@@ -79,14 +83,14 @@ public class SettlementService {
             }
         }
 
-        // === STEP 4: 그리디 알고리즘 실행 ===
-        List<SettlementPlanResponse> optimalPlan = runGreedyAlgorithm(creditors, debtors);
+        // === STEP 4: 정산 플랜 생성 ===
+        List<SettlementPlanResponse> optimalPlan = buildOptimalPlan(currentBalances, userMap);
 
         // === STEP 5: 현재 사용자의 총 받을/줄 금액 계산 ===
         Long totalToReceive = 0L;
         Long totalToPay = 0L;
 
-        Long userBalance = currentBalances.getOrDefault(userId, 0L);
+        long userBalance = currentBalances.get(userId);
         if (userBalance > 0) {
             totalToReceive = userBalance;
         } else if (userBalance < 0) {
@@ -103,138 +107,33 @@ public class SettlementService {
     }
 
     /**
-     * 현재 잔액 계산 (공식 적용)
-     *
-     * 내 현재 잔액 = (지출 장부상 순액) + (정산으로 보낸 돈) - (정산으로 받은 돈)
-     *
-     * 중요: PENDING 정산도 포함합니다.
-     * - PENDING 정산을 포함하면 새 지출이 들어와도 이미 신청한 정산 금액은 고정됩니다.
-     * - REJECTED 시 자동으로 다시 계산에 포함됩니다.
-     */
-    private Map<Long, Long> calculateCurrentBalances(Long tripId) {
-        Map<Long, Long> balances = new HashMap<>();
-
-        // 1. 지출 장부상 순액 (ExpenseParticipant의 owedAmount 합산)
-        List<ExpenseParticipant> allParticipants = expenseParticipantRepository
-                .findAllByTripId(tripId);
-
-        for (ExpenseParticipant p : allParticipants) {
-            balances.merge(p.getUserId(), p.getOwedAmount(), Long::sum);
-        }
-
-        // 2. Settlement(APPROVED + PENDING) 반영
-        // PENDING도 포함하여 신청된 정산은 즉시 빚에서 차감
-        List<Settlement> activeSettlements = new ArrayList<>();
-        activeSettlements.addAll(settlementRepository.findByTripIdAndStatus(tripId, SettlementStatus.APPROVED));
-        activeSettlements.addAll(settlementRepository.findByTripIdAndStatus(tripId, SettlementStatus.PENDING));
-
-        for (Settlement s : activeSettlements) {
-            // 돈 준 사람(fromUser): 빚 갚음 → 잔액 증가(+)
-            balances.merge(s.getFromUserId(), s.getAmount(), Long::sum);
-
-            // 돈 받은 사람(toUser): 돈 받음 → 받을 권리 감소(-)
-            balances.merge(s.getToUserId(), -s.getAmount(), Long::sum);
-        }
-
-        // 3. 0원인 사용자 제거
-        balances.entrySet().removeIf(entry -> entry.getValue() == 0);
-
-        return balances;
-    }
-
-    /**
-     * 그리디 알고리즘 (쉬운 버전)
-     *
-     * 알고리즘:
-     * 1. 채권자를 금액 내림차순 정렬 (가장 많이 받을 사람 우선)
-     * 2. 채무자를 금액 내림차순 정렬 (가장 많이 줄 사람 우선)
-     * 3. 맨 앞사람끼리 매칭 (0번 인덱스)
-     * 4. 둘 중 작은 금액만큼 정산
-     * 5. 정산 완료된 사람 제거, 반복
+     * 송금 횟수 최소화 플랜 (인원이 적으면 최적해, 많으면 휴리스틱 - SettlementPlanner 참고)
      */
-    private List<SettlementPlanResponse> runGreedyAlgorithm(
-            List<BalanceSummaryResponse.PersonBalance> creditors,
-            List<BalanceSummaryResponse.PersonBalance> debtors
-    ) {
-        List<SettlementPlanResponse> results = new ArrayList<>();
-
-        // 복사본 생성 (원본 수정 방지)
-        List<Member> creditorsList = new ArrayList<>();
-        List<Member> debtorsList = new ArrayList<>();
-
-        for (BalanceSummaryResponse.PersonBalance c : creditors) {
-            creditorsList.add(new Member(c.getUserId(), c.getUserName(), c.getAmount()));
-        }
-
-        for (BalanceSummaryResponse.PersonBalance d : debtors) {
-            debtorsList.add(new Member(d.getUserId(), d.getUserName(), d.getAmount()));
+    private List<SettlementPlanResponse> buildOptimalPlan(LongSumAggregator balances, Map<Long, UserEntity> userMap) {
+        // userId 순으로 고정 → 같은 잔액이면 항상 같은 플랜
+        long[] userIds = balances.keys();
+        Arrays.sort(userIds);
+        long[] amounts = new long[userIds.length];
+        for (int i = 0; i < userIds.length; i++) {
+            amounts[i] = balances.get(userIds[i]);
         }
 
-        // 금액 내림차순 정렬 (큰 금액 우선)
-        Collections.sort(creditorsList, new Comparator<Member>() {
-            @Override
-            public int compare(Member p1, Member p2) {
-                return Long.compare(p2.amount, p1.amount);
-            }
-        });
-
-        Collections.sort(debtorsList, new Comparator<Member>() {
-            @Override
-            public int compare(Member p1, Member p2) {
-                return Long.compare(p2.amount, p1.amount);
-            }
-        });
-
-        // 그리디 매칭
-        int i = 0; // 채권자 인덱스
-        int j = 0; // 채무자 인덱스
-
-        while (i < creditorsList.size() && j < debtorsList.size()) {
-            Member creditor = creditorsList.get(i);
-            Member debtor = debtorsList.get(j);
-
-            // 둘 중 작은 금액만큼 송금
-            long tradeAmount = Math.min(creditor.amount, debtor.amount);
-
+        SettlementPlanner.Plan plan = settlementPlanner.plan(amounts);
+        List<SettlementPlanResponse> results = new ArrayList<>(plan.transfers().size());
+        for (SettlementPlanner.Transfer transfer : plan.transfers()) {
+            Long senderId = userIds[transfer.from()];
+            Long receiverId = userIds[transfer.to()];
             results.add(SettlementPlanResponse.builder()
-                    .senderId(debtor.id)
-                    .senderName(debtor.name)
-                    .receiverId(creditor.id)
-                    .receiverName(creditor.name)
-                    .amount(tradeAmount)
+                    .senderId(senderId)
+                    .senderName(userMap.get(senderId).getName())
+                    .receiverId(receiverId)
+                    .receiverName(userMap.get(receiverId).getName())
+                    .amount(transfer.amount())
                     .build());
-
-            // 잔액 갱신
-            creditor.amount = creditor.amount - tradeAmount;
-            debtor.amount = debtor.amount - tradeAmount;
-
-            // 0원이 된 사람은 다음 사람으로
-            if (creditor.amount == 0) {
-                i++;
-            }
-            if (debtor.amount == 0) {
-                j++;
-            }
         }
-
         return results;
     }
 
-    /**
-     * 헬퍼 클래스: 정산 계산용 간단한 DTO
-     */
-    private static class Member {
-        Long id;
-        String name;
-        Long amount;
-
-        public Member(Long id, String name, Long amount) {
-            this.id = id;
-            this.name = name;
-            this.amount = amount;
-        }
-    }
-
     /**
      * 사용자 이름 조회 (N+1 방지)
      */
@@ -286,6 +185,9 @@ public class SettlementService {
         }
 
         settlement = settlementRepository.save(settlement);
+        // PENDING 도 즉시 잔액에 반영 (신청된 금액은 새 지출이 들어와도 고정)
+        tripBalanceLedger.applySettlement(settlement);
+        tripEventPublisher.publish(tripId, TripEventType.SETTLEMENT_CREATED, settlement.getId(), userId);
 
         // 알림 전송
         sendSettlementNotification(settlement, isCreditorFlow);
@@ -329,10 +231,11 @@ public class SettlementService {
             throw new IllegalStateException("대기 중인 정산만 승인할 수 있습니다");
         }
 
-        // 승인 처리
+        // 승인 처리 (생성 시 이미 잔액에 반영되어 있으므로 장부 변화 없음)
         settlement.setStatus(SettlementStatus.APPROVED);
         settlement.setCompletedAt(LocalDateTime.now());
         settlement = settlementRepository.save(settlement);
+        tripEventPublisher.publish(tripId, TripEventType.SETTLEMENT_APPROVED, settlement.getId(), userId);
 
         // 알림 전송 (채무자에게)
         UserEntity creditor = userRepository.findById(userId)
@@ -344,7 +247,9 @@ public class SettlementService {
                 NotificationType.SETTLEMENT_APPROVED,
                 "정산 승인",
                 creditor.getName() + "님이 " + settlement.getAmount() + "원 정산을 승인했습니다",
-                relatedData
+                relatedData,
+                settlement.getTripId(),
+                settlement.getId()
         );
 
         return toSettlementResponse(settlement);
@@ -379,6 +284,9 @@ public class SettlementService {
                     : "[거절 사유] " + reason);
         }
         settlement = settlementRepository.save(settlement);
+        // 생성 시 반영한 금액 되돌림
+        tripBalanceLedger.revertSettlement(settlement);
+        tripEventPublisher.publish(tripId, TripEventType.SETTLEMENT_REJECTED, settlement.getId(), userId);
 
         // 알림 전송 (채무자에게)
         UserEntity creditor = userRepository.findById(userId)
@@ -390,7 +298,9 @@ public class SettlementService {
                 NotificationType.SETTLEMENT_REJECTED,
                 "정산 거절",
                 creditor.getName() + "님이 정산 신청을 거절했습니다",
-                relatedData
+                relatedData,
+                settlement.getTripId(),
+                settlement.getId()
         );
 
         return toSettlementResponse(settlement);
@@ -493,6 +403,7 @@ public class SettlementService {
 
         // relatedData에 "tripId:settlementId" 형식으로 저장
         String relatedData = settlement.getTripId() + ":" + settlement.getId();
-        notificationService.createAndSend(recipientId, type, title, message, relatedData);
+        notificationService.createAndSend(recipientId, type, title, message, relatedData,
+                settlement.getTripId(), settlement.getId());
     }
 }
\ No newline at end of file
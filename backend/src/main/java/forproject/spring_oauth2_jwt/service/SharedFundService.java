@@ -9,6 +9,7 @@ import forproject.spring_oauth2_jwt.entity.SharedFund;
 import forproject.spring_oauth2_jwt.entity.SharedFundTrade;
 import forproject.spring_oauth2_jwt.entity.UserEntity;
 import forproject.spring_oauth2_jwt.enums.TradeType;
+import forproject.spring_oauth2_jwt.enums.TripEventType;
 import forproject.spring_oauth2_jwt.repository.SharedFundRepository;
 import forproject.spring_oauth2_jwt.repository.SharedFundTradeRepository;
 import forproject.spring_oauth2_jwt.repository.TravelParticipantRepository;
@@ -34,6 +35,8 @@ public class SharedFundService {
     private final SharedFundRepository sharedFundRepository;
     private final TravelParticipantRepository travelParticipantRepository;
     private final SharedFundTradeRepository sharedFundTradeRepository;
+    private final TripEventPublisher tripEventPublisher;
+    private final TripSpendingRollupService tripSpendingRollupService;
 
     /**
      * 계좌 아직 없으면 만들기
@@ -163,6 +166,7 @@ public class SharedFundService {
 
         log.info("공동 경비 입금 완료 - transactionId: {}, totalAmount: {}, balanceAfter: {}",
                 trade.getId(), totalAmount, balanceAfter);
+        tripEventPublisher.publish(tripId, TripEventType.SHARED_FUND_DEPOSITED, trade.getId(), userId);
 
         return SharedFundTradeResponse.fromEntity(trade, tripId, getUserName(userId));
     }
@@ -212,9 +216,11 @@ public class SharedFundService {
 
         sharedFundTradeRepository.save(transaction);
         sharedFundRepository.save(sharedFund);
+        tripSpendingRollupService.applySharedExpense(tripId, transaction);
 
         log.info("공동 경비 지출 완료 - transactionId: {}, balanceAfter: {}",
                 transaction.getId(), balanceAfter);
+        tripEventPublisher.publish(tripId, TripEventType.SHARED_FUND_SPENT, transaction.getId(), userId);
 
         return SharedFundTradeResponse.fromEntity(transaction, tripId, getUserName(userId));
     }
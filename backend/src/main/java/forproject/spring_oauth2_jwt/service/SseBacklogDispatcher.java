@@ -0,0 +1,137 @@
+package forproject.spring_oauth2_jwt.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE 연결 직후 미전송 알림(backlog) 전달 승인 제어
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 배포로 노드가 재시작되면 모든 클라이언트가 거의 동시에 재연결하고,
+ * 연결마다 읽지 않은 알림 조회(DB) + 전송이 한꺼번에 일어나 DB 와 SSE 풀이 튄다.
+ * backlog 전달을 노드 단위 대기열에 넣고 초당 permits-per-second 건만 꺼내 실행한다.
+ * </pre>
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - tick-ms 마다 permits-per-second * tick-ms / 1000 건을 sseTaskExecutor 에서 실행
+ * - 실행 시점에 연결이 이미 닫혔으면 조회하지 않고 건너뜀 (재연결을 반복한 연결의 중복 조회 방지)
+ * - 대기열이 가득 차면 push 를 생략 (클라이언트는 REST /unread 로 조회 가능)
+ * - 연결당 최대 max-events 건만 전송 (나머지는 커서 목록 API 로 조회)
+ * </pre>
+ *
+ * <p><b>메트릭</b></p>
+ * <pre>
+ * sse.backlog.queued (게이지), sse.backlog.delivered / skipped / rejected (카운터)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class SseBacklogDispatcher {
+
+    private final NotificationService notificationService;
+    private final SseService sseService;
+    private final Executor executor;
+    private final int permitsPerTick;
+    private final int maxEvents;
+
+    private final ArrayBlockingQueue<BacklogTask> queue;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public SseBacklogDispatcher(NotificationService notificationService,
+                                SseService sseService,
+                                @Qualifier("sseTaskExecutor") Executor executor,
+                                MeterRegistry meterRegistry,
+                                @Value("${sse.backlog.permits-per-second:50}") int permitsPerSecond,
+                                @Value("${sse.backlog.tick-ms:100}") long tickMs,
+                                @Value("${sse.backlog.queue-capacity:10000}") int queueCapacity,
+                                @Value("${sse.backlog.max-events:50}") int maxEvents) {
+        this.notificationService = notificationService;
+        this.sseService = sseService;
+        this.executor = executor;
+        this.permitsPerTick = (int) Math.max(1, permitsPerSecond * tickMs / 1000);
+        this.maxEvents = maxEvents;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("sse.backlog.queued", queue, ArrayBlockingQueue::size).register(meterRegistry);
+        FunctionCounter.builder("sse.backlog.delivered", delivered, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.backlog.skipped", skipped, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.backlog.rejected", rejected, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * 최초 연결: 읽지 않은 알림 전달 예약
+     */
+    public void submitUnread(Long userId, SseEmitter emitter) {
+        submit(new BacklogTask(userId, emitter, -1L));
+    }
+
+    /**
+     * 재연결: Last-Event-ID 이후 알림 DB 재전송 예약 (메모리 버퍼로 메울 수 없을 때)
+     */
+    public void submitReplay(Long userId, SseEmitter emitter, long lastNotificationId) {
+        submit(new BacklogTask(userId, emitter, lastNotificationId));
+    }
+
+    /**
+     * 대기열에서 이번 tick 의 허용량만큼 꺼내 실행
+     */
+    @Scheduled(fixedRateString = "${sse.backlog.tick-ms:100}")
+    public void tick() {
+        for (int i = 0; i < permitsPerTick; i++) {
+            BacklogTask task = queue.poll();
+            if (task == null) {
+                return;
+            }
+            if (!sseService.isOpen(task.userId, task.emitter)) {
+                skipped.increment();
+                continue;
+            }
+            try {
+                executor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("⚠️ SSE 비동기 풀 포화 - 미전송 알림 전달 생략: userId={}", task.userId);
+            }
+        }
+    }
+
+    private void submit(BacklogTask task) {
+        if (!queue.offer(task)) {
+            rejected.increment();
+            log.warn("⚠️ 미전송 알림 대기열 포화 - 전달 생략: userId={}", task.userId);
+        }
+    }
+
+    private void run(BacklogTask task) {
+        try {
+            if (task.lastNotificationId < 0) {
+                notificationService.sendUnreadNotifications(task.userId, task.emitter, maxEvents);
+            } else {
+                notificationService.replayMissedNotifications(task.userId, task.emitter, task.lastNotificationId, maxEvents);
+            }
+            delivered.increment();
+        } catch (Exception e) {
+            log.error("❌ 미전송 알림 전달 실패 - userId: {}, error: {}", task.userId, e.getMessage());
+        }
+    }
+
+    private record BacklogTask(Long userId, SseEmitter emitter, long lastNotificationId) {
+    }
+}
@@ -0,0 +1,174 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SSE 재연결용 최근 이벤트 버퍼 (사용자별 링 버퍼)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 재연결 시 Last-Event-ID 이후 놓친 이벤트만 메모리에서 바로 재전송한다.
+ * 버퍼가 덮어써져서 공백을 메울 수 없을 때만 DB(id 기반 조회)로 대체한다.
+ * </pre>
+ *
+ * <p><b>구조</b></p>
+ * <pre>
+ * - NotificationBus 가 수신한 모든 알림을 기록 (모든 노드가 모든 이벤트를 받으므로 어느 노드로 재연결해도 재생 가능)
+ * - 사용자별 고정 크기 링 (sse.replay.buffer-size, 기본 50)
+ * - 링은 처음 기록한 이벤트 이후를 빠짐없이 담고 있으므로,
+ *   lastEventId 가 링의 가장 오래된 이벤트 id 이상이면 공백 없이 재생 가능
+ *   (알림 id 는 전체 사용자 공용 auto-increment 라 사용자별로 연속적이지 않음)
+ * - 마지막 기록 후 ttl-ms 동안 이벤트가 없으면 링 제거, 최대 사용자 수 제한 (BoundedTtlCache)
+ *   → 가득 찬 상태에서도 pub/sub 리스너 스레드가 이벤트마다 전체 스캔하지 않음 (정리는 1초에 한 번)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class SseReplayBuffer {
+
+    private final int bufferSize;
+
+    private final BoundedTtlCache<Long, Ring> rings;
+
+    private final LongAdder replayHits = new LongAdder();
+    private final LongAdder replayMisses = new LongAdder();
+
+    public SseReplayBuffer(MeterRegistry meterRegistry,
+                           @Value("${sse.replay.buffer-size:50}") int bufferSize,
+                           @Value("${sse.replay.max-users:10000}") int maxUsers,
+                           @Value("${sse.replay.ttl-ms:600000}") long ttlMs) {
+        this.bufferSize = bufferSize;
+        this.rings = new BoundedTtlCache<>(maxUsers, ring -> ring.lastWriteMs + ttlMs);
+
+        FunctionCounter.builder("sse.replay.hits", replayHits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.replay.misses", replayMisses, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("sse.replay.users", rings, BoundedTtlCache::size).register(meterRegistry);
+    }
+
+    /**
+     * 이벤트 기록 (id 를 알 수 없는 이벤트는 기록하지 않음)
+     */
+    public void record(Long userId, String eventId, String eventName, String json) {
+        long id = parseId(eventId);
+        if (userId == null || id < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Ring ring = rings.computeIfAbsent(userId, key -> new Ring(bufferSize, now), now);
+        if (ring == null) {
+            // 최대 사용자 수 초과 → 기록 생략 (재연결 시 DB 로 대체)
+            return;
+        }
+        ring.add(new ReplayEvent(id, eventId, eventName, json), now);
+    }
+
+    /**
+     * lastEventId 이후 이벤트 조회
+     *
+     * @return 버퍼만으로 공백 없이 재생 가능하면 이벤트 목록(비어 있을 수 있음), 불가능하면 null
+     */
+    public List<ReplayEvent> eventsAfter(Long userId, long lastId) {
+        Ring ring = rings.get(userId, System.currentTimeMillis());
+        List<ReplayEvent> events = ring != null ? ring.eventsAfter(lastId) : null;
+        if (events == null) {
+            replayMisses.increment();
+        } else {
+            replayHits.increment();
+        }
+        return events;
+    }
+
+    /**
+     * 만료된 링 주기적 정리 (1분)
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictExpired() {
+        rings.sweep(System.currentTimeMillis());
+    }
+
+    /**
+     * "notif-123" 형태의 이벤트 ID 에서 숫자 id 추출 (형식이 다르면 -1)
+     */
+    public static long parseId(String eventId) {
+        if (eventId == null) {
+            return -1L;
+        }
+        int separator = eventId.lastIndexOf('-');
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static final class Ring {
+        private final ReplayEvent[] events;
+        private int head;          // 다음에 쓸 위치
+        private int size;
+        private volatile long lastWriteMs;
+
+        private Ring(int capacity, long now) {
+            this.events = new ReplayEvent[capacity];
+            // 첫 기록 전에 만료로 판정되지 않도록 생성 시각으로 시작
+            this.lastWriteMs = now;
+        }
+
+        synchronized void add(ReplayEvent event, long now) {
+            events[head] = event;
+            head = (head + 1) % events.length;
+            if (size < events.length) {
+                size++;
+            }
+            lastWriteMs = now;
+        }
+
+        synchronized List<ReplayEvent> eventsAfter(long lastId) {
+            if (size == 0) {
+                return null;
+            }
+            int start = (head - size + events.length) % events.length;
+            // lastId 가 가장 오래된 이벤트보다 이전이면 덮어써진 구간에 놓친 이벤트가 있을 수 있음
+            if (lastId < events[start].getId()) {
+                return null;
+            }
+            List<ReplayEvent> result = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                ReplayEvent event = events[(start + i) % events.length];
+                if (event.getId() > lastId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 버퍼에 보관되는 이벤트 (data 는 직렬화된 JSON)
+     */
+    @Getter
+    public static final class ReplayEvent {
+        private final long id;
+        private final String eventId;
+        private final String eventName;
+        private final String data;
+
+        private ReplayEvent(long id, String eventId, String eventName, String data) {
+            this.id = id;
+            this.eventId = eventId;
+            this.eventName = eventName;
+            this.data = data;
+        }
+    }
+}
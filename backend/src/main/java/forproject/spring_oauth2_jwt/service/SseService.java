@@ -1,105 +1,624 @@
 package forproject.spring_oauth2_jwt.service;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+/**
+ * SSE 연결 레지스트리
+ *
+ * <p><b>구조</b></p>
+ * <pre>
+ * - 사용자 1명당 여러 연결 허용 (탭/기기마다 별도 SseEmitter)
+ * - userId 기준으로 샤드를 나눠 맵 경합을 줄임 (샤드 = ConcurrentHashMap&lt;userId, 연결 Set&gt;)
+ * - 연결마다 크기 제한이 있는 전송 큐 + 전용 디스패치 풀에서 순서대로 전송
+ *   (큐에는 미리 만들어 둔 프레임을 넣음 → 여러 연결에 같은 이벤트를 보낼 때 인코딩 1회, 같은 byte[] 공유)
+ *   → 이벤트를 만드는 스레드(요청/트랜잭션 스레드)는 네트워크 쓰기를 기다리지 않음
+ * - 큐가 가득 찬 연결(느린 소비자)은 기다리지 않고 끊음 → 클라이언트가 재연결
+ * - 한 번의 쓰기가 sse.write-timeout-ms 를 넘기면(TCP 버퍼가 찬 클라이언트) 감시 작업이 그 연결을 끊고
+ *   쓰기 중인 디스패치 스레드를 interrupt → 멈춘 연결 몇 개가 디스패치 풀 전체를 붙잡지 못함
+ * - 주기적으로 comment 프레임(heartbeat)을 보내 프록시 유휴 타임아웃 방지 + 죽은 연결 조기 발견
+ * - 여행 화면 구독 연결(subscribeTrip)은 tripId 기준 별도 레지스트리에 등록 (TripEventPublisher 참고)
+ * </pre>
+ *
+ * <p><b>재연결 폭주 방지</b></p>
+ * <pre>
+ * - 연결마다 retry 힌트를 sse.retry.base-ms + [0, sse.retry.jitter-ms) 로 흩뿌려 보냄
+ * - 종료(배포) 시 웹 서버 graceful shutdown 보다 먼저 실행되어
+ *   모든 연결에 [0, sse.shutdown.spread-ms) 범위의 retry 힌트 + "reconnect" 이벤트를 보낸 뒤 연결을 닫음
+ *   → 클라이언트 재연결이 한 순간에 몰리지 않고 spread 구간에 고르게 퍼짐
+ * - 종료 중 들어온 연결 요청은 retry 힌트만 보내고 바로 닫음
+ * </pre>
+ *
+ * <p><b>메트릭</b></p>
+ * <pre>
+ * sse.connections, sse.users, sse.trip.topics, sse.queued.events (게이지)
+ * sse.events.sent, sse.events.failed, sse.connections.dropped, sse.connections.stalled (카운터)
+ * </pre>
+ */
 @Service
 @Slf4j
-public class SseService {
-
-    // userId->SseEmitter 매핑 구조
-    private final Map<Long, SseEmitter> emitters = new ConcurrentHashMap<>();
+public class SseService implements SmartLifecycle {
 
     //타임아웃 설정
     private static final Long DEFAULT_TIMEOUT = 30 * 60 * 1000L;
 
+    private static final int SHARD_COUNT = 16;
+
+    // 모든 연결이 공유하는 heartbeat 프레임
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT_FRAME = frame(":ping\n\n");
+
+    private final Shard[] shards = new Shard[SHARD_COUNT];
+    // tripId → 여행 화면 구독 연결
+    private final Map<Long, Set<Connection>> tripConnections = new ConcurrentHashMap<>();
+    private final Executor dispatchExecutor;
+    private final int queueCapacity;
+    private final long retryBaseMs;
+    private final long retryJitterMs;
+    private final long shutdownSpreadMs;
+    private final long shutdownTimeoutMs;
+    private final long writeTimeoutMs;
+
+    private volatile boolean running;
+    // start() 는 웹 서버 시작 뒤에 호출되므로 연결 수락 여부는 별도 플래그로 관리 (종료 시에만 false)
+    private volatile boolean accepting = true;
+
+    private final AtomicLong connectionSequence = new AtomicLong();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalled = new LongAdder();
+
+    public SseService(@Qualifier("sseDispatchExecutor") Executor dispatchExecutor,
+                      MeterRegistry meterRegistry,
+                      @Value("${sse.connection.queue-capacity:100}") int queueCapacity,
+                      @Value("${sse.retry.base-ms:3000}") long retryBaseMs,
+                      @Value("${sse.retry.jitter-ms:5000}") long retryJitterMs,
+                      @Value("${sse.shutdown.spread-ms:15000}") long shutdownSpreadMs,
+                      @Value("${sse.shutdown.timeout-ms:5000}") long shutdownTimeoutMs,
+                      @Value("${sse.write-timeout-ms:5000}") long writeTimeoutMs) {
+        this.dispatchExecutor = dispatchExecutor;
+        this.queueCapacity = queueCapacity;
+        this.retryBaseMs = retryBaseMs;
+        this.retryJitterMs = retryJitterMs;
+        this.shutdownSpreadMs = shutdownSpreadMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.writeTimeoutMs = writeTimeoutMs;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+
+        Gauge.builder("sse.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("sse.users", this, SseService::getUserCount).register(meterRegistry);
+        Gauge.builder("sse.trip.topics", tripConnections, Map::size).register(meterRegistry);
+        Gauge.builder("sse.queued.events", this, SseService::getQueuedEventCount).register(meterRegistry);
+        FunctionCounter.builder("sse.events.sent", sent, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.events.failed", failed, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.connections.dropped", dropped, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("sse.connections.stalled", stalled, LongAdder::sum).register(meterRegistry);
+    }
+
     /**
-     * 연결 생성과 sse통신 객체를 유저와 객체에 맞춰서 MAP에 등록
+     * 연결 생성 후 레지스트리에 등록 (같은 사용자의 기존 연결은 유지)
      */
     public SseEmitter createEmitter(Long userId) {
+        return open(userId, null);
+    }
+
+    /**
+     * 여행 화면 구독 연결 생성 (참여자 확인은 호출하는 쪽에서)
+     */
+    public SseEmitter subscribeTrip(Long tripId, Long userId) {
+        return open(userId, tripId);
+    }
+
+    private SseEmitter open(Long userId, Long tripId) {
         SseEmitter emitter = new SseEmitter(DEFAULT_TIMEOUT);
 
-        // 연결 성공 시 더미 이벤트 전송 (연결 확인용)
+        if (!accepting) {
+            // 종료 중인 노드: 다른 노드로 흩어져 재연결하도록 retry 힌트만 보내고 닫음
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("reconnect")
+                        .reconnectTime(jitter(retryBaseMs, shutdownSpreadMs))
+                        .data("서버 재시작 중"));
+            } catch (IOException ignored) {
+                // 클라이언트가 이미 끊음
+            }
+            emitter.complete();
+            log.info("종료 중 SSE 연결 요청 - 재연결 안내 후 종료: userId={}", userId);
+            return emitter;
+        }
+
+        // 연결 성공 시 더미 이벤트 전송 (연결 확인용) + 재연결 간격 힌트 (jitter)
         try {
             emitter.send(SseEmitter.event()
                     .name("connected")
+                    .reconnectTime(jitter(retryBaseMs, retryJitterMs))
                     .data("SSE 연결 성공"));
         } catch (IOException e) {
             log.error("연결 초기 이벤트 전송 실패: userId={}", userId);
             throw new RuntimeException("SSE 연결 실패");
         }
 
-        // 연결 등록
-        emitters.put(userId, emitter);
-        log.info("✅ SSE 연결 등록: userId={}, 현재 연결 수: {}", userId, emitters.size());
+        Connection connection = new Connection(connectionSequence.incrementAndGet(), userId, tripId, emitter, queueCapacity);
+        register(connection);
+        log.info("✅ SSE 연결 등록: userId={}, tripId={}, connectionId={}, 현재 연결 수: {}",
+                userId, tripId, connection.id, connectionCount.get());
 
-        // 콜백 등록
+        // 콜백 등록 (해당 연결만 제거)
         emitter.onCompletion(() -> {
-            emitters.remove(userId);
-            log.info("SSE 연결 정상 종료: userId={}", userId);
+            unregister(connection);
+            log.info("SSE 연결 정상 종료: userId={}, connectionId={}", userId, connection.id);
         });
 
         emitter.onTimeout(() -> {
-            emitters.remove(userId);
-            log.warn("SSE 연결 타임아웃: userId={}", userId);
+            unregister(connection);
+            log.warn("SSE 연결 타임아웃: userId={}, connectionId={}", userId, connection.id);
         });
 
         emitter.onError((ex) -> {
-            emitters.remove(userId);
-            log.error("SSE 연결 에러: userId={}, error={}", userId, ex.getMessage());
+            unregister(connection);
+            log.error("SSE 연결 에러: userId={}, connectionId={}, error={}", userId, connection.id, ex.getMessage());
         });
 
         return emitter;
     }
 
     /**
-     * ID와 함께 이벤트 전송 (재연결 지원)
+     * ID와 함께 이벤트 전송 (재연결 지원) - 사용자의 모든 연결에 큐잉, 호출 스레드는 블로킹되지 않음
      */
     public void sendWithId(Long userId, String eventId, String eventName, Object data) {
-        SseEmitter emitter = emitters.get(userId);
-        if (emitter == null) {
+        Set<Connection> connections = shardOf(userId).connections.get(userId);
+        if (connections == null || connections.isEmpty()) {
             log.warn("⚠️ SSE 연결 없음: userId={}", userId);
             return;
         }
-        try{
-            emitter.send(SseEmitter.event()
+        for (Connection connection : connections) {
+            enqueue(connection, SseEmitter.event()
                     .id(eventId)
                     .name(eventName)
-                    .data(data));
-            log.info("✅ SSE 이벤트 전송 (ID: {}): userId={}, eventName={}", eventId, userId, eventName);
-        } catch (IOException e) {
-            emitters.remove(userId);
-            log.error("❌ SSE 전송 실패: userId={}", userId);
+                    .data(data)
+                    .build());
+        }
+        log.info("✅ SSE 이벤트 큐잉 (ID: {}): userId={}, eventName={}, 연결 수: {}",
+                eventId, userId, eventName, connections.size());
+    }
+
+    /**
+     * 특정 연결(emitter)에만 이벤트 전송 - 재연결 시 놓친 이벤트 재전송용 (같은 사용자의 다른 탭에는 보내지 않음)
+     */
+    public void sendToEmitter(Long userId, SseEmitter emitter, String eventId, String eventName, Object data) {
+        Set<Connection> connections = shardOf(userId).connections.get(userId);
+        if (connections == null) {
+            return;
+        }
+        for (Connection connection : connections) {
+            if (connection.emitter == emitter) {
+                enqueue(connection, SseEmitter.event()
+                        .id(eventId)
+                        .name(eventName)
+                        .data(data)
+                        .build());
+                return;
+            }
+        }
+    }
+
+    /**
+     * 이 연결이 아직 열려 있는지 확인 (미전송 알림 전달 전 확인용)
+     */
+    public boolean isOpen(Long userId, SseEmitter emitter) {
+        Set<Connection> connections = shardOf(userId).connections.get(userId);
+        if (connections == null) {
+            return false;
+        }
+        for (Connection connection : connections) {
+            if (connection.emitter == emitter) {
+                return !connection.closed.get();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Heartbeat - 모든 연결에 comment 프레임 전송 (기본 15초)
+     */
+    @Scheduled(fixedRateString = "${sse.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        forEachConnection(connection -> enqueue(connection, HEARTBEAT_FRAME));
+    }
+
+    /**
+     * 쓰기 정지 감시 - write-timeout-ms 를 넘긴 쓰기가 있는 연결을 끊고 쓰기 스레드를 깨움
+     *
+     * emitter.complete() 는 진행 중인 send 와 같은 잠금을 기다리므로 여기서는 호출하지 않는다.
+     * 레지스트리에서 먼저 빼고(새 이벤트 차단) 스레드를 interrupt → send 가 예외로 끝나면 drain 이 정리.
+     */
+    @Scheduled(fixedDelayString = "${sse.write-stall-check-ms:1000}")
+    public void closeStalledWrites() {
+        long now = System.currentTimeMillis();
+        forEachConnection(connection -> {
+            synchronized (connection.sendLock) {
+                if (connection.sender == null || now - connection.sendStartedAt < writeTimeoutMs) {
+                    return;
+                }
+                stalled.increment();
+                log.warn("⚠️ SSE 쓰기 정지 - 연결 종료: userId={}, connectionId={}, 경과={}ms",
+                        connection.userId, connection.id, now - connection.sendStartedAt);
+                unregister(connection);
+                connection.sender.interrupt();
+            }
+        });
+    }
+
+    /**
+     * 여행 구독자 전체에 같은 프레임 전송 (frame 은 tripFrame 으로 한 번만 만든 것)
+     *
+     * @return 큐잉한 연결 수
+     */
+    public int broadcastToTrip(Long tripId, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        Set<Connection> connections = tripConnections.get(tripId);
+        if (connections == null) {
+            return 0;
         }
+        int queued = 0;
+        for (Connection connection : connections) {
+            enqueue(connection, frame);
+            queued++;
+        }
+        return queued;
+    }
+
+    /**
+     * 이름이 있는 이벤트 프레임을 UTF-8 byte[] 로 한 번만 인코딩 (data 는 한 줄짜리 JSON)
+     */
+    public static Set<ResponseBodyEmitter.DataWithMediaType> tripFrame(String eventName, String json) {
+        return frame("event:" + eventName + "\ndata:" + json + "\n\n");
+    }
+
+    /**
+     * 여행 구독 연결 중 조건에 맞는 사용자의 연결 종료 (여행 삭제, 참여자 제외)
+     * 이미 큐잉된 이벤트(예: TRIP_DELETED)를 모두 보낸 뒤 닫음
+     *
+     * @return 종료 대상으로 표시한 연결 수
+     */
+    public int closeTripStreams(Long tripId, Predicate<Long> shouldClose) {
+        Set<Connection> connections = tripConnections.get(tripId);
+        if (connections == null) {
+            return 0;
+        }
+        int closing = 0;
+        for (Connection connection : connections) {
+            if (shouldClose.test(connection.userId)) {
+                connection.closeAfterDrain = true;
+                scheduleDrain(connection);
+                closing++;
+            }
+        }
+        return closing;
+    }
+
+    /**
+     * 여행 구독자가 있는지 확인
+     */
+    public boolean hasTripSubscribers(Long tripId) {
+        Set<Connection> connections = tripConnections.get(tripId);
+        return connections != null && !connections.isEmpty();
     }
 
     /**
      * 연결 여부 확인
      */
     public boolean isConnected(Long userId) {
-        return emitters.containsKey(userId);
+        Set<Connection> connections = shardOf(userId).connections.get(userId);
+        return connections != null && !connections.isEmpty();
     }
 
     /**
-     * 현재 연결 수
+     * 현재 연결 수 (이 노드 기준, 탭/기기별 연결 모두 포함)
      */
     public int getConnectionCount() {
-        return emitters.size();
+        return connectionCount.get();
+    }
+
+    /**
+     * 연결된 사용자 수 (이 노드 기준)
+     */
+    public int getUserCount() {
+        int users = 0;
+        for (Shard shard : shards) {
+            users += shard.connections.size();
+        }
+        return users;
+    }
+
+    /**
+     * 이 노드에 연결된 사용자 id 목록 (presence 갱신용)
+     */
+    public List<Long> getConnectedUserIds() {
+        List<Long> userIds = new ArrayList<>();
+        for (Shard shard : shards) {
+            userIds.addAll(shard.connections.keySet());
+        }
+        return userIds;
+    }
+
+    /**
+     * 전송 대기 중인 이벤트 수 (이 노드 기준, 메모리 사용량 지표)
+     */
+    public long getQueuedEventCount() {
+        LongAdder queued = new LongAdder();
+        forEachConnection(connection -> queued.add(connection.queue.size()));
+        return queued.sum();
     }
 
     /**
-     * 연결 강제 종료
+     * 연결 강제 종료 (사용자의 모든 연결)
      */
     public void disconnect(Long userId) {
-        SseEmitter emitter = emitters.remove(userId);
-        if (emitter != null) {
-            emitter.complete();
-            log.info("SSE 연결 강제 종료: userId={}", userId);
+        Set<Connection> connections = shardOf(userId).connections.remove(userId);
+        if (connections != null) {
+            for (Connection connection : connections) {
+                if (connection.closed.compareAndSet(false, true)) {
+                    connectionCount.decrementAndGet();
+                }
+                connection.emitter.complete();
+            }
+            log.info("SSE 연결 강제 종료: userId={}, 연결 수: {}", userId, connections.size());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * 종료 시 연결 드레이닝
+     *
+     * 모든 연결에 흩어진 retry 힌트를 큐잉하고, 큐가 비면 연결을 닫는다.
+     * timeout-ms 안에 닫히지 않은 연결은 강제로 닫는다.
+     */
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        int total = connectionCount.get();
+        if (total == 0) {
+            return;
+        }
+        log.info("🔌 SSE 연결 드레이닝 시작 - 연결 수: {}, 재연결 분산: {}ms", total, shutdownSpreadMs);
+
+        forEachConnection(connection -> {
+            connection.closeAfterDrain = true;
+            enqueue(connection, SseEmitter.event()
+                    .name("reconnect")
+                    .reconnectTime(jitter(retryBaseMs, shutdownSpreadMs))
+                    .data("서버 재시작 중")
+                    .build());
+        });
+
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+        while (connectionCount.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int remaining = connectionCount.get();
+        forEachConnection(this::close);
+        log.info("🔌 SSE 연결 드레이닝 완료 - 정상 종료: {}, 강제 종료: {}", total - remaining, remaining);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 웹 서버 graceful shutdown(요청 완료 대기)보다 먼저 멈춰야 열린 SSE 요청 때문에 종료가 지연되지 않음
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    private static long jitter(long base, long spread) {
+        return spread > 0 ? base + ThreadLocalRandom.current().nextLong(spread) : base;
+    }
+
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(String text) {
+        return Set.of(new ResponseBodyEmitter.DataWithMediaType(
+                text.getBytes(StandardCharsets.UTF_8), MediaType.TEXT_PLAIN));
+    }
+
+    private void forEachConnection(Consumer<Connection> action) {
+        for (Shard shard : shards) {
+            for (Set<Connection> connections : shard.connections.values()) {
+                connections.forEach(action);
+            }
+        }
+        for (Set<Connection> connections : tripConnections.values()) {
+            connections.forEach(action);
+        }
+    }
+
+    private void enqueue(Connection connection, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.queue.offer(event)) {
+            // 느린 소비자: 기다리지 않고 연결을 끊는다 (클라이언트 재연결 시 다시 받음)
+            dropped.increment();
+            log.warn("⚠️ SSE 전송 큐 포화 - 연결 종료: userId={}, connectionId={}, capacity={}",
+                    connection.userId, connection.id, queueCapacity);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            // 디스패치 풀 포화 → 이벤트는 큐에 남겨 두고 다음 전송/heartbeat 때 재시도
+            connection.draining.set(false);
+            log.warn("⚠️ SSE 디스패치 풀 포화: userId={}, connectionId={}", connection.userId, connection.id);
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!connection.closed.get() && (event = connection.queue.poll()) != null) {
+                try {
+                    send(connection, event);
+                    sent.increment();
+                } catch (IOException | RuntimeException e) {
+                    failed.increment();
+                    log.error("❌ SSE 전송 실패: userId={}, connectionId={}", connection.userId, connection.id);
+                    close(connection);
+                    return;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+        if (connection.closeAfterDrain && connection.queue.isEmpty()) {
+            close(connection);
+            return;
+        }
+        // drain 종료 직후 들어온 이벤트 처리
+        if (!connection.closed.get() && !connection.queue.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * 쓰기 시작/종료를 기록해 closeStalledWrites 가 멈춘 쓰기를 찾을 수 있게 함
+     */
+    private void send(Connection connection, Set<ResponseBodyEmitter.DataWithMediaType> event) throws IOException {
+        synchronized (connection.sendLock) {
+            connection.sendStartedAt = System.currentTimeMillis();
+            connection.sender = Thread.currentThread();
+        }
+        try {
+            connection.emitter.send(event);
+        } finally {
+            synchronized (connection.sendLock) {
+                connection.sender = null;
+                // 쓰기가 끝난 직후 도착한 interrupt 가 다음 작업으로 새지 않도록 지움
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        unregister(connection);
+        try {
+            connection.emitter.complete();
+        } catch (Exception ignored) {
+            // 이미 종료된 연결
+        }
+    }
+
+    private void register(Connection connection) {
+        // compute 안에서 추가해야 동시에 진행되는 unregister(빈 Set 제거)와 엇갈리지 않음
+        registryOf(connection).compute(connection.key(), (id, connections) -> {
+            Set<Connection> target = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            target.add(connection);
+            return target;
+        });
+        connectionCount.incrementAndGet();
+    }
+
+    private void unregister(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        connection.queue.clear();
+        registryOf(connection).computeIfPresent(connection.key(), (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private Map<Long, Set<Connection>> registryOf(Connection connection) {
+        return connection.tripId != null ? tripConnections : shardOf(connection.userId).connections;
+    }
+
+    private Shard shardOf(Long userId) {
+        int hash = Long.hashCode(userId);
+        return shards[(hash ^ (hash >>> 16)) & (SHARD_COUNT - 1)];
+    }
+
+    private static final class Shard {
+        private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    }
+
+    private static final class Connection {
+        private final long id;
+        private final Long userId;
+        private final Long tripId;    // 여행 구독 연결이면 tripId, 알림 연결이면 null
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // 종료 드레이닝: 큐를 모두 보낸 뒤 연결 종료
+        private volatile boolean closeAfterDrain;
+        // 진행 중인 쓰기 (쓰기 정지 감시용, sendLock 으로 보호)
+        private final Object sendLock = new Object();
+        private Thread sender;
+        private long sendStartedAt;
+
+        private Connection(long id, Long userId, Long tripId, SseEmitter emitter, int queueCapacity) {
+            this.id = id;
+            this.userId = userId;
+            this.tripId = tripId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        Long key() {
+            return tripId != null ? tripId : userId;
         }
     }
 }
@@ -13,10 +13,22 @@ import forproject.spring_oauth2_jwt.repository.*;
 import jakarta.validation.constraints.Email;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,19 +40,34 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class TravelInvitationService {
 
+    private static final String INSERT_INVITATION_SQL =
+            "INSERT INTO travel_invitations (trip_id, inviter_id, invited_email, user_id, token, status, created_at, expires_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final TravelPlanRepository travelPlanRepository;
     private final UserRepository userRepository;
     private final TravelInvitationRepository travelInvitationRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private final NotificationRepository notificationRepository;
     private final SseService sseService;
     private final NotificationService notificationService;
     private final TravelParticipantRepository travelParticipantRepository;
+    private final TripMembershipCache tripMembershipCache;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
-     * 여행 초대 이메일 전송
+     * 여행 초대 일괄 생성
+     *
+     * <p><b>쿼리 수 (초대 인원과 무관)</b></p>
+     * <pre>
+     * 1. 이미 PENDING 초대가 있는 이메일 조회 (IN 1회)
+     * 2. 회원 조회 (IN 1회)
+     * 3. 초대 JDBC 배치 INSERT 1회
+     * 4. 회원 알림 → 커밋 직전 배치 INSERT 1회 (NotificationWriter), 커밋 후 SSE 발행
+     * 5. 초대 메일 → email_outbox 배치 INSERT 1회, 커밋 후 디스패처가 발송
+     * </pre>
      */
-//    @Transactional
+    @Transactional
     public void createInvitations(Long tripId, Long inviterId, List<String> inviteEmails) {
         log.info("초대 생성 시작: tripId={}, inviterId={}, emailCount={}", tripId, inviterId, inviteEmails.size());
         TravelPlanEntity trip = travelPlanRepository.findById(tripId)
@@ -61,60 +88,117 @@ public class TravelInvitationService {
                     );
                 });
 
+        // 요청 안의 중복 제거 (DB 이메일 비교는 대소문자 무시이므로 동일하게 맞춤)
+        Map<String, String> emailByKey = new LinkedHashMap<>();
         for (String email : inviteEmails) {
-            // 중복 초대 방지
-            if (travelInvitationRepository.existsByTripIdAndInvitedEmailAndStatus(
-                    tripId, email, InvitationStatus.PENDING)) {
-                log.warn("⚠️ 이미 초대된 이메일: {}", email);
-                continue;
+            if (email != null && !email.isBlank()) {
+                emailByKey.putIfAbsent(email.trim().toLowerCase(), email.trim());
             }
+        }
+        if (emailByKey.isEmpty()) {
+            return;
+        }
 
-            // 회원 여부 확인
-            UserEntity existingUser = userRepository.findByEmail(email);
-            boolean isExistingMember = (existingUser != null);
+        // 중복 초대 방지
+        Set<String> alreadyInvited = travelInvitationRepository
+                .findInvitedEmailsByTripIdAndStatus(tripId, InvitationStatus.PENDING, emailByKey.values())
+                .stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        if (!alreadyInvited.isEmpty()) {
+            log.warn("⚠️ 이미 초대된 이메일 제외 - 수: {}", alreadyInvited.size());
+            emailByKey.keySet().removeAll(alreadyInvited);
+            if (emailByKey.isEmpty()) {
+                return;
+            }
+        }
 
-            // 토큰 생성
-            String token = UUID.randomUUID().toString();
+        // 회원 여부 확인
+        Map<String, Long> memberIdByKey = new HashMap<>();
+        for (UserEntity user : userRepository.findByEmailIn(emailByKey.values())) {
+            memberIdByKey.putIfAbsent(user.getEmail().toLowerCase(), user.getId());
+        }
 
-            // 만료 시간 계산 (Service에서 명시적 설정)
-            LocalDateTime expiresAt = LocalDateTime.now().plusDays(7);
+        // 만료 시간 계산 (Service에서 명시적 설정)
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusDays(7);
 
-            // TravelInvitation 생성
-            TravelInvitation invitation = TravelInvitation.builder()
+        List<TravelInvitation> invitations = new ArrayList<>(emailByKey.size());
+        for (Map.Entry<String, String> entry : emailByKey.entrySet()) {
+            invitations.add(TravelInvitation.builder()
                     .tripId(tripId)
                     .inviterId(inviterId)
-                    .invitedEmail(email)
-                    .userId(isExistingMember ? existingUser.getId() : null)
-                    .token(token)
+                    .invitedEmail(entry.getValue())
+                    .userId(memberIdByKey.get(entry.getKey()))
+                    .token(UUID.randomUUID().toString())
                     .status(InvitationStatus.PENDING)
-                    .expiresAt(expiresAt)  // ✅ Service에서 명시적 설정
-                    .build();
+                    .createdAt(now)
+                    .expiresAt(expiresAt)
+                    .build());
+        }
+        insertInvitations(invitations);
 
-            travelInvitationRepository.save(invitation);
-            if (isExistingMember) {
+        Map<String, String> tokenByEmail = new LinkedHashMap<>();
+        for (TravelInvitation invitation : invitations) {
+            if (invitation.getUserId() != null) {
                 notificationService.createAndSend(
-                        existingUser.getId(),
+                        invitation.getUserId(),
                         NotificationType.INVITATION,
                         "여행 초대",
                         String.format("%s님이 '%s' 여행에 초대했습니다.",
                                 inviter.getName(), trip.getTitle()),
-                        token  // relatedData에 토큰 저장
+                        invitation.getToken(),  // relatedData에 토큰 저장
+                        tripId,
+                        invitation.getId()
                 );
             }
+            tokenByEmail.put(invitation.getInvitedEmail(), invitation.getToken());
+        }
 
-            log.info("✅ 초대 저장 완료 - email: {}, 회원 여부: {}", email, isExistingMember);
+        // 이메일 발송은 커밋 후 outbox 디스패처가 처리 (SMTP 지연/장애가 초대 요청에 영향 없음)
+        emailOutboxService.enqueueInvitations(inviter.getName(), trip.getTitle(), tokenByEmail);
 
-            // 이메일 발송 (회원/비회원 분기)
-            log.info("title = {}",trip.getTitle());
-            try {
-                emailService.sendInvitationEmail(
-                        email,
-                        inviter.getName(),
-                        trip.getTitle()
-                );
-                log.info("📧 초대 이메일 발송 완료: {}", email);
-            } catch (Exception e) {
-                log.error("❌ 이메일 발송 실패: {}, 에러: {}", email, e.getMessage());
+        log.info("✅ 초대 저장 완료 - tripId: {}, 초대 수: {}, 회원 수: {}",
+                tripId, invitations.size(), memberIdByKey.size());
+    }
+
+    /**
+     * 초대 JDBC 배치 INSERT (생성된 id 를 엔티티에 채움 → 알림 relatedEntityId 로 사용)
+     *
+     * 드라이버 속성 rewriteBatchedStatements=true 일 때 다중 행 INSERT 1개로 전송되며
+     * (docker-compose*.yml 의 datasource 설정, 없으면 행마다 INSERT), 생성 키는 어느 쪽이든 행 순서대로 돌려받음
+     */
+    private void insertInvitations(List<TravelInvitation> invitations) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_INVITATION_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        TravelInvitation invitation = invitations.get(i);
+                        ps.setLong(1, invitation.getTripId());
+                        ps.setLong(2, invitation.getInviterId());
+                        ps.setString(3, invitation.getInvitedEmail());
+                        ps.setObject(4, invitation.getUserId(), Types.BIGINT);
+                        ps.setString(5, invitation.getToken());
+                        ps.setString(6, invitation.getStatus().name());
+                        ps.setTimestamp(7, Timestamp.valueOf(invitation.getCreatedAt()));
+                        ps.setTimestamp(8, Timestamp.valueOf(invitation.getExpiresAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return invitations.size();
+                    }
+                },
+                keyHolder
+        );
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < invitations.size() && i < keys.size(); i++) {
+            Object id = keys.get(i).values().stream().findFirst().orElse(null);
+            if (id instanceof Number number) {
+                invitations.get(i).setId(number.longValue());
             }
         }
     }
@@ -144,6 +228,7 @@ public class TravelInvitationService {
                 .build();
 
         travelParticipantRepository.save(participant);
+        tripMembershipCache.evict(invitation.getTripId());
         log.info("✅ 참여자 등록 완료 - tripId: {}, userId: {}, role: MEMBER",
                 invitation.getTripId(), userId);
 
@@ -152,7 +237,7 @@ public class TravelInvitationService {
         invitation.setAcceptedAt(LocalDateTime.now());
 
         // 6. 관련 알림 읽음 처리
-        notificationService.markAsReadByRelatedData(userId, token);
+        notificationService.markAsReadByRelatedEntity(userId, invitation.getTripId(), invitation.getId());
 
         log.info("✅ 초대 수락 완료 - invitationId: {}", invitation.getId());
         return InvitationAcceptResponse.fromEntity(invitation);
@@ -177,7 +262,7 @@ public class TravelInvitationService {
         invitation.setStatus(InvitationStatus.REJECTED);
 
         // 4. 관련 알림 읽음 처리
-        notificationService.markAsReadByRelatedData(userId, token);
+        notificationService.markAsReadByRelatedEntity(userId, invitation.getTripId(), invitation.getId());
 
         log.info("✅ 초대 거절 완료 - invitationId: {}", invitation.getId());
         return InvitationRejectResponse.fromEntity(invitation);    }
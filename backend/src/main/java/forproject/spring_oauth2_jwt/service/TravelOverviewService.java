@@ -3,7 +3,6 @@ package forproject.spring_oauth2_jwt.service;
 import forproject.spring_oauth2_jwt.annotation.RequiresTripParticipant;
 import forproject.spring_oauth2_jwt.dto.response.TravelOverviewResponse;
 import forproject.spring_oauth2_jwt.entity.*;
-import forproject.spring_oauth2_jwt.enums.TradeType;
 import forproject.spring_oauth2_jwt.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +13,6 @@ import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +21,7 @@ import java.util.stream.Collectors;
 public class TravelOverviewService {
 
     private final TravelPlanRepository travelPlanRepository;
-    private final SharedFundRepository sharedFundRepository;
-    private final SharedFundTradeRepository sharedFundTradeRepository;
-    private final IndividualExpenseRepository individualExpenseRepository;
+    private final TripSpendingRollupService tripSpendingRollupService;
     private final TravelChecklistRepository travelChecklistRepository;
     private final TravelActivityRepository travelActivityRepository;
     private final PhotoAlbumRepository photoAlbumRepository;
@@ -126,27 +122,8 @@ public class TravelOverviewService {
     private TravelOverviewResponse.BudgetStatus calculateBudgetStatus(Long tripId, Long estimatedCost) {
         Long totalBudget = estimatedCost != null ? estimatedCost : 0;
 
-        // 공동경비 지출 합계
-        long sharedExpense = 0L;
-        Optional<SharedFund> sharedFundOpt = sharedFundRepository.findByTripId(tripId);
-        if (sharedFundOpt.isPresent()) {
-            Long sharedFundId = sharedFundOpt.get().getId();
-            List<SharedFundTrade> trades = sharedFundTradeRepository
-                    .findBySharedFundIdAndTradeType(sharedFundId, TradeType.EXPENSE);
-            sharedExpense = trades.stream()
-                    .mapToLong(SharedFundTrade::getAmount)
-                    .sum();
-        }
-
-        // 개별정산 지출 합계
-        List<IndividualExpense> individualExpenses = individualExpenseRepository
-                .findByTripIdOrderByExpenseDateDesc(tripId);
-        long individualExpense = individualExpenses.stream()
-                .mapToLong(IndividualExpense::getTotalAmount)
-                .sum();
-
-        // 총 사용 금액
-        long spentAmount = sharedExpense + individualExpense;
+        // 총 사용 금액 (개별정산 + 공동경비, 지출 롤업의 여행 전체 합계 행)
+        long spentAmount = tripSpendingRollupService.getSpentTotal(tripId);
 
         // 남은 예산
         long remainingBudget = totalBudget - spentAmount;
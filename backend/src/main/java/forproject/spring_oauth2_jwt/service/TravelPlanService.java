@@ -7,6 +7,7 @@ import forproject.spring_oauth2_jwt.dto.request.*;
 import forproject.spring_oauth2_jwt.dto.response.*;
 import forproject.spring_oauth2_jwt.entity.*;
 import forproject.spring_oauth2_jwt.enums.BudgetLevel;
+import forproject.spring_oauth2_jwt.enums.TripEventType;
 import forproject.spring_oauth2_jwt.enums.TravelStyle;
 import forproject.spring_oauth2_jwt.exception.ForbiddenException;
 import forproject.spring_oauth2_jwt.exception.ResourceNotFoundException;
@@ -22,7 +23,6 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -44,6 +44,8 @@ public class TravelPlanService {
     private final PhotoAlbumRepository photoAlbumRepository;
     private final TravelInvitationRepository travelInvitationRepository;
     private final TravelInvitationService travelInvitationService;
+    private final TripMembershipCache tripMembershipCache;
+    private final TripEventPublisher tripEventPublisher;
 
 
 
@@ -112,6 +114,7 @@ public class TravelPlanService {
                     .build();
 
             travelParticipantRepository.save(participant);
+            tripMembershipCache.evict(saved.getId());
 
             if (req.getInviteEmails() != null && !req.getInviteEmails().isEmpty()) {
                 log.info("📧 초대 이메일 발송 시작 - 수: {}", req.getInviteEmails().size());
@@ -186,7 +189,7 @@ public class TravelPlanService {
 
         // 변경: OWNER이거나 PARTICIPANT인지 확인
         boolean isOwner = plan.getUser().getId().equals(userId);
-        boolean isParticipant = travelParticipantRepository.existsByTripIdAndUserId(tripId, userId);
+        boolean isParticipant = tripMembershipCache.isMember(tripId, userId);
 
         if (!isOwner && !isParticipant) {
             log.warn("여행 계획 조회 실패 - 권한 없음: tripId={}, ownerId={}, requesterId={}",
@@ -242,6 +245,7 @@ public class TravelPlanService {
         travelPlanEntity.setVisibility(req.getVisibility());
 
         TravelPlanEntity save = travelPlanRepository.save(travelPlanEntity);
+        tripEventPublisher.publish(tripId, TripEventType.TRIP_UPDATED, tripId, userId);
 
         TravelPlanResponse travelPlanResponse = new TravelPlanResponse();
         travelPlanResponse.setTitle(save.getTitle());
@@ -280,6 +284,9 @@ public class TravelPlanService {
 
         // 3. 논리적 삭제 (isDeleted 플래그를 true로 변경)
         travelPlanEntity.setDeleted(true);
+        // 커밋 후 구독자에게 삭제 알림 → 구독 연결 종료, 멤버십 캐시 무효화 (삭제된 여행은 참여자 없음)
+        tripEventPublisher.publish(tripId, TripEventType.TRIP_DELETED, tripId, userId);
+        tripMembershipCache.evict(tripId);
         log.info("✓ 여행 계획 삭제 완료: tripId={}, userId={}", tripId, userId);
         // @Transactional 어노테이션에 의해 메소드 종료 시 자동으로 DB에 반영됩니다.
     }
@@ -313,7 +320,7 @@ public class TravelPlanService {
         TravelStatisticsDTO statisticsDTO = calculateStatistics(tripId, trip.getEstimatedCost());
 
         // 현재 사용자 권한 확인
-        String currentUserRole = getCurrentUserRole(tripId, userId);
+        String currentUserRole = getCurrentUserRole(participants, userId);
         boolean isOwner = "OWNER".equals(currentUserRole) || trip.getUser().getId().equals(userId);
 
         // 상태 계산
@@ -395,9 +402,12 @@ public class TravelPlanService {
     /**
      * 현재 사용자의 역할 조회
      */
-    private String getCurrentUserRole(Long tripId, Long userId) {
-        return travelParticipantRepository.findByTripIdAndUserId(tripId, userId)
+    private String getCurrentUserRole(List<TravelParticipant> participants, Long userId) {
+        // 이미 조회한 참여자 목록에서 찾음 (추가 쿼리 없음)
+        return participants.stream()
+                .filter(participant -> participant.getUserId().equals(userId))
                 .map(TravelParticipant::getRole)
+                .findFirst()
                 .orElse(null);
     }
 
@@ -407,10 +417,7 @@ public class TravelPlanService {
     @Transactional(readOnly = true)
     public List<ItineraryResponse> getItineraries(Long tripId,Long user) {
 
-        Optional<TravelParticipant> participantOpt =
-                travelParticipantRepository.findByTripIdAndUserId(tripId, user);
-
-        if (participantOpt.isEmpty()) {
+        if (!tripMembershipCache.isMember(tripId, user)) {
             log.warn("일정 조회 실패 - 참여자 아님: tripId={}, userId={}", tripId, user);
             throw new ForbiddenException(
                     "여행 참여자만 일정을 조회할 수 있습니다",
@@ -485,15 +492,13 @@ public class TravelPlanService {
                 });
 
         // 2. 참여자 권한 확인
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> {
-                    log.warn("앨범 생성 실패 - 참여자 아님: tripId={}, userId={}", tripId, userId);
-                    return new ForbiddenException(
-                            "여행 참여자만 앨범을 생성할 수 있습니다",
-                            String.format("Not a participant: tripId=%d, userId=%d", tripId, userId)
-                    );
-                });
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            log.warn("앨범 생성 실패 - 참여자 아님: tripId={}, userId={}", tripId, userId);
+            throw new ForbiddenException(
+                    "여행 참여자만 앨범을 생성할 수 있습니다",
+                    String.format("Not a participant: tripId=%d, userId=%d", tripId, userId)
+            );
+        }
 
         // 3. 앨범 생성
         PhotoAlbum album = PhotoAlbum.builder()
@@ -533,9 +538,9 @@ public class TravelPlanService {
         }
 
         // 3. 참여자 권한 확인
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 사진을 업로드할 수 있습니다."));
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new RuntimeException("여행 참여자만 사진을 업로드할 수 있습니다.");
+        }
 
         // 4. MinIO에 원본 + 썸네일 업로드
         ImageUploadResponse uploadResult = imageUploadService.uploadImageWithThumbnail(
@@ -571,9 +576,9 @@ public class TravelPlanService {
      */
     @Transactional
     public List<AlbumResponse> getAlbumsWithPhotos(Long tripId, Long userId) {
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 앨범을 조회할 수 있습니다."));
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new RuntimeException("여행 참여자만 앨범을 조회할 수 있습니다.");
+        }
 
         List<PhotoAlbum> albums = photoAlbumRepository.findByTripIdOrderByAlbumDateDesc(tripId);
 
@@ -629,9 +634,9 @@ public class TravelPlanService {
                 .orElseThrow(() -> new RuntimeException("앨범을 찾을 수 없습니다."));
 
         // 👮 권한 검증: 해당 여행의 참여자인지 확인
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(album.getTripId(), userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 사진을 조회할 수 있습니다."));
+        if (!tripMembershipCache.isMember(album.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 사진을 조회할 수 있습니다.");
+        }
 
         // 2. 사진 조회
         List<TravelPhoto> photos = photoRepository.findByAlbumIdOrderByCreatedAtDesc(albumId);
@@ -685,9 +690,9 @@ public class TravelPlanService {
         }
 
         // 3. 권한 확인
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 앨범을 삭제할 수 있습니다."));
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new RuntimeException("여행 참여자만 앨범을 삭제할 수 있습니다.");
+        }
 
         // 4. 해당 앨범의 사진들 조회
         List<TravelPhoto> photos = photoRepository.findByAlbumIdOrderByCreatedAtDesc(albumId);
@@ -819,6 +824,7 @@ public class TravelPlanService {
                 .build();
 
         checklist = checklistRepository.save(checklist);
+        tripEventPublisher.publish(tripId, TripEventType.CHECKLIST_CREATED, checklist.getId(), currentUserId);
 
         UserEntity assignee = checklist.getAssigneeUserId() != null
                 ? userRepository.findById(checklist.getAssigneeUserId()).orElse(null)
@@ -863,8 +869,9 @@ public class TravelPlanService {
      */
     @Transactional
     public ChecklistResponse createChecklist(ChecklistCreateRequestDTO request, Long userId){
-        TravelParticipant member = participantRepository.findByTripIdAndUserId(request.getTripId(),
-                        userId).orElseThrow(() -> new RuntimeException("여행 참여자만 체크리스트를 추가할 수 있습니다"));
+        if (!tripMembershipCache.isMember(request.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 체크리스트를 추가할 수 있습니다");
+        }
 
         // 자동으로 마지막 순서 + 1로 설정 (활동과 동일한 로직)
         try {
@@ -880,6 +887,7 @@ public class TravelPlanService {
                     .build();
 
             TravelChecklist saved = checklistRepository.save(checklist);
+            tripEventPublisher.publish(saved.getTripId(), TripEventType.CHECKLIST_CREATED, saved.getId(), userId);
 
             UserEntity assignee = null;
             if (saved.getAssigneeUserId() != null) {
@@ -898,7 +906,9 @@ public class TravelPlanService {
         TravelChecklist checklist =
                 checklistRepository.findById(checklistId)
                         .orElseThrow(() -> new RuntimeException("체크리스트를 찾을 수 없습니다."));
-        TravelParticipant member = participantRepository.findByTripIdAndUserId(checklist.getTripId(), userId).orElseThrow(() -> new RuntimeException("여행 참여자만 체크리스트를 수정할 수 있습니다."));
+        if (!tripMembershipCache.isMember(checklist.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 체크리스트를 수정할 수 있습니다.");
+        }
         Boolean currentValue = checklist.getCompleted();
         checklist.setCompleted(!currentValue);
 
@@ -907,6 +917,7 @@ public class TravelPlanService {
         }else {
             checklist.setCompletedAt(null);
         }
+        tripEventPublisher.publish(checklist.getTripId(), TripEventType.CHECKLIST_UPDATED, checklistId, userId);
 
         return UpdateChecklistResponse.fromEntity(checklist);
     }
@@ -917,14 +928,15 @@ public class TravelPlanService {
                 .orElseThrow(() -> new RuntimeException("체크리스트를 찾을 수 없습니다."));
 
         // 2️⃣ 사용자 검증 (여행 참여자인지 확인)
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(target.getTripId(), userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 삭제할 수 있습니다."));
+        if (!tripMembershipCache.isMember(target.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 삭제할 수 있습니다.");
+        }
 
         Long tripId = target.getTripId();
         Integer deletedOrder = target.getDisplayOrder();
 
         checklistRepository.delete(target);
+        tripEventPublisher.publish(tripId, TripEventType.CHECKLIST_DELETED, checklistId, userId);
 
         List<TravelChecklist> remaining = checklistRepository.findByTripIdOrderByDisplayOrderAsc(tripId);
         for (TravelChecklist c : remaining) {
@@ -942,8 +954,9 @@ public class TravelPlanService {
 
     @Transactional
     public ItineraryCreateResponseDTO createItinerary(ItineraryCreateRequestDTO request, Long userId) {
-        TravelParticipant member = participantRepository.findByTripIdAndUserId(request.getTripId(),
-                userId).orElseThrow(() -> new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다"));
+        if (!tripMembershipCache.isMember(request.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다");
+        }
 
         TravelItinerary build = TravelItinerary.builder()
                 .tripId(request.getTripId())
@@ -952,6 +965,7 @@ public class TravelPlanService {
                 .build();
 
         TravelItinerary saved = travelItineraryRepository.save(build);
+        tripEventPublisher.publish(saved.getTripId(), TripEventType.ITINERARY_CREATED, saved.getId(), userId);
 
         return ItineraryCreateResponseDTO.fromEntity(saved);
     }
@@ -959,9 +973,12 @@ public class TravelPlanService {
     @Transactional
     public DeleteItineraryResponse deleteItineraries(Long id, Long userId) {
         TravelItinerary travelItinerary = travelItineraryRepository.findById(id).orElseThrow(() -> new RuntimeException("일정이 존재하지 않습니다."));
-        TravelParticipant participant = travelParticipantRepository.findByTripIdAndUserId(travelItinerary.getTripId(), userId).orElseThrow(() -> new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다"));
+        if (!tripMembershipCache.isMember(travelItinerary.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다");
+        }
 
         travelItineraryRepository.delete(travelItinerary);
+        tripEventPublisher.publish(travelItinerary.getTripId(), TripEventType.ITINERARY_DELETED, id, userId);
         return DeleteItineraryResponse.fromEntity(travelItinerary);
     }
 
@@ -975,7 +992,9 @@ public class TravelPlanService {
     @Transactional
     public ActivityResponse createActivities(ActivityCreateRequest request, Long userId) {
         TravelItinerary itinerary = travelItineraryRepository.findById(request.getItineraryId()).orElseThrow(() -> new RuntimeException("유효한 일정이 아닙니다."));
-        TravelParticipant participant = travelParticipantRepository.findByTripIdAndUserId(itinerary.getTripId(), userId).orElseThrow(() -> new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다"));
+        if (!tripMembershipCache.isMember(itinerary.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 일정을 추가할 수 있습니다");
+        }
 
         try {
             Integer maxOrder = activityRepository.findMaxDisplayOrderByItineraryId(request.getItineraryId())
@@ -994,6 +1013,7 @@ public class TravelPlanService {
                     .build();
 
             TravelActivity saved = activityRepository.save(activity);
+            tripEventPublisher.publish(itinerary.getTripId(), TripEventType.ACTIVITY_CREATED, saved.getId(), userId);
 
             return ActivityResponse.fromEntity(saved);
         } catch (DataIntegrityViolationException e) {
@@ -1009,9 +1029,9 @@ public class TravelPlanService {
                 .orElseThrow(() -> new RuntimeException("일정을 찾을 수 없습니다."));
 
         // 3. 권한 검증
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(itinerary.getTripId(), userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 활동을 수정할 수 있습니다."));
+        if (!tripMembershipCache.isMember(itinerary.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 활동을 수정할 수 있습니다.");
+        }
 
         if (request.getTime() != null) {
             activity.setTime(request.getTime());
@@ -1034,6 +1054,7 @@ public class TravelPlanService {
         if (request.getNotes() != null) {
             activity.setNotes(request.getNotes());
         }
+        tripEventPublisher.publish(itinerary.getTripId(), TripEventType.ACTIVITY_UPDATED, activityId, userId);
 
         return ActivityUpdateResponse.fromEntity(activity);
     }
@@ -1049,15 +1070,16 @@ public class TravelPlanService {
                 .orElseThrow(() -> new RuntimeException("일정을 찾을 수 없습니다."));
 
         // 3. 권한 검증
-        TravelParticipant participant = participantRepository
-                .findByTripIdAndUserId(itinerary.getTripId(), userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 활동을 삭제할 수 있습니다."));
+        if (!tripMembershipCache.isMember(itinerary.getTripId(), userId)) {
+            throw new RuntimeException("여행 참여자만 활동을 삭제할 수 있습니다.");
+        }
 
         // 4. Response 준비 (삭제 전)
         DeleteActivityResponse response = DeleteActivityResponse.fromEntity(activity);
 
         // 5. 활동 삭제
         activityRepository.delete(activity);
+        tripEventPublisher.publish(itinerary.getTripId(), TripEventType.ACTIVITY_DELETED, activityId, userId);
 
         // 6. Response 반환
         return response;
@@ -1071,8 +1093,9 @@ public class TravelPlanService {
         log.info("외화 설정 조회 - tripId: {}, userId: {}", tripId, userId);
 
         // 권한 검증
-        participantRepository.findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 조회할 수 있습니다."));
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new RuntimeException("여행 참여자만 조회할 수 있습니다.");
+        }
 
         TravelPlanEntity trip = travelPlanRepository.findById(tripId)
                 .orElseThrow(() -> new RuntimeException("여행을 찾을 수 없습니다."));
@@ -1094,8 +1117,9 @@ public class TravelPlanService {
                 tripId, userId, request.getForeignCurrency(), request.getExchangeRate());
 
         // 권한 검증
-        participantRepository.findByTripIdAndUserId(tripId, userId)
-                .orElseThrow(() -> new RuntimeException("여행 참여자만 수정할 수 있습니다."));
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new RuntimeException("여행 참여자만 수정할 수 있습니다.");
+        }
 
         TravelPlanEntity trip = travelPlanRepository.findById(tripId)
                 .orElseThrow(() -> new RuntimeException("여행을 찾을 수 없습니다."));
@@ -1103,6 +1127,7 @@ public class TravelPlanService {
         trip.setForeignCurrency(request.getForeignCurrency());
         trip.setExchangeRate(request.getExchangeRate());
         travelPlanRepository.save(trip);
+        tripEventPublisher.publish(tripId, TripEventType.CURRENCY_UPDATED, tripId, userId);
 
         log.info("외화 설정 저장 완료 - tripId: {}", tripId);
 
@@ -0,0 +1,293 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.entity.ExpenseParticipant;
+import forproject.spring_oauth2_jwt.entity.IndividualExpense;
+import forproject.spring_oauth2_jwt.entity.Settlement;
+import forproject.spring_oauth2_jwt.util.LongRowAggregator;
+import forproject.spring_oauth2_jwt.util.LongSumAggregator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 여행별 · 사용자별 정산 잔액 장부 (trip_balance)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 정산 요약 조회 때마다 ExpenseParticipant 전체를 fetch join(지출 · 형제 참여자까지 곱해짐)하고
+ * 정산 쿼리 2회를 더 실행해 잔액을 처음부터 다시 계산하던 것을,
+ * 쓰기 시점에 증감해 둔 장부 한 번 읽기(trip_id 인덱스)로 바꾼다.
+ * </pre>
+ *
+ * <p><b>증감 (호출한 쪽 트랜잭션 안)</b></p>
+ * <pre>
+ * - 지출 등록:  참여자별 +owedAmount
+ * - 정산 생성:  보낸 사람 +amount, 받은 사람 -amount (PENDING/APPROVED 모두 반영)
+ * - 정산 승인:  PENDING → APPROVED 는 잔액 변화 없음
+ * - 정산 거절:  생성 때 반영한 값 되돌림
+ * - 장부가 아직 없는 여행(배포 전 데이터)은 증감하지 않음 → 다음 조회 때 원본에서 생성
+ *   (장부 존재 확인은 FOR SHARE 잠금 읽기 → 동시에 커밋된 생성분을 놓치지 않음)
+ * </pre>
+ *
+ * <p><b>재계산 (rebuild)</b></p>
+ * <pre>
+ * 원본(지출 참여자 · 정산)을 FOR SHARE 로 읽어 집계 → 장부 행을 FOR UPDATE 로 잠그고 덮어씀
+ * 원본을 먼저 잠그므로 진행 중인 지출/정산 쓰기는 재계산 커밋 후 장부에 증감 → 누락/중복 없음
+ * 검증용 CLI: java -jar app.jar rebuild:balances [--trip=ID] [--dry-run]
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TripBalanceLedger {
+
+    private static final String UPSERT_DELTA_SQL =
+            "INSERT INTO trip_balance (trip_id, user_id, balance, updated_at) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE balance = balance + VALUES(balance), updated_at = VALUES(updated_at)";
+
+    private static final String UPSERT_ABSOLUTE_SQL =
+            "INSERT INTO trip_balance (trip_id, user_id, balance, updated_at) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE balance = VALUES(balance), updated_at = VALUES(updated_at)";
+
+    private static final String SELECT_BALANCES_SQL =
+            "SELECT user_id, balance FROM trip_balance WHERE trip_id = ?";
+
+    /**
+     * 잠금 읽기: 스냅샷이 아니라 최신 커밋 기준으로 보고, 진행 중인 재계산이 있으면 커밋까지 기다림
+     */
+    private static final String HAS_ROWS_FOR_SHARE_SQL =
+            "SELECT 1 FROM trip_balance WHERE trip_id = ? LIMIT 1 FOR SHARE";
+
+    private static final String HAS_SOURCE_SQL =
+            "SELECT EXISTS(SELECT 1 FROM individual_expense WHERE trip_id = ?) "
+                    + "OR EXISTS(SELECT 1 FROM settlement WHERE trip_id = ? AND status IN ('PENDING', 'APPROVED'))";
+
+    private static final String SUM_EXPENSES_SQL =
+            "SELECT p.user_id, SUM(p.owed_amount) FROM individual_expense e "
+                    + "JOIN expense_participant p ON p.expense_id = e.id "
+                    + "WHERE e.trip_id = ? GROUP BY p.user_id";
+
+    private static final String SUM_SETTLEMENTS_SQL =
+            "SELECT from_user_id, to_user_id, SUM(amount) FROM settlement "
+                    + "WHERE trip_id = ? AND status IN ('PENDING', 'APPROVED') "
+                    + "GROUP BY from_user_id, to_user_id";
+
+    private static final String TRIP_IDS_SQL =
+            "SELECT trip_id FROM individual_expense "
+                    + "UNION SELECT trip_id FROM settlement "
+                    + "UNION SELECT trip_id FROM trip_balance";
+
+    /**
+     * 재계산/검증 시 사용자별 행의 칸 (장부 값, 원본 집계 값)
+     */
+    private static final int STORED = 0;
+    private static final int COMPUTED = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public TripBalanceLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 등록된 지출의 참여자별 owedAmount 반영
+     */
+    public void applyExpense(IndividualExpense expense) {
+        LongSumAggregator deltas = new LongSumAggregator(expense.getParticipants().size());
+        for (ExpenseParticipant participant : expense.getParticipants()) {
+            // 개인지출(0원)도 행을 만들어 둠 → 장부가 만들어진 여행으로 판단
+            deltas.add(participant.getUserId(), participant.getOwedAmount());
+        }
+        apply(expense.getTripId(), deltas);
+    }
+
+    /**
+     * 생성된 정산 반영 (보낸 사람 +, 받은 사람 -)
+     */
+    public void applySettlement(Settlement settlement) {
+        apply(settlement.getTripId(), settlementDeltas(settlement, 1));
+    }
+
+    /**
+     * 거절된 정산 되돌림
+     */
+    public void revertSettlement(Settlement settlement) {
+        apply(settlement.getTripId(), settlementDeltas(settlement, -1));
+    }
+
+    /**
+     * 여행의 0 이 아닌 잔액 조회 (장부가 없으면 원본에서 생성 후 반환)
+     *
+     * 호출한 쪽이 읽기 전용 트랜잭션(REPEATABLE READ)이면 첫 SELECT 로 스냅샷이 고정되어,
+     * 별도 트랜잭션에서 생성·커밋한 장부를 다시 읽어도 보이지 않는다 → 재계산 결과(COMPUTED)를 그대로 사용
+     */
+    public LongSumAggregator getBalances(Long tripId) {
+        LongRowAggregator rows = new LongRowAggregator(2);
+        readBalances(tripId, rows, false);
+        int column = STORED;
+        if (rows.size() == 0 && hasSource(tripId)) {
+            log.info("🧮 정산 장부 생성 - tripId: {}", tripId);
+            rows = newTransaction.execute(status -> rebuildRows(tripId));
+            column = COMPUTED;
+        }
+
+        LongSumAggregator balances = new LongSumAggregator(rows.size());
+        for (int row = 0; row < rows.size(); row++) {
+            long balance = rows.valueAt(row, column);
+            if (balance != 0) {
+                balances.add(rows.keyAt(row), balance);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * 한 여행의 장부를 원본에서 다시 계산 (별도 트랜잭션)
+     */
+    public RebuildResult rebuild(Long tripId) {
+        return newTransaction.execute(status -> rebuildInternal(tripId));
+    }
+
+    /**
+     * 한 여행의 장부를 원본과 비교만 함 (쓰기 없음)
+     */
+    public RebuildResult verify(Long tripId) {
+        LongRowAggregator rows = new LongRowAggregator(2);
+        computeFromSource(tripId, rows, false);
+        readBalances(tripId, rows, false);
+        return new RebuildResult(tripId, rows.size(), countMismatches(rows));
+    }
+
+    /**
+     * 장부 또는 원본이 있는 모든 여행 ID
+     */
+    public List<Long> findAllTripIds() {
+        return jdbcTemplate.queryForList(TRIP_IDS_SQL, Long.class);
+    }
+
+    private void apply(Long tripId, LongSumAggregator deltas) {
+        if (deltas.size() == 0) {
+            return;
+        }
+        // 일반 SELECT 는 REPEATABLE READ 스냅샷이라, 스냅샷 이후 커밋된 지연 생성(getBalances)을 못 보고
+        // 증감을 건너뛰면 그 지출/정산은 장부에서 영구히 빠진다 → 잠금 읽기로 확인
+        if (jdbcTemplate.queryForList(HAS_ROWS_FOR_SHARE_SQL, Integer.class, tripId).isEmpty()) {
+            // 배포 전 데이터가 있을 수 있으므로 증감 대신 다음 조회 때 원본에서 생성
+            log.debug("정산 장부 없음 - 증감 생략: tripId={}", tripId);
+            return;
+        }
+
+        // user_id 순서로 잠가 동시 쓰기 간 교착 방지
+        long[] userIds = deltas.keys();
+        Arrays.sort(userIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(userIds.length);
+        for (long userId : userIds) {
+            batchArgs.add(new Object[]{tripId, userId, deltas.get(userId), now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, batchArgs);
+    }
+
+    private RebuildResult rebuildInternal(Long tripId) {
+        LongRowAggregator rows = rebuildRows(tripId);
+        return new RebuildResult(tripId, rows.size(), countMismatches(rows));
+    }
+
+    /**
+     * 원본에서 다시 계산해 장부를 덮어쓰고, 사용자별 [장부 값(이전), 원본 값] 행을 반환
+     */
+    private LongRowAggregator rebuildRows(Long tripId) {
+        // 원본 먼저 잠금 → 장부 잠금 (쓰기 경로와 같은 순서)
+        LongRowAggregator rows = new LongRowAggregator(2);
+        computeFromSource(tripId, rows, true);
+        readBalances(tripId, rows, true);
+        int mismatches = countMismatches(rows);
+
+        // 원본에서 사라진 사용자는 0 으로 (행은 유지)
+        long[] userIds = new long[rows.size()];
+        for (int row = 0; row < rows.size(); row++) {
+            userIds[row] = rows.keyAt(row);
+        }
+        Arrays.sort(userIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(userIds.length);
+        for (long userId : userIds) {
+            batchArgs.add(new Object[]{tripId, userId, rows.get(userId, COMPUTED), now});
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ABSOLUTE_SQL, batchArgs);
+        }
+
+        if (mismatches > 0) {
+            log.info("🔧 정산 장부 교정 - tripId: {}, 불일치: {}명", tripId, mismatches);
+        }
+        return rows;
+    }
+
+    /**
+     * 원본 집계를 COMPUTED 칸에 누적
+     */
+    private void computeFromSource(Long tripId, LongRowAggregator rows, boolean lock) {
+        String suffix = lock ? " FOR SHARE" : "";
+
+        jdbcTemplate.query(SUM_EXPENSES_SQL + suffix, rs -> {
+            rows.add(rs.getLong(1), COMPUTED, rs.getLong(2));
+        }, tripId);
+
+        jdbcTemplate.query(SUM_SETTLEMENTS_SQL + suffix, rs -> {
+            long amount = rs.getLong(3);
+            rows.add(rs.getLong(1), COMPUTED, amount);
+            rows.add(rs.getLong(2), COMPUTED, -amount);
+        }, tripId);
+    }
+
+    /**
+     * 장부 값을 STORED(0) 칸에 누적
+     */
+    private void readBalances(Long tripId, LongRowAggregator rows, boolean forUpdate) {
+        jdbcTemplate.query(SELECT_BALANCES_SQL + (forUpdate ? " FOR UPDATE" : ""), rs -> {
+            rows.add(rs.getLong(1), STORED, rs.getLong(2));
+        }, tripId);
+    }
+
+    private boolean hasSource(Long tripId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_SOURCE_SQL, Boolean.class, tripId, tripId));
+    }
+
+    private static LongSumAggregator settlementDeltas(Settlement settlement, int sign) {
+        LongSumAggregator deltas = new LongSumAggregator(2);
+        deltas.add(settlement.getFromUserId(), sign * settlement.getAmount());
+        deltas.add(settlement.getToUserId(), -sign * settlement.getAmount());
+        return deltas;
+    }
+
+    private static int countMismatches(LongRowAggregator rows) {
+        int mismatches = 0;
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.valueAt(row, STORED) != rows.valueAt(row, COMPUTED)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * 재계산/검증 결과
+     *
+     * @param users      장부 또는 원본에 등장한 사용자 수
+     * @param mismatches 장부와 원본이 다른 사용자 수
+     */
+    public record RebuildResult(Long tripId, int users, int mismatches) {
+    }
+}
@@ -0,0 +1,176 @@
+package forproject.spring_oauth2_jwt.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.enums.TripEventType;
+import forproject.spring_oauth2_jwt.exception.ForbiddenException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 여행 단위 실시간 변경 이벤트 (여행 화면 공동 편집용)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 같은 여행 화면을 보고 있는 참여자들이 서로의 수정(일정/활동/체크리스트/지출/공동 경비/정산)을
+ * /detail, /overview, 지출 API 폴링 없이 바로 알 수 있도록 변경 사실만 push 한다.
+ * 이벤트는 {"tripId","type","entityId","actorId","at"} 형태의 작은 JSON 이며, 클라이언트는 해당 영역만 다시 조회한다.
+ * </pre>
+ *
+ * <p><b>흐름</b></p>
+ * <pre>
+ * publish:  JSON 1회 직렬화 → (트랜잭션이면 커밋 후) PUBLISH sse:trip-events "tripId\njson"
+ * 수신:     모든 노드가 구독 → 이 노드에 해당 여행 구독자가 있으면 SSE 프레임을 한 번만 만들어
+ *           모든 구독 연결이 같은 byte[] 를 공유 (SseService.broadcastToTrip)
+ * 장애:     Redis 발행 실패 시 이 노드의 구독자에게만 전달
+ * </pre>
+ *
+ * <p><b>구독 종료</b></p>
+ * <pre>
+ * - TRIP_DELETED: 이벤트를 전달한 뒤 그 여행의 구독 연결을 모두 닫음
+ * - 멤버십 캐시 무효화(참여자 변경/여행 삭제): 더 이상 참여자가 아닌 사용자의 구독 연결만 닫음
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TripEventPublisher implements MessageListener {
+
+    private static final String CHANNEL = "sse:trip-events";
+    private static final String EVENT_NAME = "trip-change";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final SseService sseService;
+    private final TripMembershipCache tripMembershipCache;
+    private final ObjectMapper objectMapper;
+
+    public TripEventPublisher(StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              SseService sseService,
+                              TripMembershipCache tripMembershipCache,
+                              ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.sseService = sseService;
+        this.tripMembershipCache = tripMembershipCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        tripMembershipCache.addEvictionListener(this::closeNonMemberStreams);
+    }
+
+    /**
+     * 여행 화면 구독 (참여자만)
+     */
+    public SseEmitter subscribe(Long tripId, Long userId) {
+        if (!tripMembershipCache.isMember(tripId, userId)) {
+            throw new ForbiddenException("여행 참여자만 접근할 수 있습니다.");
+        }
+        return sseService.subscribeTrip(tripId, userId);
+    }
+
+    /**
+     * 변경 이벤트 발행 (트랜잭션 안이면 커밋 후에만, 롤백되면 발행하지 않음)
+     */
+    public void publish(Long tripId, TripEventType type, Long entityId, Long actorId) {
+        if (tripId == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(
+                    new TripEvent(tripId, type, entityId, actorId, System.currentTimeMillis()));
+        } catch (JsonProcessingException e) {
+            log.error("❌ 여행 이벤트 직렬화 실패 - tripId: {}, type: {}", tripId, type, e);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(tripId, json);
+                }
+            });
+        } else {
+            send(tripId, json);
+        }
+    }
+
+    /**
+     * 다른 노드(또는 자기 자신)가 발행한 여행 이벤트 수신 ("tripId\njson")
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('\n');
+        try {
+            deliverLocally(Long.parseLong(body.substring(0, separator)), body.substring(separator + 1));
+        } catch (RuntimeException e) {
+            log.warn("잘못된 여행 이벤트 형식: {}", body);
+        }
+    }
+
+    private void send(Long tripId, String json) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, tripId + "\n" + json);
+        } catch (Exception e) {
+            log.warn("⚠️ 여행 이벤트 발행 실패 - 로컬 전달로 대체: tripId={}, error={}", tripId, e.getMessage());
+            deliverLocally(tripId, json);
+        }
+    }
+
+    private void deliverLocally(Long tripId, String json) {
+        if (!sseService.hasTripSubscribers(tripId)) {
+            return;
+        }
+        int queued = sseService.broadcastToTrip(tripId, SseService.tripFrame(EVENT_NAME, json));
+        log.debug("여행 이벤트 전달 - tripId: {}, 구독 연결 수: {}", tripId, queued);
+
+        if (isTripDeleted(json)) {
+            int closing = sseService.closeTripStreams(tripId, userId -> true);
+            log.info("여행 삭제 - 구독 연결 종료: tripId={}, 연결 수={}", tripId, closing);
+        }
+    }
+
+    /**
+     * 멤버십 무효화 후 참여자가 아닌 사용자의 구독 연결 종료 (구독자가 있을 때만 멤버십 1회 로딩)
+     */
+    private void closeNonMemberStreams(Long tripId) {
+        if (!sseService.hasTripSubscribers(tripId)) {
+            return;
+        }
+        int closing = sseService.closeTripStreams(tripId, userId -> !tripMembershipCache.isMember(tripId, userId));
+        if (closing > 0) {
+            log.info("참여자 변경 - 구독 연결 종료: tripId={}, 연결 수={}", tripId, closing);
+        }
+    }
+
+    private boolean isTripDeleted(String json) {
+        try {
+            return TripEventType.TRIP_DELETED.name().equals(objectMapper.readTree(json).path("type").asText());
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 클라이언트로 전달되는 변경 이벤트
+     */
+    record TripEvent(Long tripId, TripEventType type, Long entityId, Long actorId, long at) {
+    }
+}
@@ -0,0 +1,251 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.repository.TravelParticipantRepository;
+import forproject.spring_oauth2_jwt.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 여행 참여자(멤버십) 캐시
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * @RequiresTripParticipant / TravelPlanService 의 참여자 확인이 호출마다
+ * findByTripIdAndUserId 를 실행하지 않도록 tripId → 참여자 userId 집합을 메모리에 보관한다.
+ * 캐시가 채워진 상태에서는 여행 화면 하나를 그리는 동안 멤버십 쿼리가 발생하지 않는다.
+ * </pre>
+ *
+ * <p><b>구조</b></p>
+ * <pre>
+ * - 값: 정렬된 long[] (박싱 없는 compact set, 이진 탐색)
+ * - 저장소: BoundedTtlCache (가득 차면 만료 정리는 1초에 한 번, 그래도 가득 차면 캐싱 생략)
+ * - 로딩: SELECT user_id 한 번으로 여행 전체 참여자를 가져옴
+ * - 참여자가 아니라고 판정된 경우, 로딩된 지 negative-recheck-ms 가 지났으면 한 번 다시 로딩
+ *   (다른 노드에서 막 참여한 사용자가 무효화 이벤트 유실로 오래 막히지 않도록)
+ * </pre>
+ *
+ * <p><b>무효화</b></p>
+ * <pre>
+ * - 초대 수락(TravelInvitationService.acceptInvitation), 여행 생성(TravelPlanService.createTravelPlan),
+ *   참여자 제거 시 evict(tripId) 호출
+ * - 트랜잭션 안에서 호출되면 즉시 + 커밋 후 한 번 더 제거하고, 커밋 후 Redis 채널로 다른 노드에 전파
+ * - 로딩 중에 무효화가 일어나면 로딩 결과는 캐싱하지 않음 (오래된 값 방지)
+ * - 커밋된 무효화를 받으면(Redis 채널, 발행한 노드 포함) 등록된 리스너 호출
+ *   → TripEventPublisher 가 더 이상 참여자가 아닌 사용자의 여행 구독 연결을 닫음
+ * </pre>
+ *
+ * <p><b>메트릭</b></p>
+ * <pre>
+ * trip.membership.cache.hits / misses / evictions (카운터), trip.membership.cache.size (게이지)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TripMembershipCache implements MessageListener {
+
+    private static final String CHANNEL = "trip:membership:evict";
+
+    private final TravelParticipantRepository participantRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final long ttlMs;
+    private final long negativeRecheckMs;
+
+    private final BoundedTtlCache<Long, Members> byTrip;
+
+    // 무효화가 일어날 때마다 증가 → 로딩 도중 무효화 여부 판단용
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final List<Consumer<Long>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    public TripMembershipCache(TravelParticipantRepository participantRepository,
+                               StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               MeterRegistry meterRegistry,
+                               @Value("${trip.membership-cache.ttl-ms:600000}") long ttlMs,
+                               @Value("${trip.membership-cache.negative-recheck-ms:5000}") long negativeRecheckMs,
+                               @Value("${trip.membership-cache.max-size:10000}") int maxSize) {
+        this.participantRepository = participantRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlMs = ttlMs;
+        this.negativeRecheckMs = negativeRecheckMs;
+        this.byTrip = new BoundedTtlCache<>(maxSize, members -> members.expiresAtMs);
+
+        FunctionCounter.builder("trip.membership.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("trip.membership.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("trip.membership.cache.evictions", this,
+                cache -> cache.evictions.sum() + cache.byTrip.expirations()).register(meterRegistry);
+        Gauge.builder("trip.membership.cache.size", byTrip, BoundedTtlCache::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * 해당 사용자가 여행 참여자인지 확인 (캐시 → DB)
+     */
+    public boolean isMember(Long tripId, Long userId) {
+        if (tripId == null || userId == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+
+        Members members = byTrip.get(tripId, now);
+        if (members != null) {
+            if (members.contains(userId)) {
+                hits.increment();
+                return true;
+            }
+            if (now - members.loadedAtMs < negativeRecheckMs) {
+                hits.increment();
+                return false;
+            }
+        }
+
+        misses.increment();
+        return load(tripId, now).contains(userId);
+    }
+
+    /**
+     * 여행 멤버십 무효화 (참여자 추가/제거 시 호출)
+     */
+    public void evict(Long tripId) {
+        if (tripId == null) {
+            return;
+        }
+        evictLocal(tripId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // 커밋 전에 다른 요청이 이전 상태를 다시 캐싱했을 수 있으므로 커밋 후 한 번 더 제거
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(tripId);
+                    publish(tripId);
+                }
+            });
+        } else {
+            publish(tripId);
+        }
+    }
+
+    /**
+     * 커밋된 무효화마다 호출할 리스너 등록 (인자: tripId)
+     */
+    public void addEvictionListener(Consumer<Long> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * 다른 노드(또는 자기 자신)가 발행한 무효화 이벤트 수신 ("tripId")
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        long tripId;
+        try {
+            tripId = Long.parseLong(body);
+        } catch (NumberFormatException e) {
+            log.warn("잘못된 멤버십 무효화 이벤트 형식: {}", body);
+            return;
+        }
+        evictLocal(tripId);
+        notifyListeners(tripId);
+    }
+
+    /**
+     * 만료 항목 주기적 정리 (1분)
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictExpired() {
+        byTrip.sweep(System.currentTimeMillis());
+    }
+
+    private Members load(Long tripId, long now) {
+        long version = invalidationVersion.get();
+        List<Long> userIds = participantRepository.findUserIdsByTripId(tripId);
+
+        long[] sorted = new long[userIds.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = userIds.get(i);
+        }
+        Arrays.sort(sorted);
+
+        Members members = new Members(sorted, now, now + ttlMs);
+        if (version == invalidationVersion.get()) {
+            byTrip.put(tripId, members, now);
+        }
+        return members;
+    }
+
+    private void evictLocal(Long tripId) {
+        invalidationVersion.incrementAndGet();
+        if (byTrip.remove(tripId) != null) {
+            evictions.increment();
+        }
+    }
+
+    private void publish(Long tripId) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, String.valueOf(tripId));
+        } catch (Exception e) {
+            // 전파 실패 시 다른 노드는 TTL / negative-recheck 로 수렴
+            log.warn("⚠️ 멤버십 무효화 전파 실패 - tripId: {}, error: {}", tripId, e.getMessage());
+            notifyListeners(tripId);
+        }
+    }
+
+    private void notifyListeners(Long tripId) {
+        for (Consumer<Long> listener : evictionListeners) {
+            try {
+                listener.accept(tripId);
+            } catch (Exception e) {
+                log.warn("⚠️ 멤버십 무효화 리스너 실패 - tripId: {}, error: {}", tripId, e.getMessage());
+            }
+        }
+    }
+
+    private static final class Members {
+        private final long[] userIds;
+        private final long loadedAtMs;
+        private final long expiresAtMs;
+
+        private Members(long[] userIds, long loadedAtMs, long expiresAtMs) {
+            this.userIds = userIds;
+            this.loadedAtMs = loadedAtMs;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        boolean contains(long userId) {
+            return Arrays.binarySearch(userIds, userId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.entity.ExpenseParticipant;
+import forproject.spring_oauth2_jwt.entity.IndividualExpense;
+import forproject.spring_oauth2_jwt.entity.SharedFundTrade;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 여행 · 사용자 · 날짜 · 카테고리별 지출 롤업 (trip_spending_rollup)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 통계 · 예산 현황 조회 때마다 개별 지출 · 참여자 · 공동경비 거래 원본을 전부 읽어 합산하던 것을,
+ * 쓰기 시점에 증감해 둔 롤업 한 번 읽기(trip_id 인덱스)로 바꾼다.
+ * 읽는 행 수는 지출 건수가 아니라 여행 일수 × 카테고리 × 인원에 비례한다.
+ * </pre>
+ *
+ * <p><b>행 구성</b></p>
+ * <pre>
+ * (trip, user, date, category) → paid_amount        개별 지출에서 그 사용자가 낸 금액 (참여만 해도 행 생성)
+ * (trip, 0,    date, category) → expense_amount      개별 지출 총액
+ *                              → shared_amount       공동경비 지출액 (카테고리 없으면 "기타", 날짜는 거래 생성일)
+ * </pre>
+ *
+ * <p><b>증감 (호출한 쪽 트랜잭션 안)</b></p>
+ * <pre>
+ * - 지출 등록:        참여자별 +paidAmount, 전체 행 +totalAmount
+ * - 공동경비 지출:    전체 행 +amount
+ * - 롤업이 아직 없는 여행(배포 전 데이터)은 증감하지 않음 → 다음 조회 때 원본에서 생성
+ *   (롤업 존재 확인은 FOR SHARE 잠금 읽기 → 동시에 커밋된 생성분을 놓치지 않음)
+ * </pre>
+ *
+ * <p><b>재계산 (rebuild)</b></p>
+ * <pre>
+ * 원본을 FOR SHARE 로 읽어 집계 → 롤업 행을 지우고 다시 씀 (TripBalanceLedger 와 같은 잠금 순서)
+ * 백필 CLI: java -jar app.jar backfill:rollups [--trip=ID] [--dry-run]
+ * </pre>
+ */
+@Slf4j
+@Component
+public class TripSpendingRollupService {
+
+    /**
+     * 여행 전체 합계 행의 user_id
+     */
+    public static final long TRIP_TOTAL_USER_ID = 0L;
+
+    private static final String DEFAULT_CATEGORY = "기타";
+
+    private static final String UPSERT_DELTA_SQL =
+            "INSERT INTO trip_spending_rollup "
+                    + "(trip_id, user_id, spend_date, category, paid_amount, expense_amount, shared_amount, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE paid_amount = paid_amount + VALUES(paid_amount), "
+                    + "expense_amount = expense_amount + VALUES(expense_amount), "
+                    + "shared_amount = shared_amount + VALUES(shared_amount), "
+                    + "updated_at = VALUES(updated_at)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO trip_spending_rollup "
+                    + "(trip_id, user_id, spend_date, category, paid_amount, expense_amount, shared_amount, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM trip_spending_rollup WHERE trip_id = ?";
+
+    private static final String SELECT_ROWS_SQL =
+            "SELECT user_id, spend_date, category, paid_amount, expense_amount, shared_amount "
+                    + "FROM trip_spending_rollup WHERE trip_id = ?";
+
+    private static final String SUM_SPENT_SQL =
+            "SELECT SUM(expense_amount + shared_amount) FROM trip_spending_rollup "
+                    + "WHERE trip_id = ? AND user_id = " + TRIP_TOTAL_USER_ID;
+
+    /**
+     * 잠금 읽기: 스냅샷이 아니라 최신 커밋 기준으로 보고, 진행 중인 재계산이 있으면 커밋까지 기다림
+     */
+    private static final String HAS_ROWS_FOR_SHARE_SQL =
+            "SELECT 1 FROM trip_spending_rollup WHERE trip_id = ? LIMIT 1 FOR SHARE";
+
+    private static final String HAS_SOURCE_SQL =
+            "SELECT EXISTS(SELECT 1 FROM individual_expense WHERE trip_id = ?) "
+                    + "OR EXISTS(SELECT 1 FROM shared_fund_trade t JOIN shared_fund f ON f.id = t.shared_fund_id "
+                    + "WHERE f.trip_id = ? AND t.trade_type = 'EXPENSE')";
+
+    private static final String SUM_PAID_SQL =
+            "SELECT p.user_id, e.expense_date, e.category, SUM(p.paid_amount) FROM individual_expense e "
+                    + "JOIN expense_participant p ON p.expense_id = e.id "
+                    + "WHERE e.trip_id = ? GROUP BY p.user_id, e.expense_date, e.category";
+
+    private static final String SUM_EXPENSES_SQL =
+            "SELECT expense_date, category, SUM(total_amount) FROM individual_expense "
+                    + "WHERE trip_id = ? GROUP BY expense_date, category";
+
+    private static final String SUM_SHARED_SQL =
+            "SELECT DATE(t.created_at), COALESCE(t.category, '" + DEFAULT_CATEGORY + "'), SUM(t.amount) "
+                    + "FROM shared_fund_trade t JOIN shared_fund f ON f.id = t.shared_fund_id "
+                    + "WHERE f.trip_id = ? AND t.trade_type = 'EXPENSE' "
+                    + "GROUP BY DATE(t.created_at), COALESCE(t.category, '" + DEFAULT_CATEGORY + "')";
+
+    private static final String TRIP_IDS_SQL =
+            "SELECT trip_id FROM individual_expense "
+                    + "UNION SELECT f.trip_id FROM shared_fund_trade t JOIN shared_fund f ON f.id = t.shared_fund_id "
+                    + "WHERE t.trade_type = 'EXPENSE' "
+                    + "UNION SELECT trip_id FROM trip_spending_rollup";
+
+    /**
+     * 키별 값 칸: 금액 3칸 (증감에는 이 3칸만 사용)
+     * 재계산/검증 시에는 [롤업 값 3칸 | 원본 집계 값 3칸 | 롤업 행 존재 | 원본 행 존재]
+     */
+    private static final int PAID = 0;
+    private static final int EXPENSE = 1;
+    private static final int SHARED = 2;
+    private static final int AMOUNTS = 3;
+    private static final int COMPUTED = AMOUNTS;
+    private static final int IN_STORED = 2 * AMOUNTS;
+    private static final int IN_SOURCE = IN_STORED + 1;
+    private static final int WIDTH = IN_SOURCE + 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+
+    public TripSpendingRollupService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 등록된 지출 반영 (참여자별 낸 금액 + 전체 총액)
+     */
+    public void applyExpense(IndividualExpense expense) {
+        LocalDate date = expense.getExpenseDate();
+        String category = normalizeCategory(expense.getCategory());
+
+        Map<Key, long[]> deltas = new HashMap<>();
+        delta(deltas, new Key(TRIP_TOTAL_USER_ID, date, category))[EXPENSE] += expense.getTotalAmount();
+        for (ExpenseParticipant participant : expense.getParticipants()) {
+            // 0원 참여자도 행을 만들어 둠 → 통계의 지출 참여자 수에 포함
+            delta(deltas, new Key(participant.getUserId(), date, category))[PAID] += participant.getPaidAmount();
+        }
+        apply(expense.getTripId(), deltas);
+    }
+
+    /**
+     * 공동경비 지출 반영
+     */
+    public void applySharedExpense(Long tripId, SharedFundTrade trade) {
+        LocalDate date = trade.getCreatedAt() != null ? trade.getCreatedAt().toLocalDate() : LocalDate.now();
+
+        Map<Key, long[]> deltas = new HashMap<>();
+        delta(deltas, new Key(TRIP_TOTAL_USER_ID, date, normalizeCategory(trade.getCategory())))[SHARED] += trade.getAmount();
+        apply(tripId, deltas);
+    }
+
+    /**
+     * 여행의 롤업 행 조회 (롤업이 없으면 원본에서 생성 후 반환)
+     *
+     * 호출한 쪽이 읽기 전용 트랜잭션(REPEATABLE READ)이면 첫 SELECT 로 스냅샷이 고정되어
+     * 별도 트랜잭션에서 생성·커밋한 롤업을 다시 읽어도 보이지 않는다 → 생성한 행을 그대로 반환
+     */
+    public List<Row> getRows(Long tripId) {
+        List<Row> rows = readRows(tripId);
+        if (rows.isEmpty()) {
+            List<Row> built = buildIfMissing(tripId);
+            if (built != null) {
+                return built;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 여행 총 지출액 (개별 지출 총액 + 공동경비 지출액)
+     */
+    public long getSpentTotal(Long tripId) {
+        Long spent = jdbcTemplate.queryForObject(SUM_SPENT_SQL, Long.class, tripId);
+        if (spent == null) {
+            List<Row> built = buildIfMissing(tripId);
+            if (built != null) {
+                long total = 0L;
+                for (Row row : built) {
+                    if (row.userId() == TRIP_TOTAL_USER_ID) {
+                        total += row.expenseAmount() + row.sharedAmount();
+                    }
+                }
+                return total;
+            }
+        }
+        return spent != null ? spent : 0L;
+    }
+
+    /**
+     * 한 여행의 롤업을 원본에서 다시 계산 (별도 트랜잭션)
+     */
+    public RebuildResult rebuild(Long tripId) {
+        return newTransaction.execute(status -> rebuildInternal(tripId));
+    }
+
+    /**
+     * 한 여행의 롤업을 원본과 비교만 함 (쓰기 없음)
+     */
+    public RebuildResult verify(Long tripId) {
+        Map<Key, long[]> values = new HashMap<>();
+        computeFromSource(tripId, values, false);
+        readStored(tripId, values, false);
+        return new RebuildResult(tripId, values.size(), countMismatches(values));
+    }
+
+    /**
+     * 롤업 또는 원본이 있는 모든 여행 ID
+     */
+    public List<Long> findAllTripIds() {
+        return jdbcTemplate.queryForList(TRIP_IDS_SQL, Long.class);
+    }
+
+    /**
+     * 원본이 있으면 롤업을 생성하고 생성한 행을 반환 (원본이 없으면 null)
+     */
+    private List<Row> buildIfMissing(Long tripId) {
+        if (!hasSource(tripId)) {
+            return null;
+        }
+        log.info("📊 지출 롤업 생성 - tripId: {}", tripId);
+        return newTransaction.execute(status -> toRows(rebuildValues(tripId)));
+    }
+
+    private void apply(Long tripId, Map<Key, long[]> deltas) {
+        // 일반 SELECT 는 REPEATABLE READ 스냅샷이라, 스냅샷 이후 커밋된 지연 생성을 못 보고
+        // 증감을 건너뛰면 그 지출은 롤업에서 영구히 빠진다 → 잠금 읽기로 확인 (TripBalanceLedger 와 동일)
+        if (jdbcTemplate.queryForList(HAS_ROWS_FOR_SHARE_SQL, Integer.class, tripId).isEmpty()) {
+            // 배포 전 데이터가 있을 수 있으므로 증감 대신 다음 조회 때 원본에서 생성
+            log.debug("지출 롤업 없음 - 증감 생략: tripId={}", tripId);
+            return;
+        }
+
+        // 키 순서로 잠가 동시 쓰기 간 교착 방지
+        List<Key> keys = new ArrayList<>(deltas.keySet());
+        keys.sort(Key.ORDER);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            long[] delta = deltas.get(key);
+            batchArgs.add(new Object[]{tripId, key.userId(), Date.valueOf(key.date()), key.category(),
+                    delta[PAID], delta[EXPENSE], delta[SHARED], now});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_DELTA_SQL, batchArgs);
+    }
+
+    private RebuildResult rebuildInternal(Long tripId) {
+        Map<Key, long[]> values = rebuildValues(tripId);
+        return new RebuildResult(tripId, values.size(), countMismatches(values));
+    }
+
+    /**
+     * 원본에서 다시 계산해 롤업을 덮어쓰고, 키별 [롤업 값(이전), 원본 값, 존재 여부] 를 반환
+     */
+    private Map<Key, long[]> rebuildValues(Long tripId) {
+        // 원본 먼저 잠금 → 롤업 잠금 (쓰기 경로와 같은 순서)
+        Map<Key, long[]> values = new HashMap<>();
+        computeFromSource(tripId, values, true);
+        readStored(tripId, values, true);
+        int mismatches = countMismatches(values);
+
+        // 원본에 없는 행은 다시 만들지 않음
+        jdbcTemplate.update(DELETE_SQL, tripId);
+
+        List<Key> keys = new ArrayList<>(values.keySet());
+        keys.sort(Key.ORDER);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            long[] value = values.get(key);
+            if (value[IN_SOURCE] == 0) {
+                continue;
+            }
+            batchArgs.add(new Object[]{tripId, key.userId(), Date.valueOf(key.date()), key.category(),
+                    value[COMPUTED + PAID], value[COMPUTED + EXPENSE], value[COMPUTED + SHARED], now});
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        }
+
+        if (mismatches > 0) {
+            log.info("🔧 지출 롤업 교정 - tripId: {}, 불일치: {}행", tripId, mismatches);
+        }
+        return values;
+    }
+
+    /**
+     * 재계산 결과 중 원본에 있는 키만 롤업 행으로 (INSERT 한 행과 같음)
+     */
+    private static List<Row> toRows(Map<Key, long[]> values) {
+        List<Key> keys = new ArrayList<>(values.keySet());
+        keys.sort(Key.ORDER);
+        List<Row> rows = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            long[] value = values.get(key);
+            if (value[IN_SOURCE] == 0) {
+                continue;
+            }
+            rows.add(new Row(key.userId(), key.date(), key.category(),
+                    value[COMPUTED + PAID], value[COMPUTED + EXPENSE], value[COMPUTED + SHARED]));
+        }
+        return rows;
+    }
+
+    /**
+     * 원본 집계를 COMPUTED 칸에 누적
+     */
+    private void computeFromSource(Long tripId, Map<Key, long[]> values, boolean lock) {
+        String suffix = lock ? " FOR SHARE" : "";
+
+        jdbcTemplate.query(SUM_PAID_SQL + suffix, rs -> {
+            long[] value = row(values, new Key(rs.getLong(1), rs.getDate(2).toLocalDate(),
+                    normalizeCategory(rs.getString(3))));
+            value[COMPUTED + PAID] += rs.getLong(4);
+            value[IN_SOURCE] = 1;
+        }, tripId);
+
+        jdbcTemplate.query(SUM_EXPENSES_SQL + suffix, rs -> {
+            long[] value = row(values, new Key(TRIP_TOTAL_USER_ID, rs.getDate(1).toLocalDate(),
+                    normalizeCategory(rs.getString(2))));
+            value[COMPUTED + EXPENSE] += rs.getLong(3);
+            value[IN_SOURCE] = 1;
+        }, tripId);
+
+        jdbcTemplate.query(SUM_SHARED_SQL + suffix, rs -> {
+            long[] value = row(values, new Key(TRIP_TOTAL_USER_ID, rs.getDate(1).toLocalDate(), rs.getString(2)));
+            value[COMPUTED + SHARED] += rs.getLong(3);
+            value[IN_SOURCE] = 1;
+        }, tripId);
+    }
+
+    /**
+     * 롤업 값을 앞쪽 3칸에 누적
+     */
+    private void readStored(Long tripId, Map<Key, long[]> values, boolean forUpdate) {
+        jdbcTemplate.query(SELECT_ROWS_SQL + (forUpdate ? " FOR UPDATE" : ""), rs -> {
+            long[] value = row(values, new Key(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getString(3)));
+            value[PAID] += rs.getLong(4);
+            value[EXPENSE] += rs.getLong(5);
+            value[SHARED] += rs.getLong(6);
+            value[IN_STORED] = 1;
+        }, tripId);
+    }
+
+    private List<Row> readRows(Long tripId) {
+        return jdbcTemplate.query(SELECT_ROWS_SQL, (rs, rowNum) -> new Row(
+                rs.getLong(1),
+                rs.getDate(2).toLocalDate(),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getLong(5),
+                rs.getLong(6)
+        ), tripId);
+    }
+
+    private boolean hasSource(Long tripId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_SOURCE_SQL, Boolean.class, tripId, tripId));
+    }
+
+    private static int countMismatches(Map<Key, long[]> values) {
+        int mismatches = 0;
+        for (long[] value : values.values()) {
+            if (value[IN_STORED] != value[IN_SOURCE]
+                    || value[PAID] != value[COMPUTED + PAID]
+                    || value[EXPENSE] != value[COMPUTED + EXPENSE]
+                    || value[SHARED] != value[COMPUTED + SHARED]) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static long[] delta(Map<Key, long[]> deltas, Key key) {
+        return deltas.computeIfAbsent(key, k -> new long[AMOUNTS]);
+    }
+
+    private static long[] row(Map<Key, long[]> values, Key key) {
+        return values.computeIfAbsent(key, k -> new long[WIDTH]);
+    }
+
+    private static String normalizeCategory(String category) {
+        return category != null ? category : DEFAULT_CATEGORY;
+    }
+
+    private record Key(long userId, LocalDate date, String category) {
+
+        static final Comparator<Key> ORDER = Comparator.comparingLong(Key::userId)
+                .thenComparing(Key::date)
+                .thenComparing(Key::category);
+    }
+
+    /**
+     * 롤업 1행
+     *
+     * @param userId 0 이면 여행 전체 합계 행
+     */
+    public record Row(long userId, LocalDate spendDate, String category,
+                      long paidAmount, long expenseAmount, long sharedAmount) {
+    }
+
+    /**
+     * 재계산/검증 결과
+     *
+     * @param rows       롤업 또는 원본에 등장한 (사용자, 날짜, 카테고리) 수
+     * @param mismatches 롤업과 원본이 다른 행 수
+     */
+    public record RebuildResult(Long tripId, int rows, int mismatches) {
+    }
+}
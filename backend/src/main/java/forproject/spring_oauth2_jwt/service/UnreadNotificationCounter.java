@@ -0,0 +1,242 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사용자별 읽지 않은 알림 개수 카운터 (Redis)
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * 프론트가 자주 폴링하는 /api/notifications/count, /unread/count 가
+ * 매번 countByUserIdAndIsReadFalse 를 실행하지 않도록 개수를 Redis 카운터로 유지한다.
+ * </pre>
+ *
+ * <p><b>동작</b></p>
+ * <pre>
+ * - 키: notif:unread:{userId}
+ * - 조회: GET 1회. 키가 없을 때만 DB COUNT 후 SET NX 로 초기화 (사용자당 최초 1회)
+ * - 증감: 알림 저장(NotificationWriter) / 읽음 처리 커밋 후 반영
+ *         키가 없으면 증감하지 않음 → 다음 조회 때 DB 값으로 초기화되므로 0 에서 시작하는 오차가 없음
+ * - 보정: UnreadCountReconcileJob 이 주기적으로 DB 와 비교해 어긋난 값만 교정
+ *         (비교 후 그 사이 카운터가 바뀌었으면 건드리지 않음 → 다음 주기에 다시 확인)
+ * - Redis 장애 시 DB COUNT 로 대체
+ * </pre>
+ */
+@Slf4j
+@Component
+public class UnreadNotificationCounter {
+
+    private static final String KEY_PREFIX = "notif:unread:";
+
+    /**
+     * KEYS = 카운터 키들, ARGV = 각 키의 증감량
+     * 키가 있을 때만 반영하고 음수로 내려가지 않도록 0 으로 고정
+     */
+    private static final RedisScript<Long> ADJUST_SCRIPT = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+                if redis.call('EXISTS', key) == 1 then
+                    local value = redis.call('INCRBY', key, ARGV[i])
+                    if value < 0 then
+                        redis.call('SET', key, '0', 'KEEPTTL')
+                    end
+                end
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * KEYS[1] = 카운터 키, ARGV[1] = 비교 시점 값, ARGV[2] = 교정 값
+     * 비교 시점 이후 값이 바뀌지 않았을 때만 교정 (1: 교정, 0: 생략)
+     */
+    private static final RedisScript<Long> CORRECT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('SET', KEYS[1], ARGV[2], 'KEEPTTL')
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final NotificationRepository notificationRepository;
+    private final long ttlMs;
+    private final int reconcileBatchSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+
+    public UnreadNotificationCounter(StringRedisTemplate redisTemplate,
+                                     NotificationRepository notificationRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.unread-counter.ttl-ms:604800000}") long ttlMs,
+                                     @Value("${notification.unread-counter.reconcile-batch-size:500}") int reconcileBatchSize) {
+        this.redisTemplate = redisTemplate;
+        this.notificationRepository = notificationRepository;
+        this.ttlMs = ttlMs;
+        this.reconcileBatchSize = reconcileBatchSize;
+
+        FunctionCounter.builder("notification.unread.counter.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("notification.unread.counter.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("notification.unread.counter.corrections", corrections, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * 읽지 않은 알림 개수 조회 (Redis → 없을 때만 DB)
+     */
+    public long get(Long userId) {
+        String key = KEY_PREFIX + userId;
+        try {
+            String cached = redisTemplate.opsForValue().get(key);
+            if (cached != null) {
+                hits.increment();
+                return Long.parseLong(cached);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 알림 카운터 조회 실패 - DB 로 대체: userId={}, error={}", userId, e.getMessage());
+            return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        }
+
+        misses.increment();
+        long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        try {
+            // 그 사이 다른 요청이 초기화했다면 그 값을 유지
+            redisTemplate.opsForValue().setIfAbsent(key, String.valueOf(count), ttlMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("⚠️ 알림 카운터 초기화 실패 - userId: {}, error: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * 사용자별 증감량 반영 (Lua 1회)
+     */
+    public void adjust(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(deltas.size());
+        Object[] args = new Object[deltas.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            keys.add(KEY_PREFIX + entry.getKey());
+            args[i++] = String.valueOf(entry.getValue());
+        }
+        try {
+            redisTemplate.execute(ADJUST_SCRIPT, keys, args);
+        } catch (Exception e) {
+            // 값이 어긋나면 보정 작업이 교정
+            log.warn("⚠️ 알림 카운터 반영 실패 - 사용자 수: {}, error: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 트랜잭션 커밋 후 증감 반영 (트랜잭션 밖이면 즉시)
+     */
+    public void adjustAfterCommit(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Map<Long, Long> deltas = Map.of(userId, delta);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adjust(deltas);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adjust(deltas);
+            }
+        });
+    }
+
+    /**
+     * Redis 에 있는 카운터를 DB 와 비교해 교정
+     *
+     * @return 교정한 카운터 수
+     */
+    public int reconcile() {
+        int corrected = 0;
+        List<String> batch = new ArrayList<>(reconcileBatchSize);
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() >= reconcileBatchSize) {
+                    corrected += reconcileBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            corrected += reconcileBatch(batch);
+        }
+        return corrected;
+    }
+
+    private int reconcileBatch(List<String> keys) {
+        // Redis 값을 먼저 읽고 DB 를 조회 → 그 사이 증감이 있었으면 CAS 에서 걸러짐
+        List<String> cachedValues = redisTemplate.opsForValue().multiGet(keys);
+        if (cachedValues == null) {
+            return 0;
+        }
+
+        Map<Long, String> cachedByUser = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            String value = cachedValues.get(i);
+            if (value == null) {
+                continue;
+            }
+            try {
+                cachedByUser.put(Long.parseLong(keys.get(i).substring(KEY_PREFIX.length())), value);
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 알림 카운터 키: {}", keys.get(i));
+            }
+        }
+        if (cachedByUser.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> actualByUser = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadGroupByUserId(cachedByUser.keySet())) {
+            actualByUser.put((Long) row[0], (Long) row[1]);
+        }
+
+        int corrected = 0;
+        for (Map.Entry<Long, String> entry : cachedByUser.entrySet()) {
+            String actual = String.valueOf(actualByUser.getOrDefault(entry.getKey(), 0L));
+            if (actual.equals(entry.getValue())) {
+                continue;
+            }
+            Long result = redisTemplate.execute(
+                    CORRECT_SCRIPT,
+                    List.of(KEY_PREFIX + entry.getKey()),
+                    entry.getValue(), actual);
+            if (result != null && result == 1L) {
+                corrected++;
+                corrections.increment();
+                log.info("🔧 알림 카운터 교정 - userId: {}, {} → {}", entry.getKey(), entry.getValue(), actual);
+            }
+        }
+        return corrected;
+    }
+}
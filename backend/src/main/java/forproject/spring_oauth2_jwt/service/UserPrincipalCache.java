@@ -0,0 +1,129 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.dto.UserPrincipal;
+import forproject.spring_oauth2_jwt.entity.UserEntity;
+import forproject.spring_oauth2_jwt.repository.UserRepository;
+import forproject.spring_oauth2_jwt.util.BoundedTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 인증된 사용자 Principal 캐시
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * JWTFilter 가 인증 요청마다 users 테이블을 findByEmail 로 조회하지 않도록
+ * email → UserPrincipal 을 TTL 동안 메모리에 보관한다.
+ * 정상 상태에서는 인증에 DB 왕복이 발생하지 않는다.
+ * </pre>
+ *
+ * <p><b>무효화</b></p>
+ * <pre>
+ * - 회원가입(JoinService), 소셜 로그인 정보 갱신(CustomOAuth2UserService) 시 evict 호출
+ * - 프로필 수정 등 사용자 정보가 바뀌는 곳을 추가하면 email 기준 evict 를 호출해야 함
+ * - 로딩 중에 무효화가 일어나면 로딩 결과는 캐싱하지 않음 (오래된 값 방지)
+ * </pre>
+ *
+ * <p><b>메트릭</b></p>
+ * <pre>
+ * auth.principal.cache.hits / misses / evictions (카운터), auth.principal.cache.size (게이지)
+ * </pre>
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final long ttlMs;
+
+    private final BoundedTtlCache<String, CachedPrincipal> byEmail;
+
+    // 무효화가 일어날 때마다 증가 → 로딩 도중 무효화 여부 판단용
+    private final AtomicLong invalidationVersion = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserPrincipalCache(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.principal-cache.ttl-ms:300000}") long ttlMs,
+                              @Value("${auth.principal-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.byEmail = new BoundedTtlCache<>(maxSize, cached -> cached.expiresAtMs);
+
+        FunctionCounter.builder("auth.principal.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.principal.cache.evictions", this,
+                cache -> cache.evictions.sum() + cache.byEmail.expirations()).register(meterRegistry);
+        Gauge.builder("auth.principal.cache.size", byEmail, BoundedTtlCache::size).register(meterRegistry);
+    }
+
+    /**
+     * email 로 Principal 조회 (캐시 → DB)
+     *
+     * @return 가입된 사용자가 없으면 null
+     */
+    public UserPrincipal get(String email) {
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cached = byEmail.get(email, now);
+        if (cached != null) {
+            hits.increment();
+            return cached.principal;
+        }
+        misses.increment();
+
+        long version = invalidationVersion.get();
+        UserEntity userEntity = userRepository.findByEmail(email);
+        if (userEntity == null) {
+            return null;
+        }
+
+        UserPrincipal principal = new UserPrincipal(userEntity);
+        if (version == invalidationVersion.get()) {
+            byEmail.put(email, new CachedPrincipal(principal, now + ttlMs), now);
+        }
+        return principal;
+    }
+
+    /**
+     * email 기준 무효화
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        invalidationVersion.incrementAndGet();
+        if (byEmail.remove(email) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * 만료 항목 주기적 정리 (1분)
+     */
+    @Scheduled(fixedDelay = 60_000L)
+    public void evictExpired() {
+        byEmail.sweep(System.currentTimeMillis());
+    }
+
+    private static final class CachedPrincipal {
+        private final UserPrincipal principal;
+        private final long expiresAtMs;
+
+        private CachedPrincipal(UserPrincipal principal, long expiresAtMs) {
+            this.principal = principal;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+}
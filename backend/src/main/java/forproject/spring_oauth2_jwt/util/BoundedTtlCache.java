@@ -0,0 +1,142 @@
+package forproject.spring_oauth2_jwt.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 최대 크기 + 만료 시각이 있는 노드 로컬 캐시 (ConcurrentHashMap 기반)
+ *
+ * <p><b>규칙</b></p>
+ * <pre>
+ * - 만료 시각은 값에서 계산 (expiresAtMs(value) &lt;= now 이면 만료) → 값마다 TTL 이 달라도 됨
+ * - 조회 시 만료된 항목은 없는 것으로 보고 제거
+ * - 가득 차면 만료 항목을 정리한 뒤 그래도 가득 차 있으면 저장만 생략 (호출한 쪽은 원본 경로로 처리)
+ * - 가득 찬 상태의 전체 스캔은 sweepIntervalMs 에 한 번만 → 캐시 미스마다 O(n) 정리를 하지 않음
+ * - 주기 정리는 사용하는 쪽의 @Scheduled 에서 sweep(now) 호출
+ * </pre>
+ *
+ * VerifiedTokenCache, UserPrincipalCache, TripMembershipCache, RateLimiter, SseReplayBuffer 가 공용으로 사용
+ */
+public final class BoundedTtlCache<K, V> {
+
+    private static final long DEFAULT_SWEEP_INTERVAL_MS = 1_000L;
+
+    private final ConcurrentHashMap<K, V> map = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final ToLongFunction<? super V> expiresAtMs;
+    private final long sweepIntervalMs;
+
+    // 만료로 제거된 항목 수 (조회 시 제거 + 정리)
+    private final LongAdder expirations = new LongAdder();
+
+    private volatile long lastSweepMs = 0L;
+
+    public BoundedTtlCache(int maxSize, ToLongFunction<? super V> expiresAtMs) {
+        this(maxSize, expiresAtMs, DEFAULT_SWEEP_INTERVAL_MS);
+    }
+
+    public BoundedTtlCache(int maxSize, ToLongFunction<? super V> expiresAtMs, long sweepIntervalMs) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize 는 1 이상이어야 합니다: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.expiresAtMs = expiresAtMs;
+        this.sweepIntervalMs = sweepIntervalMs;
+    }
+
+    /**
+     * 만료되지 않은 값 조회 (없거나 만료됐으면 null)
+     */
+    public V get(K key, long now) {
+        V value = map.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (expiresAtMs.applyAsLong(value) <= now) {
+            if (map.remove(key, value)) {
+                expirations.increment();
+            }
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * 저장 (이미 있는 키는 덮어씀)
+     *
+     * @return 가득 차서 저장을 생략했으면 false
+     */
+    public boolean put(K key, V value, long now) {
+        if (!map.containsKey(key) && !makeRoom(now)) {
+            return false;
+        }
+        map.put(key, value);
+        return true;
+    }
+
+    /**
+     * 키가 없을 때만 loader 로 만들어 저장
+     *
+     * @return 기존 값 또는 새 값, 가득 차서 저장할 수 없으면 null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader, long now) {
+        V existing = get(key, now);
+        if (existing != null) {
+            return existing;
+        }
+        if (!makeRoom(now)) {
+            return null;
+        }
+        return map.computeIfAbsent(key, loader);
+    }
+
+    public V remove(K key) {
+        return map.remove(key);
+    }
+
+    public boolean remove(K key, V value) {
+        return map.remove(key, value);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * 만료로 제거된 누적 항목 수 (메트릭용)
+     */
+    public long expirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * 만료 항목 전체 정리
+     *
+     * @return 제거한 항목 수
+     */
+    public int sweep(long now) {
+        lastSweepMs = now;
+        LongAdder removed = new LongAdder();
+        map.values().removeIf(value -> {
+            boolean expired = expiresAtMs.applyAsLong(value) <= now;
+            if (expired) {
+                removed.increment();
+            }
+            return expired;
+        });
+        expirations.add(removed.sum());
+        return removed.intValue();
+    }
+
+    private boolean makeRoom(long now) {
+        if (map.size() < maxSize) {
+            return true;
+        }
+        if (now - lastSweepMs >= sweepIntervalMs) {
+            sweep(now);
+        }
+        return map.size() < maxSize;
+    }
+}
@@ -0,0 +1,126 @@
+package forproject.spring_oauth2_jwt.util;
+
+import java.util.Arrays;
+
+/**
+ * long 키(userId 등)를 0 부터 시작하는 연속 인덱스로 바꿔 주는 open addressing 해시 테이블
+ *
+ * <p><b>목적</b></p>
+ * <pre>
+ * HashMap&lt;Long, ...&gt; 은 키마다 Long 박싱 + Node 객체를 만든다.
+ * 키를 처음 본 순서대로 0, 1, 2 ... 로 번호를 매겨 두면 값은 long[] 에 인덱스로 바로 누적할 수 있다.
+ * </pre>
+ *
+ * <p><b>구조</b></p>
+ * <pre>
+ * - 선형 탐사, 테이블 크기 2^k, 부하율 0.5 초과 시 2배 확장
+ * - slotIndexes 0 = 빈 칸 (그 외 인덱스 + 1) → 0 을 포함한 모든 long 키 사용 가능
+ * - 삭제 없음 (요청 단위 집계용)
+ * - 스레드 안전하지 않음
+ * </pre>
+ */
+public final class LongKeyIndex {
+
+    private long[] slotKeys;
+    private int[] slotIndexes;
+    private int mask;
+
+    private long[] keys;
+    private int size;
+
+    public LongKeyIndex() {
+        this(16);
+    }
+
+    public LongKeyIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+        this.slotKeys = new long[capacity];
+        this.slotIndexes = new int[capacity];
+        this.mask = capacity - 1;
+        this.keys = new long[Math.max(expectedSize, 4)];
+    }
+
+    /**
+     * 키의 인덱스 반환 (처음 보는 키면 새 인덱스 부여)
+     */
+    public int intern(long key) {
+        int slot = slotOf(key);
+        while (slotIndexes[slot] != 0) {
+            if (slotKeys[slot] == key) {
+                return slotIndexes[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int index = size++;
+        if (index == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[index] = key;
+        slotKeys[slot] = key;
+        slotIndexes[slot] = index + 1;
+
+        if (size * 2 > slotIndexes.length) {
+            rehash();
+        }
+        return index;
+    }
+
+    /**
+     * 키의 인덱스 반환 (없으면 -1)
+     */
+    public int indexOf(long key) {
+        int slot = slotOf(key);
+        while (slotIndexes[slot] != 0) {
+            if (slotKeys[slot] == key) {
+                return slotIndexes[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public long keyAt(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return keys[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 등록된 키 복사본 (인덱스 순서)
+     */
+    public long[] keys() {
+        return Arrays.copyOf(keys, size);
+    }
+
+    private int slotOf(long key) {
+        // murmur3 fmix64 - 연속된 id 도 테이블 전체에 고르게 분산
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    private void rehash() {
+        int capacity = slotIndexes.length * 2;
+        slotKeys = new long[capacity];
+        slotIndexes = new int[capacity];
+        mask = capacity - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = slotOf(keys[index]);
+            while (slotIndexes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = keys[index];
+            slotIndexes[slot] = index + 1;
+        }
+    }
+}
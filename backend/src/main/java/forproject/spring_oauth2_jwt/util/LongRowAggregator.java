@@ -0,0 +1,76 @@
+package forproject.spring_oauth2_jwt.util;
+
+import java.util.Arrays;
+
+/**
+ * long 키 → 고정 폭 long[] 행 집계기
+ *
+ * 한 키에 여러 합계(예: 사용자별 [장부 값, 원본 값])를 함께 누적할 때 사용한다.
+ * 행은 width 칸씩 이어 붙인 단일 long[] 에 저장 (키마다 배열을 따로 만들지 않음).
+ */
+public final class LongRowAggregator {
+
+    private final LongKeyIndex index;
+    private final int width;
+    private long[] cells;
+
+    public LongRowAggregator(int width) {
+        this(width, 16);
+    }
+
+    public LongRowAggregator(int width, int expectedSize) {
+        if (width < 1) {
+            throw new IllegalArgumentException("width 는 1 이상이어야 합니다: " + width);
+        }
+        this.index = new LongKeyIndex(expectedSize);
+        this.width = width;
+        this.cells = new long[Math.max(expectedSize, 4) * width];
+    }
+
+    /**
+     * key 행의 column 칸에 delta 누적
+     */
+    public void add(long key, int column, long delta) {
+        checkColumn(column);
+        int row = index.intern(key);
+        if ((row + 1) * width > cells.length) {
+            cells = Arrays.copyOf(cells, cells.length * 2);
+        }
+        cells[row * width + column] += delta;
+    }
+
+    /**
+     * key 행의 column 칸 값 (없으면 0)
+     */
+    public long get(long key, int column) {
+        checkColumn(column);
+        int row = index.indexOf(key);
+        return row < 0 ? 0L : cells[row * width + column];
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public long keyAt(int row) {
+        return index.keyAt(row);
+    }
+
+    public long valueAt(int row, int column) {
+        checkColumn(column);
+        if (row >= index.size()) {
+            throw new IndexOutOfBoundsException(row);
+        }
+        return cells[row * width + column];
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= width) {
+            throw new IndexOutOfBoundsException(column);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package forproject.spring_oauth2_jwt.util;
+
+import java.util.Arrays;
+
+/**
+ * long 키 → long 합계 집계기 (HashMap&lt;Long, Long&gt;.merge(..., Long::sum) 대체)
+ *
+ * 키는 LongKeyIndex 로 연속 인덱스에 매핑하고 합계는 long[] 에 누적한다.
+ * 순회는 0 ~ size()-1 인덱스로 keyAt / valueAt 사용 (키를 처음 본 순서).
+ */
+public final class LongSumAggregator {
+
+    private final LongKeyIndex index;
+    private long[] values;
+
+    public LongSumAggregator() {
+        this(16);
+    }
+
+    public LongSumAggregator(int expectedSize) {
+        this.index = new LongKeyIndex(expectedSize);
+        this.values = new long[Math.max(expectedSize, 4)];
+    }
+
+    /**
+     * key 의 합계에 delta 누적 (처음 보는 키면 0 에서 시작)
+     */
+    public void add(long key, long delta) {
+        int i = index.intern(key);
+        if (i == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[i] += delta;
+    }
+
+    /**
+     * key 의 합계 (없으면 0)
+     */
+    public long get(long key) {
+        int i = index.indexOf(key);
+        return i < 0 ? 0L : values[i];
+    }
+
+    public boolean containsKey(long key) {
+        return index.indexOf(key) >= 0;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long keyAt(int i) {
+        return index.keyAt(i);
+    }
+
+    public long valueAt(int i) {
+        if (i >= index.size()) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return values[i];
+    }
+
+    /**
+     * 등록된 키 복사본 (인덱스 순서)
+     */
+    public long[] keys() {
+        return index.keys();
+    }
+
+    /**
+     * 전체 합계
+     */
+    public long total() {
+        long total = 0L;
+        for (int i = 0; i < index.size(); i++) {
+            total += values[i];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,127 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.dto.response.ExpenseStatisticsResponse;
+import forproject.spring_oauth2_jwt.entity.UserEntity;
+import forproject.spring_oauth2_jwt.repository.TravelParticipantRepository;
+import forproject.spring_oauth2_jwt.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static forproject.spring_oauth2_jwt.service.TripSpendingRollupService.TRIP_TOTAL_USER_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * ExpenseStatisticsEngine 쿼리 수 · 집계 결과 테스트
+ */
+class ExpenseStatisticsEngineTest {
+
+    private static final long TRIP_ID = 1L;
+    private static final long ME = 10L;
+    private static final long FRIEND = 20L;
+
+    private final TripSpendingRollupService tripSpendingRollupService = mock(TripSpendingRollupService.class);
+    private final TravelParticipantRepository travelParticipantRepository = mock(TravelParticipantRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final ExpenseStatisticsEngine engine = new ExpenseStatisticsEngine(
+            tripSpendingRollupService, travelParticipantRepository, userRepository);
+
+    @Test
+    void queryCountDoesNotGrowWithTripLength() {
+        for (int days : new int[]{1, 500}) {
+            TripSpendingRollupService rollups = mock(TripSpendingRollupService.class);
+            TravelParticipantRepository members = mock(TravelParticipantRepository.class);
+            UserRepository users = mock(UserRepository.class);
+
+            List<TripSpendingRollupService.Row> rows = new ArrayList<>();
+            for (int day = 0; day < days; day++) {
+                LocalDate date = LocalDate.of(2025, 5, 1).plusDays(day);
+                rows.add(userRow(ME, date, "식비", 1_000L));
+                rows.add(userRow(FRIEND, date, "식비", 1_000L));
+                rows.add(totalRow(date, "식비", 2_000L, 0L));
+                rows.add(totalRow(date, "교통", 0L, 500L));
+            }
+            when(rollups.getRows(TRIP_ID)).thenReturn(rows);
+            when(members.countByTripId(TRIP_ID)).thenReturn(2);
+            when(users.findAllById(any())).thenReturn(List.of(user(ME, "나"), user(FRIEND, "친구")));
+
+            new ExpenseStatisticsEngine(rollups, members, users).compute(TRIP_ID, ME);
+
+            verify(rollups, times(1)).getRows(anyLong());
+            verify(members, times(1)).countByTripId(anyLong());
+            verify(users, times(1)).findAllById(any());
+            verifyNoMoreInteractions(rollups, members, users);
+        }
+    }
+
+    @Test
+    void aggregatesIndividualAndSharedExpenses() {
+        when(tripSpendingRollupService.getRows(TRIP_ID)).thenReturn(List.of(
+                // 5/1 식비 30,000원, 내가 전부 냄 (친구는 참여만)
+                userRow(ME, LocalDate.of(2025, 5, 1), "식비", 30_000L),
+                userRow(FRIEND, LocalDate.of(2025, 5, 1), "식비", 0L),
+                totalRow(LocalDate.of(2025, 5, 1), "식비", 30_000L, 0L),
+                // 5/2 숙박 10,000원, 친구가 냄
+                userRow(FRIEND, LocalDate.of(2025, 5, 2), "숙박", 10_000L),
+                totalRow(LocalDate.of(2025, 5, 2), "숙박", 10_000L, 0L),
+                // 5/2 공동경비 4,000원
+                totalRow(LocalDate.of(2025, 5, 2), "기타", 0L, 4_000L)
+        ));
+        when(travelParticipantRepository.countByTripId(TRIP_ID)).thenReturn(4);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user(ME, "나"), user(FRIEND, "친구")));
+
+        ExpenseStatisticsResponse response = engine.compute(TRIP_ID, ME);
+
+        // 공동경비 4,000원 ÷ 지출 참여자 2명
+        assertThat(response.getMyTotalExpense()).isEqualTo(32_000L);
+        // (30,000 + 10,000 + 4,000) ÷ 여행 참가자 4명
+        assertThat(response.getAveragePerPerson()).isEqualTo(11_000L);
+
+        assertThat(response.getCategoryBreakdown())
+                .extracting(ExpenseStatisticsResponse.CategoryBreakdown::getCategory,
+                        ExpenseStatisticsResponse.CategoryBreakdown::getAmount)
+                .containsExactly(
+                        tuple("식비", 30_000L),
+                        tuple("기타", 2_000L));
+
+        assertThat(response.getPersonalBreakdown())
+                .extracting(ExpenseStatisticsResponse.PersonalBreakdown::getUserName,
+                        ExpenseStatisticsResponse.PersonalBreakdown::getAmount)
+                .containsExactly(
+                        tuple("나", 32_000L),
+                        tuple("친구", 12_000L));
+
+        assertThat(response.getDailyExpenses())
+                .extracting(ExpenseStatisticsResponse.DailyExpense::getDate,
+                        ExpenseStatisticsResponse.DailyExpense::getAmount)
+                .containsExactly(
+                        tuple("2025-05-01", 30_000L),
+                        tuple("2025-05-02", 2_000L));
+    }
+
+    private static TripSpendingRollupService.Row userRow(long userId, LocalDate date, String category, long paid) {
+        return new TripSpendingRollupService.Row(userId, date, category, paid, 0L, 0L);
+    }
+
+    private static TripSpendingRollupService.Row totalRow(LocalDate date, String category, long expense, long shared) {
+        return new TripSpendingRollupService.Row(TRIP_TOTAL_USER_ID, date, category, 0L, expense, shared);
+    }
+
+    private static UserEntity user(long id, String name) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
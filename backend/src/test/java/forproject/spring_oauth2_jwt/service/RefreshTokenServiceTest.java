@@ -0,0 +1,199 @@
+package forproject.spring_oauth2_jwt.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import forproject.spring_oauth2_jwt.service.RefreshTokenService.RotationResult;
+import forproject.spring_oauth2_jwt.service.RefreshTokenService.RotationStatus;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * RefreshTokenService 회전 Lua 스크립트(ROTATE_SCRIPT) 테스트 - 실제 Redis 에서 실행
+ *
+ * 접속 정보: REDIS_HOST (기본 localhost), REDIS_PORT (기본 6379), REDIS_PASSWORD
+ * Redis 에 접속할 수 없으면 건너뜀 (docker compose up redis-cache 후 실행)
+ */
+class RefreshTokenServiceTest {
+
+    private static final long TTL_MS = 60_000L;
+    private static final String SESSION_ID = "session-1";
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private final RefreshTokenService service = new RefreshTokenService();
+    private String username;
+
+    @BeforeAll
+    static void connect() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379")));
+        String password = System.getenv("REDIS_PASSWORD");
+        if (password != null && !password.isEmpty()) {
+            config.setPassword(password);
+        }
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(redisAvailable(), "Redis 에 접속할 수 없어 건너뜀");
+        ReflectionTestUtils.setField(service, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(service, "reuseGraceMs", 10_000L);
+        ReflectionTestUtils.setField(service, "maxSessions", 5);
+
+        username = "rotate-test-" + UUID.randomUUID() + "@test.com";
+        service.save(username, SESSION_ID, "token-0", TTL_MS, "JUnit");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (username != null && redisAvailable()) {
+            service.revokeAll(username);
+        }
+    }
+
+    @Test
+    void rotatesCurrentToken() {
+        RotationResult result = service.rotate(username, SESSION_ID, "token-0", "token-1", TTL_MS);
+
+        assertThat(result.getStatus()).isEqualTo(RotationStatus.ROTATED);
+        assertThat(result.getRefreshToken()).isEqualTo("token-1");
+        assertThat(service.isValid("token-1", username, SESSION_ID)).isTrue();
+        assertThat(service.isValid("token-0", username, SESSION_ID)).isFalse();
+    }
+
+    @Test
+    void previousTokenWithinGraceReturnsCurrentToken() {
+        service.rotate(username, SESSION_ID, "token-0", "token-1", TTL_MS);
+
+        RotationResult result = service.rotate(username, SESSION_ID, "token-0", "token-2", TTL_MS);
+
+        assertThat(result.getStatus()).isEqualTo(RotationStatus.GRACE);
+        assertThat(result.getRefreshToken()).isEqualTo("token-1");
+        assertThat(service.isValid("token-1", username, SESSION_ID)).isTrue();
+    }
+
+    @Test
+    void previousTokenAfterGraceRevokesFamily() {
+        service.rotate(username, SESSION_ID, "token-0", "token-1", TTL_MS);
+        ReflectionTestUtils.setField(service, "reuseGraceMs", -1L);
+
+        RotationResult result = service.rotate(username, SESSION_ID, "token-0", "token-2", TTL_MS);
+
+        assertThat(result.getStatus()).isEqualTo(RotationStatus.REUSED);
+        assertThat(service.isValid("token-1", username, SESSION_ID)).isFalse();
+        assertThat(service.getSessions(username)).isEmpty();
+    }
+
+    @Test
+    void unknownTokenRevokesFamily() {
+        service.rotate(username, SESSION_ID, "token-0", "token-1", TTL_MS);
+        service.rotate(username, SESSION_ID, "token-1", "token-2", TTL_MS);
+
+        // 두 번 전 토큰 (직전 토큰도 아님) → 탈취 의심
+        RotationResult result = service.rotate(username, SESSION_ID, "token-0", "token-3", TTL_MS);
+
+        assertThat(result.getStatus()).isEqualTo(RotationStatus.REUSED);
+        assertThat(result.getRefreshToken()).isNull();
+        assertThat(service.rotate(username, SESSION_ID, "token-2", "token-4", TTL_MS).getStatus())
+                .isEqualTo(RotationStatus.INVALID);
+    }
+
+    @Test
+    void reuseRevokesOnlyThatSession() {
+        service.save(username, "session-2", "other-0", TTL_MS, "JUnit");
+
+        service.rotate(username, SESSION_ID, "forged", "token-1", TTL_MS);
+
+        assertThat(service.isValid("other-0", username, "session-2")).isTrue();
+        assertThat(service.isValid("token-0", username, SESSION_ID)).isFalse();
+    }
+
+    @Test
+    void missingOrExpiredSessionIsInvalid() {
+        assertThat(service.rotate(username, "unknown", "token-0", "token-1", TTL_MS).getStatus())
+                .isEqualTo(RotationStatus.INVALID);
+        assertThat(service.rotate(username, null, "token-0", "token-1", TTL_MS).getStatus())
+                .isEqualTo(RotationStatus.INVALID);
+
+        service.save(username, "expired", "old-0", -1L, "JUnit");
+        assertThat(service.rotate(username, "expired", "old-0", "old-1", TTL_MS).getStatus())
+                .isEqualTo(RotationStatus.INVALID);
+    }
+
+    @Test
+    void concurrentReissueRotatesOnceAndOthersGetGrace() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<RotationResult>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String newToken = "token-1-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return service.rotate(username, SESSION_ID, "token-0", newToken, TTL_MS);
+                }));
+            }
+            start.countDown();
+
+            List<RotationResult> results = new ArrayList<>();
+            for (Future<RotationResult> future : futures) {
+                results.add(future.get());
+            }
+
+            List<RotationResult> rotated = results.stream()
+                    .filter(r -> r.getStatus() == RotationStatus.ROTATED)
+                    .toList();
+            assertThat(rotated).hasSize(1);
+            String current = rotated.get(0).getRefreshToken();
+
+            // 나머지 탭은 모두 유예로 같은 현재 토큰을 받음 (세션 유지)
+            assertThat(results).allSatisfy(r -> {
+                assertThat(r.isSuccess()).isTrue();
+                assertThat(r.getRefreshToken()).isEqualTo(current);
+            });
+            assertThat(service.isValid(current, username, SESSION_ID)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean redisAvailable() {
+        try {
+            return "PONG".equals(redisTemplate.execute(connection -> connection.ping(), true));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package forproject.spring_oauth2_jwt.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SettlementPlanner 속성 테스트 (고정 시드 무작위 입력)
+ */
+class SettlementPlannerTest {
+
+    private static final int TRIALS = 500;
+
+    private final SettlementPlanner planner = new SettlementPlanner(16, 1_000);
+
+    @Test
+    void everyPlanZeroesAllBalances() {
+        Random random = new Random(20241018L);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] balances = randomBalances(random, 1 + random.nextInt(40));
+            for (SettlementPlanner.Plan plan : List.of(
+                    planner.plan(balances),
+                    planner.plan(balances, SettlementPlanner.Mode.HEURISTIC))) {
+                assertZeroes(balances, plan);
+            }
+            if (nonZeroCount(balances) <= 14) {
+                assertZeroes(balances, planner.plan(balances, SettlementPlanner.Mode.EXACT));
+            }
+        }
+    }
+
+    @Test
+    void exactModeMatchesBruteForceMinimum() {
+        Random random = new Random(7L);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] balances = randomBalances(random, 1 + random.nextInt(8));
+            SettlementPlanner.Plan plan = planner.plan(balances, SettlementPlanner.Mode.EXACT);
+
+            assertThat(plan.transfers()).hasSize(bruteForceMinimum(balances));
+        }
+    }
+
+    @Test
+    void exactModeNeverUsesMoreTransfersThanHeuristic() {
+        Random random = new Random(42L);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            long[] balances = randomBalances(random, 1 + random.nextInt(14));
+            int exact = planner.plan(balances, SettlementPlanner.Mode.EXACT).transfers().size();
+            int heuristic = planner.plan(balances, SettlementPlanner.Mode.HEURISTIC).transfers().size();
+
+            assertThat(exact).isLessThanOrEqualTo(heuristic);
+            assertThat(heuristic).isLessThanOrEqualTo(Math.max(nonZeroCount(balances) - 1, 0));
+        }
+    }
+
+    @Test
+    void choosesModeByGroupSize() {
+        Random random = new Random(3L);
+        SettlementPlanner small = new SettlementPlanner(6, 1_000);
+
+        long[] fewMembers = randomBalances(random, 6);
+        long[] manyMembers = randomBalances(random, 30);
+
+        assertThat(small.plan(fewMembers).mode()).isEqualTo(SettlementPlanner.Mode.EXACT);
+        assertThat(small.plan(manyMembers).mode()).isEqualTo(SettlementPlanner.Mode.HEURISTIC);
+    }
+
+    @Test
+    void fallsBackToHeuristicWhenTimeBudgetIsExceeded() {
+        SettlementPlanner noBudget = new SettlementPlanner(20, 0);
+        long[] balances = randomBalances(new Random(11L), 20);
+
+        SettlementPlanner.Plan plan = noBudget.plan(balances);
+
+        assertThat(plan.mode()).isEqualTo(SettlementPlanner.Mode.HEURISTIC);
+        assertZeroes(balances, plan);
+    }
+
+    @Test
+    void plansOverResidualWhenBalancesDoNotSumToZero() {
+        long[] balances = {100, -50, 30, -30};
+
+        SettlementPlanner.Plan plan = planner.plan(balances);
+
+        assertThat(plan.mode()).isEqualTo(SettlementPlanner.Mode.HEURISTIC);
+        long[] remaining = balances.clone();
+        for (SettlementPlanner.Transfer transfer : plan.transfers()) {
+            assertThat(balances[transfer.from()]).isNegative();
+            assertThat(balances[transfer.to()]).isPositive();
+            remaining[transfer.from()] += transfer.amount();
+            remaining[transfer.to()] -= transfer.amount();
+        }
+        // 채무자는 모두 정산되고 잔차(50)만 채권자에게 남음
+        assertThat(remaining).containsExactly(50L, 0L, 0L, 0L);
+    }
+
+    @Test
+    void exactModeRejectsBalancesThatDoNotSumToZero() {
+        assertThatThrownBy(() -> planner.plan(new long[]{100, -50}, SettlementPlanner.Mode.EXACT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertZeroes(long[] balances, SettlementPlanner.Plan plan) {
+        long[] remaining = balances.clone();
+        for (SettlementPlanner.Transfer transfer : plan.transfers()) {
+            assertThat(transfer.amount()).isPositive();
+            assertThat(transfer.from()).isNotEqualTo(transfer.to());
+            assertThat(balances[transfer.from()]).isNegative();
+            assertThat(balances[transfer.to()]).isPositive();
+            remaining[transfer.from()] += transfer.amount();
+            remaining[transfer.to()] -= transfer.amount();
+        }
+        assertThat(remaining).containsOnly(0L);
+    }
+
+    /**
+     * 합이 0 인 작은 그룹 여러 개를 섞어서 생성 (같은 금액 · 합 0 부분집합이 자주 나오도록)
+     */
+    private static long[] randomBalances(Random random, int size) {
+        List<Long> values = new ArrayList<>(size);
+        while (values.size() < size) {
+            int groupSize = Math.min(size - values.size(), 1 + random.nextInt(4));
+            long total = 0;
+            for (int i = 0; i < groupSize - 1; i++) {
+                long amount = (random.nextInt(21) - 10) * 1_000L;
+                values.add(amount);
+                total += amount;
+            }
+            values.add(-total);
+        }
+        Collections.shuffle(values, random);
+        long[] balances = new long[size];
+        for (int i = 0; i < size; i++) {
+            balances[i] = values.get(i);
+        }
+        return balances;
+    }
+
+    private static int nonZeroCount(long[] balances) {
+        int count = 0;
+        for (long balance : balances) {
+            if (balance != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 최소 송금 횟수 (백트래킹, 작은 입력 전용)
+     */
+    private static int bruteForceMinimum(long[] balances) {
+        return search(balances.clone(), 0);
+    }
+
+    private static int search(long[] debt, int start) {
+        while (start < debt.length && debt[start] == 0) {
+            start++;
+        }
+        if (start == debt.length) {
+            return 0;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int i = start + 1; i < debt.length; i++) {
+            if (debt[i] * debt[start] < 0) {
+                debt[i] += debt[start];
+                best = Math.min(best, 1 + search(debt, start + 1));
+                debt[i] -= debt[start];
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,117 @@
+package forproject.spring_oauth2_jwt.service;
+
+import forproject.spring_oauth2_jwt.util.LongSumAggregator;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TripBalanceLedger 지연 생성 테스트
+ *
+ * 읽기 전용 트랜잭션(REPEATABLE READ) 안에서는 첫 SELECT 이후 다른 트랜잭션이 커밋한 장부 행이 보이지 않는다.
+ * 장부 SELECT 가 항상 스냅샷(빈 결과)을 돌려주도록 흉내 내고, 첫 조회가 재계산 결과를 반환하는지 확인한다.
+ */
+class TripBalanceLedgerTest {
+
+    private static final long TRIP_ID = 1L;
+    private static final long PAYER = 10L;
+    private static final long FRIEND = 20L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TripBalanceLedger ledger = new TripBalanceLedger(jdbcTemplate, new NoOpTransactionManager());
+
+    @Test
+    void firstSummaryInReadOnlyTransactionReturnsRebuiltBalances() throws Exception {
+        List<Object[]> written = new ArrayList<>();
+        // 스냅샷: 장부 행 없음 (REQUIRES_NEW 재계산이 커밋해도 계속 빈 결과)
+        rows("SELECT user_id, balance FROM trip_balance", List.of());
+        // 원본: 지출 참여자별 owedAmount + 친구 → 결제자 정산 10,000원
+        rows("SELECT p.user_id, SUM(p.owed_amount)", List.of(
+                Map.of(1, PAYER, 2, 0L),
+                Map.of(1, FRIEND, 2, 30_000L)));
+        rows("SELECT from_user_id, to_user_id, SUM(amount)", List.of(
+                Map.of(1, FRIEND, 2, PAYER, 3, 10_000L)));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(1));
+            return new int[0];
+        });
+
+        TransactionTemplate readOnly = new TransactionTemplate(new NoOpTransactionManager());
+        readOnly.setReadOnly(true);
+        LongSumAggregator balances = readOnly.execute(status -> ledger.getBalances(TRIP_ID));
+
+        assertThat(balances.size()).isEqualTo(2);
+        assertThat(balances.get(FRIEND)).isEqualTo(40_000L);
+        assertThat(balances.get(PAYER)).isEqualTo(-10_000L);
+        // 장부도 생성됨 (0 원 사용자 포함)
+        assertThat(written).hasSize(2);
+    }
+
+    @Test
+    void tripWithoutSourceHasNoBalances() {
+        rows("SELECT user_id, balance FROM trip_balance", List.of());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(false);
+
+        assertThat(ledger.getBalances(TRIP_ID).size()).isZero();
+    }
+
+    /**
+     * sqlPrefix 로 시작하는 query(sql, RowCallbackHandler, args) 호출에 행(열 번호 → long 값)을 전달
+     */
+    private void rows(String sqlPrefix, List<Map<Integer, Long>> rows) {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<Integer, Long> row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                for (Map.Entry<Integer, Long> column : row.entrySet()) {
+                    when(rs.getLong(column.getKey())).thenReturn(column.getValue());
+                }
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sqlPrefix),
+                any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    /**
+     * 트랜잭션 경계만 흉내 내는 매니저 (DB 없음)
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
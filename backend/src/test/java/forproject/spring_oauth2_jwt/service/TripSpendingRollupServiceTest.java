@@ -0,0 +1,135 @@
+package forproject.spring_oauth2_jwt.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static forproject.spring_oauth2_jwt.service.TripSpendingRollupService.TRIP_TOTAL_USER_ID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TripSpendingRollupService 지연 생성 테스트
+ *
+ * 읽기 전용 트랜잭션(REPEATABLE READ) 안에서는 별도 트랜잭션이 커밋한 롤업 행이 보이지 않으므로
+ * 롤업 SELECT 가 항상 스냅샷(빈 결과)을 돌려주도록 흉내 내고, 첫 조회가 생성한 행을 반환하는지 확인한다.
+ */
+class TripSpendingRollupServiceTest {
+
+    private static final long TRIP_ID = 1L;
+    private static final long ME = 10L;
+    private static final LocalDate DAY = LocalDate.of(2025, 5, 1);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TripSpendingRollupService service =
+            new TripSpendingRollupService(jdbcTemplate, new NoOpTransactionManager());
+
+    @Test
+    void firstViewInReadOnlyTransactionReturnsBuiltRows() throws Exception {
+        givenEmptySnapshotWithSource();
+
+        List<TripSpendingRollupService.Row> rows = readOnly().execute(status -> service.getRows(TRIP_ID));
+
+        assertThat(rows)
+                .extracting(TripSpendingRollupService.Row::userId, TripSpendingRollupService.Row::category,
+                        TripSpendingRollupService.Row::paidAmount, TripSpendingRollupService.Row::expenseAmount,
+                        TripSpendingRollupService.Row::sharedAmount)
+                .containsExactlyInAnyOrder(
+                        tuple(ME, "식비", 30_000L, 0L, 0L),
+                        tuple(TRIP_TOTAL_USER_ID, "식비", 0L, 30_000L, 0L),
+                        tuple(TRIP_TOTAL_USER_ID, "교통", 0L, 0L, 5_000L));
+    }
+
+    @Test
+    void firstSpentTotalInReadOnlyTransactionUsesBuiltRows() throws Exception {
+        givenEmptySnapshotWithSource();
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(null);
+
+        Long spent = readOnly().execute(status -> service.getSpentTotal(TRIP_ID));
+
+        assertThat(spent).isEqualTo(35_000L);
+    }
+
+    private void givenEmptySnapshotWithSource() throws Exception {
+        // 스냅샷: 롤업 행 없음 (생성 트랜잭션이 커밋해도 계속 빈 결과)
+        when(jdbcTemplate.query(startsWith("SELECT user_id, spend_date"), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of());
+        rows("SELECT user_id, spend_date", List.of());
+        rows("SELECT p.user_id, e.expense_date", List.of(Map.of(1, ME, 2, Date.valueOf(DAY), 3, "식비", 4, 30_000L)));
+        rows("SELECT expense_date, category", List.of(Map.of(1, Date.valueOf(DAY), 2, "식비", 3, 30_000L)));
+        rows("SELECT DATE(t.created_at)", List.of(Map.of(1, Date.valueOf(DAY), 2, "교통", 3, 5_000L)));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[0]);
+    }
+
+    private static TransactionTemplate readOnly() {
+        TransactionTemplate template = new TransactionTemplate(new NoOpTransactionManager());
+        template.setReadOnly(true);
+        return template;
+    }
+
+    /**
+     * sqlPrefix 로 시작하는 query(sql, RowCallbackHandler, args) 호출에 행(열 번호 → 값)을 전달
+     */
+    private void rows(String sqlPrefix, List<Map<Integer, Object>> rows) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map<Integer, Object> row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                for (Map.Entry<Integer, Object> column : row.entrySet()) {
+                    Object value = column.getValue();
+                    if (value instanceof Long number) {
+                        when(rs.getLong(column.getKey())).thenReturn(number);
+                    } else if (value instanceof Date date) {
+                        when(rs.getDate(column.getKey())).thenReturn(date);
+                    } else {
+                        when(rs.getString(column.getKey())).thenReturn((String) value);
+                    }
+                }
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith(sqlPrefix), any(RowCallbackHandler.class), any(Object[].class));
+    }
+
+    /**
+     * 트랜잭션 경계만 흉내 내는 매니저 (DB 없음)
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
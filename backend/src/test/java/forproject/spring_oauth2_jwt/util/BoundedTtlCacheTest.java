@@ -0,0 +1,68 @@
+package forproject.spring_oauth2_jwt.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BoundedTtlCache 만료 · 크기 제한 · 정리 간격 테스트
+ */
+class BoundedTtlCacheTest {
+
+    // 값 = 만료 시각(ms)
+    private static BoundedTtlCache<String, Long> cache(int maxSize) {
+        return new BoundedTtlCache<>(maxSize, expiresAt -> expiresAt, 1_000L);
+    }
+
+    @Test
+    void expiredValueIsTreatedAsMissing() {
+        BoundedTtlCache<String, Long> cache = cache(10);
+        cache.put("a", 100L, 0L);
+
+        assertThat(cache.get("a", 99L)).isEqualTo(100L);
+        assertThat(cache.get("a", 100L)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.expirations()).isEqualTo(1L);
+    }
+
+    @Test
+    void skipsPutWhenFullOfLiveEntries() {
+        BoundedTtlCache<String, Long> cache = cache(2);
+        cache.put("a", 5_000L, 0L);
+        cache.put("b", 5_000L, 0L);
+
+        assertThat(cache.put("c", 5_000L, 1_000L)).isFalse();
+        assertThat(cache.get("c", 1_000L)).isNull();
+        // 이미 있는 키는 가득 차 있어도 갱신
+        assertThat(cache.put("a", 6_000L, 1_000L)).isTrue();
+        assertThat(cache.get("a", 1_000L)).isEqualTo(6_000L);
+    }
+
+    @Test
+    void sweepsExpiredEntriesAtMostOncePerInterval() {
+        BoundedTtlCache<String, Long> cache = cache(2);
+        cache.put("a", 5_000L, 0L);
+        cache.put("b", 5_000L, 0L);
+
+        // 1,000ms: 정리했지만 살아 있는 항목뿐 → 생략
+        assertThat(cache.put("c", 9_000L, 1_000L)).isFalse();
+        // 5,500ms: a, b 만료 → 직전 정리(1,000ms) 이후 간격이 지났으므로 정리 후 저장
+        assertThat(cache.put("c", 9_000L, 5_500L)).isTrue();
+        assertThat(cache.expirations()).isEqualTo(2L);
+
+        cache.put("d", 6_000L, 5_500L);
+        // 6,000ms: d 만료됐지만 마지막 정리(5,500ms) 후 1초가 안 지남 → 스캔 없이 생략
+        assertThat(cache.put("e", 9_000L, 6_000L)).isFalse();
+        assertThat(cache.put("e", 9_000L, 6_500L)).isTrue();
+    }
+
+    @Test
+    void computeIfAbsentReturnsNullWhenFull() {
+        BoundedTtlCache<String, Long> cache = cache(1);
+
+        assertThat(cache.computeIfAbsent("a", key -> 5_000L, 0L)).isEqualTo(5_000L);
+        assertThat(cache.computeIfAbsent("a", key -> 7_000L, 0L)).isEqualTo(5_000L);
+        assertThat(cache.computeIfAbsent("b", key -> 7_000L, 1_000L)).isNull();
+        assertThat(cache.computeIfAbsent("b", key -> 7_000L, 5_000L)).isEqualTo(7_000L);
+    }
+}
@@ -0,0 +1,94 @@
+package forproject.spring_oauth2_jwt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LongKeyIndex 를 HashMap 과 비교하는 무작위 테스트
+ */
+class LongKeyIndexTest {
+
+    @Test
+    void matchesHashMapForRandomKeys() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            // 작은 초기 용량 + 좁은 키 범위 → 충돌과 여러 번의 확장이 함께 일어남
+            LongKeyIndex index = new LongKeyIndex(4);
+            Map<Long, Integer> expected = new HashMap<>();
+            List<Long> order = new ArrayList<>();
+
+            for (int i = 0; i < 5_000; i++) {
+                long key = randomKey(random);
+                Integer known = expected.get(key);
+                int actual = index.intern(key);
+                if (known == null) {
+                    expected.put(key, order.size());
+                    order.add(key);
+                    assertThat(actual).isEqualTo(order.size() - 1);
+                } else {
+                    assertThat(actual).isEqualTo(known);
+                }
+            }
+
+            assertThat(index.size()).isEqualTo(expected.size());
+            for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+                assertThat(index.indexOf(entry.getKey())).isEqualTo(entry.getValue());
+            }
+            for (int i = 0; i < order.size(); i++) {
+                assertThat(index.keyAt(i)).isEqualTo(order.get(i));
+            }
+            assertThat(index.keys()).containsExactly(order.stream().mapToLong(Long::longValue).toArray());
+
+            for (int i = 0; i < 1_000; i++) {
+                long key = randomKey(random);
+                assertThat(index.indexOf(key)).isEqualTo(expected.getOrDefault(key, -1));
+            }
+        }
+    }
+
+    @Test
+    void handlesZeroNegativeAndExtremeKeys() {
+        LongKeyIndex index = new LongKeyIndex();
+        long[] keys = {0L, -1L, 1L, Long.MIN_VALUE, Long.MAX_VALUE, -1_000_000_007L};
+
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(index.indexOf(keys[i])).isEqualTo(-1);
+            assertThat(index.intern(keys[i])).isEqualTo(i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(index.intern(keys[i])).isEqualTo(i);
+            assertThat(index.keyAt(i)).isEqualTo(keys[i]);
+        }
+        assertThat(index.size()).isEqualTo(keys.length);
+        assertThat(index.indexOf(2L)).isEqualTo(-1);
+    }
+
+    @Test
+    void rejectsIndexBeyondSize() {
+        LongKeyIndex index = new LongKeyIndex();
+        index.intern(7L);
+
+        assertThatThrownBy(() -> index.keyAt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static long randomKey(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(64) - 32;             // 0 과 음수 포함 작은 범위
+            case 1:
+                return random.nextInt(2_000);               // 연속 id
+            case 2:
+                return (long) random.nextInt(256) << 32;    // 하위 비트가 같은 키
+            default:
+                return random.nextLong();
+        }
+    }
+}
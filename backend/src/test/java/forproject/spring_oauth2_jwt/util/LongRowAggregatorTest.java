@@ -0,0 +1,81 @@
+package forproject.spring_oauth2_jwt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LongRowAggregator 를 LinkedHashMap&lt;Long, long[]&gt; 와 비교하는 무작위 테스트
+ */
+class LongRowAggregatorTest {
+
+    @Test
+    void matchesHashMapForRandomDeltas() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            int width = 1 + random.nextInt(4);
+            LongRowAggregator aggregator = new LongRowAggregator(width, random.nextBoolean() ? 1 : 16);
+            Map<Long, long[]> expected = new LinkedHashMap<>();
+
+            for (int i = 0; i < 5_000; i++) {
+                long key = random.nextBoolean() ? random.nextInt(2_000) - 1_000 : random.nextLong();
+                int column = random.nextInt(width);
+                long delta = random.nextInt(200_001) - 100_000;
+                aggregator.add(key, column, delta);
+                expected.computeIfAbsent(key, k -> new long[width])[column] += delta;
+            }
+
+            assertThat(aggregator.size()).isEqualTo(expected.size());
+            assertThat(aggregator.width()).isEqualTo(width);
+            int row = 0;
+            for (Map.Entry<Long, long[]> entry : expected.entrySet()) {
+                assertThat(aggregator.keyAt(row)).isEqualTo(entry.getKey());
+                for (int column = 0; column < width; column++) {
+                    assertThat(aggregator.valueAt(row, column)).isEqualTo(entry.getValue()[column]);
+                    assertThat(aggregator.get(entry.getKey(), column)).isEqualTo(entry.getValue()[column]);
+                }
+                row++;
+            }
+
+            for (int probe = 0; probe < 1_000; probe++) {
+                long key = random.nextInt(4_000) - 2_000;
+                long[] values = expected.get(key);
+                for (int column = 0; column < width; column++) {
+                    assertThat(aggregator.get(key, column)).isEqualTo(values == null ? 0L : values[column]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsColumnsOfZeroAndNegativeKeysApart() {
+        LongRowAggregator aggregator = new LongRowAggregator(2);
+        aggregator.add(0L, 0, 10L);
+        aggregator.add(-1L, 1, 20L);
+        aggregator.add(0L, 1, -5L);
+
+        assertThat(aggregator.size()).isEqualTo(2);
+        assertThat(aggregator.get(0L, 0)).isEqualTo(10L);
+        assertThat(aggregator.get(0L, 1)).isEqualTo(-5L);
+        assertThat(aggregator.get(-1L, 0)).isZero();
+        assertThat(aggregator.get(-1L, 1)).isEqualTo(20L);
+        assertThat(aggregator.get(1L, 0)).isZero();
+    }
+
+    @Test
+    void rejectsInvalidWidthColumnAndRow() {
+        assertThatThrownBy(() -> new LongRowAggregator(0)).isInstanceOf(IllegalArgumentException.class);
+
+        LongRowAggregator aggregator = new LongRowAggregator(2);
+        aggregator.add(1L, 0, 1L);
+
+        assertThatThrownBy(() -> aggregator.add(1L, 2, 1L)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> aggregator.get(1L, -1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> aggregator.valueAt(1, 0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
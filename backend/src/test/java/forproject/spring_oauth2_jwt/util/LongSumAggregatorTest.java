@@ -0,0 +1,77 @@
+package forproject.spring_oauth2_jwt.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * LongSumAggregator 를 LinkedHashMap.merge(..., Long::sum) 와 비교하는 무작위 테스트
+ */
+class LongSumAggregatorTest {
+
+    @Test
+    void matchesHashMapForRandomDeltas() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            LongSumAggregator aggregator = new LongSumAggregator(random.nextBoolean() ? 1 : 16);
+            Map<Long, Long> expected = new LinkedHashMap<>();
+
+            for (int i = 0; i < 5_000; i++) {
+                long key = random.nextInt(3_000) - 1_500;
+                long delta = random.nextInt(200_001) - 100_000;
+                aggregator.add(key, delta);
+                expected.merge(key, delta, Long::sum);
+            }
+
+            assertThat(aggregator.size()).isEqualTo(expected.size());
+            int i = 0;
+            long total = 0L;
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                // 순회 순서 = 키를 처음 본 순서 (LinkedHashMap 삽입 순서와 같음)
+                assertThat(aggregator.keyAt(i)).isEqualTo(entry.getKey());
+                assertThat(aggregator.valueAt(i)).isEqualTo(entry.getValue());
+                assertThat(aggregator.get(entry.getKey())).isEqualTo(entry.getValue());
+                assertThat(aggregator.containsKey(entry.getKey())).isTrue();
+                total += entry.getValue();
+                i++;
+            }
+            assertThat(aggregator.total()).isEqualTo(total);
+            assertThat(aggregator.keys()).containsExactly(expected.keySet().stream().mapToLong(Long::longValue).toArray());
+
+            for (int probe = 0; probe < 1_000; probe++) {
+                long key = random.nextLong();
+                assertThat(aggregator.get(key)).isEqualTo(expected.getOrDefault(key, 0L));
+                assertThat(aggregator.containsKey(key)).isEqualTo(expected.containsKey(key));
+            }
+        }
+    }
+
+    @Test
+    void keepsKeyWhoseSumReturnsToZero() {
+        LongSumAggregator aggregator = new LongSumAggregator();
+        aggregator.add(0L, 500L);
+        aggregator.add(0L, -500L);
+        aggregator.add(-3L, 0L);
+
+        assertThat(aggregator.size()).isEqualTo(2);
+        assertThat(aggregator.containsKey(0L)).isTrue();
+        assertThat(aggregator.containsKey(-3L)).isTrue();
+        assertThat(aggregator.get(0L)).isZero();
+        assertThat(aggregator.containsKey(1L)).isFalse();
+        assertThat(aggregator.get(1L)).isZero();
+    }
+
+    @Test
+    void rejectsIndexBeyondSize() {
+        LongSumAggregator aggregator = new LongSumAggregator();
+        aggregator.add(1L, 1L);
+
+        assertThatThrownBy(() -> aggregator.valueAt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> aggregator.keyAt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}